@@ -0,0 +1,84 @@
+package de.oppa.mi4j;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.WString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Measures the per-call overhead of the interface mapped and the direct mapped JNA bindings.
+ * <p>
+ * The calls are cheap on the native side, so the results are dominated by the binding itself.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+    private static final WString OPTION_COMPLETE = new WString("Complete");
+    private static final WString VALUE_ONE = new WString("1");
+
+    @Param({"proxy", "direct"})
+    public String binding;
+
+    private MediaInfoLib mediaInfoLib;
+    private Pointer handle;
+
+    @Setup
+    public void setUp() {
+        mediaInfoLib = MediaInfoLib.getInstance(MediaInfoBinding.valueOf(binding.toUpperCase()));
+        handle = mediaInfoLib.MediaInfo_New();
+    }
+
+    @TearDown
+    public void tearDown() {
+        mediaInfoLib.MediaInfo_Delete(handle);
+    }
+
+    @Benchmark
+    public void close() {
+        mediaInfoLib.MediaInfo_Close(handle);
+    }
+
+    @Benchmark
+    public void option() {
+        mediaInfoLib.MediaInfo_Option(handle, OPTION_COMPLETE, VALUE_ONE);
+    }
+
+    @Benchmark
+    public WString inform() {
+        return mediaInfoLib.MediaInfo_Inform(handle);
+    }
+}
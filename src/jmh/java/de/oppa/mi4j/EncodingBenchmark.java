@@ -0,0 +1,116 @@
+package de.oppa.mi4j;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Compares the wide and the UTF-8 string exchange of the JNA backend.
+ * <p>
+ * The {@code decode} benchmarks copy a {@code full.txt} sized report out of native memory,
+ * encoded like the library would return it, and isolate the cost JNA pays per string.
+ * The {@code inform} benchmark renders the complete report of the bundled mp4 file.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+    @Param({"utf8", "wide"})
+    public String encoding;
+
+    private Memory report;
+    private Path file;
+    private JnaMediaInfoBackend backend;
+    private long handle;
+
+    @Setup
+    public void setUp() throws IOException {
+        String text;
+        try (InputStream in = getClass().getResourceAsStream("/full.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("Benchmark resource not found: full.txt");
+            }
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        Charset wide = Charset.forName(Native.WCHAR_SIZE == 2 ? "UTF-16LE" : "UTF-32LE");
+        byte[] bytes = (text + '\0').getBytes("utf8".equals(encoding) ? StandardCharsets.UTF_8 : wide);
+        report = new Memory(bytes.length);
+        report.write(0, bytes, 0, bytes.length);
+
+        file = Files.createTempFile("encoding-benchmark", ".mp4");
+        try (InputStream in = getClass().getResourceAsStream("/mp4-file.mp4")) {
+            if (in == null) {
+                throw new IllegalStateException("Benchmark resource not found: mp4-file.mp4");
+            }
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        backend = new JnaMediaInfoBackend(MediaInfoLib.getInstance(), MediaInfoEncoding.valueOf(encoding.toUpperCase()));
+        handle = backend.newHandle();
+        backend.setOption(handle, "Complete", "1");
+        if (!backend.open(handle, file.toString())) {
+            throw new IllegalStateException("Failed to open benchmark file");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        backend.deleteHandle(handle);
+        Files.deleteIfExists(file);
+        report.close();
+    }
+
+    @Benchmark
+    public String decode() {
+        Pointer pointer = report;
+        return "utf8".equals(encoding) ? pointer.getString(0, "UTF-8") : pointer.getWideString(0);
+    }
+
+    @Benchmark
+    public String inform() {
+        return backend.inform(handle);
+    }
+}
@@ -0,0 +1,100 @@
+package de.oppa.mi4j;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Compares {@code MediaInfo_Open} against feeding the buffer API from a channel and from a memory mapping.
+ * <p>
+ * The synthetic files are the bundled {@code mp4-file.mp4} padded with sparse zeros up to the
+ * given size in MiB, a size of 0 uses the bundled file as is.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedModeBenchmark {
+    @Param({"0", "1024", "8192"})
+    public long sizeMiB;
+
+    private final MediaInfoParser parser = new MediaInfoParser();
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("feed-mode-benchmark", ".mp4");
+        try (InputStream in = getClass().getResourceAsStream("/mp4-file.mp4")) {
+            if (in == null) {
+                throw new IllegalStateException("Benchmark resource not found: mp4-file.mp4");
+            }
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        if (sizeMiB > 0) {
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(sizeMiB * 1024 * 1024);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public MediaInfo open() {
+        return parser.parseFile(file.toString());
+    }
+
+    @Benchmark
+    public MediaInfo channel() throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+            return parser.parse(channel);
+        }
+    }
+
+    @Benchmark
+    public MediaInfo mapped() {
+        return parser.parseMappedFile(file.toString());
+    }
+}
@@ -0,0 +1,139 @@
+package de.oppa.mi4j;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Compares a fixed summary schema rendered with an {@link InformTemplate} against the complete report.
+ * <p>
+ * The {@code parse} benchmarks measure the Java side only: {@code full.txt} with
+ * {@link MediaInfoParser#parseData(String)} against the template output for the same streams.
+ * The {@code render} benchmarks include the native rendering of the bundled mp4 file.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InformTemplateBenchmark {
+    private static final InformTemplate TEMPLATE = new InformTemplate(Map.of(
+        SectionType.GENERAL, List.of("Format", "Duration", "OverallBitRate"),
+        SectionType.VIDEO, List.of("Format", "Width", "Height", "FrameRate"),
+        SectionType.AUDIO, List.of("Format", "Channel(s)", "Language"),
+        SectionType.TEXT, List.of("Format", "Language")));
+
+    private final MediaInfoParser parser = new MediaInfoParser();
+    private String report;
+    private String templateOutput;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/full.txt")) {
+            if (in == null) {
+                throw new IllegalStateException("Benchmark resource not found: full.txt");
+            }
+            report = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        templateOutput = renderTemplateOutput(parser.parseData(report));
+
+        file = Files.createTempFile("inform-template-benchmark", ".mp4");
+        try (InputStream in = getClass().getResourceAsStream("/mp4-file.mp4")) {
+            if (in == null) {
+                throw new IllegalStateException("Benchmark resource not found: mp4-file.mp4");
+            }
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public MediaInfo parseReport() {
+        return parser.parseData(report);
+    }
+
+    @Benchmark
+    public InformTemplate.Result parseTemplate() {
+        return TEMPLATE.decode(templateOutput);
+    }
+
+    @Benchmark
+    public MediaInfo renderReport() {
+        return parser.parseFile(file.toString());
+    }
+
+    @Benchmark
+    public InformTemplate.Result renderTemplate() {
+        return parser.inform(file.toString(), TEMPLATE);
+    }
+
+    /**
+     * Build the output the library would render with the template for the streams of a parsed report.
+     */
+    private static String renderTemplateOutput(MediaInfo mediaInfo) {
+        StringBuilder builder = new StringBuilder();
+        for (SectionType type : SectionType.values()) {
+            List<String> fields = TEMPLATE.getFieldNames(type);
+            Map<String, Section> sections = mediaInfo.getSections(type);
+            if (fields.isEmpty() || sections.isEmpty()) {
+                continue;
+            }
+
+            int streamNumber = 0;
+            for (Section section : sections.values()) {
+                builder.append(InformTemplate.RECORD_SEPARATOR).append(type.getName())
+                    .append(InformTemplate.UNIT_SEPARATOR).append(streamNumber++)
+                    .append(InformTemplate.UNIT_SEPARATOR).append(sections.size());
+                for (String field : fields) {
+                    String value = section.getFieldValue(field);
+                    builder.append(InformTemplate.UNIT_SEPARATOR).append(value == null ? "" : value);
+                }
+                builder.append(System.lineSeparator());
+            }
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package de.oppa.mi4j;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Compares sorting a catalog of sections by bit rate when every comparison parses the
+ * human readable value, e.g. "5 765 kb/s", against the cached typed value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypedFieldBenchmark {
+    private static final int CATALOG_SIZE = 10_000;
+
+    private final List<Section> catalog = new ArrayList<>(CATALOG_SIZE);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            Section section = new Section("General");
+            section.addFieldValue("Overall bit rate", String.format(Locale.ROOT, "%,d kb/s", 500 + random.nextInt(40_000)).replace(',', ' '));
+            catalog.add(section);
+        }
+    }
+
+    @Benchmark
+    public List<Section> parseStrings() {
+        List<Section> sorted = new ArrayList<>(catalog);
+        sorted.sort(Comparator.comparingLong(section -> parseBitRate(section.getFieldValue("Overall bit rate"))));
+        return sorted;
+    }
+
+    @Benchmark
+    public List<Section> typedValues() {
+        List<Section> sorted = new ArrayList<>(catalog);
+        sorted.sort(Comparator.comparingLong(section -> section.getLong(Field.OVERALL_BIT_RATE)));
+        return sorted;
+    }
+
+    private static long parseBitRate(String value) {
+        String digits = value.substring(0, value.indexOf(" kb/s")).replace(" ", "");
+        return Long.parseLong(digits) * 1000;
+    }
+}
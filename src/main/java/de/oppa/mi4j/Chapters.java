@@ -0,0 +1,400 @@
+package de.oppa.mi4j;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Immutable chapters of a menu section.
+ * <p>
+ * The start times are kept in a {@code long[]} of milliseconds, sorted ascending, and all
+ * titles in one string with an array of their end offsets, so a file with thousands of
+ * chapters costs a few arrays instead of two fields per chapter. The chapter playing at a
+ * position is found by binary search. The legacy {@code ChapterName x} and
+ * {@code ChapterTimestamp x} fields of a section are derived from the chapters when read.
+ * <p>
+ * Titles are kept as reported, e.g. {@code ": en:Chapter 1"} in the text report.
+ * </p>
+ */
+public final class Chapters {
+    /**
+     * Chapters of a section without any.
+     */
+    public static final Chapters EMPTY = new Chapters(new long[0], "", new int[0]);
+
+    private static final String NAME_PREFIX = "ChapterName ";
+    private static final String TIMESTAMP_PREFIX = "ChapterTimestamp ";
+    private static final int CACHED_FIELD_NAMES = 1024;
+    private static final String[] NAME_FIELDS = new String[CACHED_FIELD_NAMES];
+    private static final String[] TIMESTAMP_FIELDS = new String[CACHED_FIELD_NAMES];
+
+    private final long[] startMillis;
+    private final String titles;
+    private final int[] titleEnds;
+
+    private Chapters(long[] startMillis, String titles, int[] titleEnds) {
+        this.startMillis = startMillis;
+        this.titles = titles;
+        this.titleEnds = titleEnds;
+    }
+
+    /**
+     * Get the number of chapters.
+     *
+     * @return the number of chapters
+     */
+    public int size() {
+        return startMillis.length;
+    }
+
+    /**
+     * Check if there are no chapters.
+     *
+     * @return true if there are no chapters
+     */
+    public boolean isEmpty() {
+        return startMillis.length == 0;
+    }
+
+    /**
+     * Get the start of a chapter.
+     *
+     * @param index chapter index, starting at 0
+     * @return the start in milliseconds
+     * @throws MediaInfoException if the index is out of range
+     */
+    public long getStartMillis(int index) {
+        checkIndex(index);
+        return startMillis[index];
+    }
+
+    /**
+     * Get the title of a chapter.
+     *
+     * @param index chapter index, starting at 0
+     * @return the title
+     * @throws MediaInfoException if the index is out of range
+     */
+    public String getTitle(int index) {
+        checkIndex(index);
+        return titles.substring(index == 0 ? 0 : titleEnds[index - 1], titleEnds[index]);
+    }
+
+    /**
+     * Get the start times of all chapters.
+     *
+     * @return a copy of the start times in milliseconds, sorted ascending
+     */
+    public long[] getStartMillis() {
+        return startMillis.clone();
+    }
+
+    /**
+     * Get the index of the chapter playing at a position, i.e. the last chapter starting at or before it.
+     *
+     * @param positionMillis playback position in milliseconds
+     * @return the chapter index, or -1 if the position is before the first chapter
+     */
+    public int indexAt(long positionMillis) {
+        int index = Arrays.binarySearch(startMillis, positionMillis);
+        if (index < 0) {
+            return -index - 2;
+        }
+
+        // Chapters may share a start, the last one is playing
+        while (index + 1 < startMillis.length && startMillis[index + 1] == positionMillis) {
+            index++;
+        }
+
+        return index;
+    }
+
+    /**
+     * Get the name of the legacy field holding the title of a chapter, e.g. {@code ChapterName 1}.
+     *
+     * @param number chapter number, starting at 1
+     * @return the field name
+     */
+    static String nameField(int number) {
+        return fieldName(NAME_FIELDS, NAME_PREFIX, number);
+    }
+
+    /**
+     * Get the name of the legacy field holding the timestamp of a chapter, e.g. {@code ChapterTimestamp 1}.
+     *
+     * @param number chapter number, starting at 1
+     * @return the field name
+     */
+    static String timestampField(int number) {
+        return fieldName(TIMESTAMP_FIELDS, TIMESTAMP_PREFIX, number);
+    }
+
+    /**
+     * Check if a field is a legacy chapter field, i.e. {@code ChapterName x} or {@code ChapterTimestamp x}.
+     *
+     * @param field the field name
+     * @return true if it is a chapter field
+     */
+    static boolean isChapterField(String field) {
+        return field.startsWith(NAME_PREFIX) || field.startsWith(TIMESTAMP_PREFIX);
+    }
+
+    /**
+     * Get the value of a legacy chapter field.
+     *
+     * @param field       the field name, e.g. {@code ChapterName 3}
+     * @param firstNumber number of the first chapter in the field names
+     * @return the title or the formatted start of the chapter, or null if the field names none of the chapters
+     */
+    String fieldValue(String field, int firstNumber) {
+        boolean title = field.startsWith(NAME_PREFIX);
+        if (!title && !field.startsWith(TIMESTAMP_PREFIX)) {
+            return null;
+        }
+
+        int number = parseNumber(field, title ? NAME_PREFIX.length() : TIMESTAMP_PREFIX.length());
+        int index = number - firstNumber;
+        if (number < 0 || index < 0 || index >= startMillis.length) {
+            return null;
+        }
+
+        return title ? getTitle(index) : MediaInfoBuilder.formatTimestamp(startMillis[index]);
+    }
+
+    /**
+     * Iterate the legacy chapter fields in name order: the titles before the timestamps, and the
+     * numbers in string order, e.g. {@code ChapterName 10} before {@code ChapterName 2}.
+     *
+     * @param firstNumber number of the first chapter in the field names
+     * @return the iterator over the field names and values
+     */
+    Iterator<Map.Entry<String, String>> fieldIterator(int firstNumber) {
+        return new FieldIterator(firstNumber);
+    }
+
+    /**
+     * Parse a positive decimal number without leading zeros, as written in the field names.
+     *
+     * @return the number, or -1 if the rest of the field is not such a number
+     */
+    private static int parseNumber(String field, int from) {
+        int length = field.length() - from;
+        if (length < 1 || length > 9 || field.charAt(from) == '0') {
+            return -1;
+        }
+
+        int number = 0;
+        for (int i = from; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + c - '0';
+        }
+
+        return number;
+    }
+
+    /**
+     * Get the number following another one when the numbers from 1 to a maximum are sorted as strings.
+     *
+     * @param number the current number, or 0 to start
+     * @param max    the maximum number
+     * @return the next number, or 0 after the last one
+     */
+    private static int nextInStringOrder(int number, int max) {
+        if (number == 0) {
+            return max > 0 ? 1 : 0;
+        }
+        if ((long) number * 10 <= max) {
+            return number * 10;
+        }
+
+        while (number % 10 == 9 || number + 1 > max) {
+            number /= 10;
+            if (number == 0) {
+                return 0;
+            }
+        }
+
+        return number + 1;
+    }
+
+    /**
+     * Get a field name from a cache shared by all parsers. Strings are immutable, so racing
+     * threads at worst both create the same name.
+     */
+    private static String fieldName(String[] cache, String prefix, int number) {
+        if (number >= cache.length) {
+            return prefix + number;
+        }
+
+        String name = cache[number];
+        if (name == null) {
+            name = prefix + number;
+            cache[number] = name;
+        }
+
+        return name;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= startMillis.length) {
+            throw new MediaInfoException("Chapter index out of range: %d, chapters: %d".formatted(index, startMillis.length));
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(getClass().getSimpleName()).append('[');
+        for (int i = 0; i < startMillis.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(MediaInfoBuilder.formatTimestamp(startMillis[i])).append('=').append(getTitle(i));
+        }
+
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Iterator over the legacy chapter fields, creating the values as they are read.
+     */
+    private final class FieldIterator implements Iterator<Map.Entry<String, String>> {
+        private final int firstNumber;
+        private final int lastNumber;
+        private boolean titles = true;
+        private int number;
+
+        private FieldIterator(int firstNumber) {
+            this.firstNumber = firstNumber;
+            this.lastNumber = firstNumber + startMillis.length - 1;
+            this.number = advance(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return number != 0;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int index = number - firstNumber;
+            Map.Entry<String, String> entry = titles
+                ? new AbstractMap.SimpleImmutableEntry<>(nameField(number), getTitle(index))
+                : new AbstractMap.SimpleImmutableEntry<>(timestampField(number), MediaInfoBuilder.formatTimestamp(startMillis[index]));
+
+            number = advance(number);
+            if (number == 0 && titles) {
+                titles = false;
+                number = advance(0);
+            }
+
+            return entry;
+        }
+
+        /**
+         * Get the next number of a chapter in string order, skipping the numbers of the chapters of earlier sections.
+         */
+        private int advance(int current) {
+            if (startMillis.length == 0) {
+                return 0;
+            }
+
+            do {
+                current = nextInStringOrder(current, lastNumber);
+            } while (current != 0 && current < firstNumber);
+
+            return current;
+        }
+    }
+
+    /**
+     * Collects the chapters of a section while it is parsed.
+     */
+    static final class Collector {
+        private long[] startMillis = new long[16];
+        private int[] titleEnds = new int[16];
+        private final StringBuilder titles = new StringBuilder();
+        private int count;
+        private boolean sorted = true;
+
+        /**
+         * Add a chapter.
+         *
+         * @param start start in milliseconds
+         * @param title chapter title, copied
+         */
+        void add(long start, CharSequence title) {
+            if (count == startMillis.length) {
+                startMillis = Arrays.copyOf(startMillis, count * 2);
+                titleEnds = Arrays.copyOf(titleEnds, count * 2);
+            }
+            if (count > 0 && start < startMillis[count - 1]) {
+                sorted = false;
+            }
+
+            titles.append(title);
+            startMillis[count] = start;
+            titleEnds[count] = titles.length();
+            count++;
+        }
+
+        /**
+         * Get the collected chapters, sorted by start.
+         *
+         * @return the chapters
+         */
+        Chapters toChapters() {
+            if (count == 0) {
+                return EMPTY;
+            }
+
+            long[] starts = Arrays.copyOf(startMillis, count);
+            if (sorted) {
+                return new Chapters(starts, titles.toString(), Arrays.copyOf(titleEnds, count));
+            }
+
+            // Reorder the titles along with their starts, keeping the report order of equal starts
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(startMillis[a], startMillis[b]));
+
+            StringBuilder sortedTitles = new StringBuilder(titles.length());
+            int[] sortedEnds = new int[count];
+            for (int i = 0; i < count; i++) {
+                int chapter = order[i];
+                starts[i] = startMillis[chapter];
+                sortedTitles.append(titles, chapter == 0 ? 0 : titleEnds[chapter - 1], titleEnds[chapter]);
+                sortedEnds[i] = sortedTitles.length();
+            }
+
+            return new Chapters(starts, sortedTitles.toString(), sortedEnds);
+        }
+    }
+}
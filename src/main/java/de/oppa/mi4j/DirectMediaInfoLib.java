@@ -0,0 +1,234 @@
+package de.oppa.mi4j;
+
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+import com.sun.jna.WString;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * MediaInfoLib implementation using JNA direct mapping.
+ * <p>
+ * The native functions are registered once with {@code Native.register} as static native
+ * methods, which avoids the reflective proxy and per-call argument conversion of the
+ * interface mapping used by {@link MediaInfoLib#getInstance()} by default.
+ * </p>
+ */
+final class DirectMediaInfoLib implements MediaInfoLib {
+    private static final DirectMediaInfoLib INSTANCE = new DirectMediaInfoLib();
+
+    private DirectMediaInfoLib() {
+        // Singleton
+    }
+
+    /**
+     * Get the direct mapped binding, registering the native methods on first use.
+     *
+     * @return the shared direct mapped binding
+     */
+    static DirectMediaInfoLib getInstance() {
+        try {
+            Natives.ensureRegistered();
+        } catch (LinkageError e) {
+            throw new IllegalStateException("Failed to load MediaInfo library", e);
+        }
+
+        return INSTANCE;
+    }
+
+    @Override
+    public Pointer MediaInfo_New() {
+        return Natives.MediaInfo_New();
+    }
+
+    @Override
+    public void MediaInfo_Delete(Pointer handle) {
+        Natives.MediaInfo_Delete(handle);
+    }
+
+    @Override
+    public int MediaInfo_Open(Pointer handle, WString filename) {
+        return Natives.MediaInfo_Open(handle, filename);
+    }
+
+    @Override
+    public void MediaInfo_Close(Pointer handle) {
+        Natives.MediaInfo_Close(handle);
+    }
+
+    @Override
+    public WString MediaInfo_Option(Pointer handle, WString parameter, WString value) {
+        return Natives.MediaInfo_Option(handle, parameter, value);
+    }
+
+    @Override
+    public WString MediaInfo_Inform(Pointer handle) {
+        return Natives.MediaInfo_Inform(handle);
+    }
+
+    @Override
+    public SizeT MediaInfo_Open_Buffer_Init(Pointer handle, long fileSize, long fileOffset) {
+        return Natives.MediaInfo_Open_Buffer_Init(handle, fileSize, fileOffset);
+    }
+
+    @Override
+    public SizeT MediaInfo_Open_Buffer_Continue(Pointer handle, Pointer buffer, SizeT bufferSize) {
+        return Natives.MediaInfo_Open_Buffer_Continue(handle, buffer, bufferSize);
+    }
+
+    @Override
+    public long MediaInfo_Open_Buffer_Continue_GoTo_Get(Pointer handle) {
+        return Natives.MediaInfo_Open_Buffer_Continue_GoTo_Get(handle);
+    }
+
+    @Override
+    public SizeT MediaInfo_Open_Buffer_Finalize(Pointer handle) {
+        return Natives.MediaInfo_Open_Buffer_Finalize(handle);
+    }
+
+    @Override
+    public WString MediaInfo_Get(Pointer handle, int streamKind, SizeT streamNumber, WString parameter, int infoKind, int searchKind) {
+        return Natives.MediaInfo_Get(handle, streamKind, streamNumber, parameter, infoKind, searchKind);
+    }
+
+    @Override
+    public WString MediaInfo_GetI(Pointer handle, int streamKind, SizeT streamNumber, SizeT parameter, int infoKind) {
+        return Natives.MediaInfo_GetI(handle, streamKind, streamNumber, parameter, infoKind);
+    }
+
+    @Override
+    public SizeT MediaInfo_Count_Get(Pointer handle, int streamKind, SizeT streamNumber) {
+        return Natives.MediaInfo_Count_Get(handle, streamKind, streamNumber);
+    }
+
+    @Override
+    public int MediaInfoA_Open(Pointer handle, byte[] filename) {
+        NarrowNatives.ensureRegistered();
+        return NarrowNatives.MediaInfoA_Open(handle, filename);
+    }
+
+    @Override
+    public Pointer MediaInfoA_Option(Pointer handle, byte[] parameter, byte[] value) {
+        NarrowNatives.ensureRegistered();
+        return NarrowNatives.MediaInfoA_Option(handle, parameter, value);
+    }
+
+    @Override
+    public Pointer MediaInfoA_Inform(Pointer handle) {
+        NarrowNatives.ensureRegistered();
+        return NarrowNatives.MediaInfoA_Inform(handle);
+    }
+
+    @Override
+    public Pointer MediaInfoA_Get(Pointer handle, int streamKind, SizeT streamNumber, byte[] parameter, int infoKind, int searchKind) {
+        NarrowNatives.ensureRegistered();
+        return NarrowNatives.MediaInfoA_Get(handle, streamKind, streamNumber, parameter, infoKind, searchKind);
+    }
+
+    @Override
+    public Pointer MediaInfoA_GetI(Pointer handle, int streamKind, SizeT streamNumber, SizeT parameter, int infoKind) {
+        NarrowNatives.ensureRegistered();
+        return NarrowNatives.MediaInfoA_GetI(handle, streamKind, streamNumber, parameter, infoKind);
+    }
+
+    /**
+     * Holder of the registered native methods, initialized once by the class loader.
+     */
+    private static final class Natives {
+        static {
+            Native.register(Natives.class, NativeLibrary.getInstance(NativeLibraryLoader.getLibraryPath().toString()));
+        }
+
+        private Natives() {
+            // Native methods only
+        }
+
+        static void ensureRegistered() {
+            // Triggers the static initializer
+        }
+
+        static native Pointer MediaInfo_New();
+
+        static native void MediaInfo_Delete(Pointer handle);
+
+        static native int MediaInfo_Open(Pointer handle, WString filename);
+
+        static native void MediaInfo_Close(Pointer handle);
+
+        static native WString MediaInfo_Option(Pointer handle, WString parameter, WString value);
+
+        static native WString MediaInfo_Inform(Pointer handle);
+
+        static native SizeT MediaInfo_Open_Buffer_Init(Pointer handle, long fileSize, long fileOffset);
+
+        static native SizeT MediaInfo_Open_Buffer_Continue(Pointer handle, Pointer buffer, SizeT bufferSize);
+
+        static native long MediaInfo_Open_Buffer_Continue_GoTo_Get(Pointer handle);
+
+        static native SizeT MediaInfo_Open_Buffer_Finalize(Pointer handle);
+
+        static native WString MediaInfo_Get(Pointer handle, int streamKind, SizeT streamNumber, WString parameter, int infoKind, int searchKind);
+
+        static native WString MediaInfo_GetI(Pointer handle, int streamKind, SizeT streamNumber, SizeT parameter, int infoKind);
+
+        static native SizeT MediaInfo_Count_Get(Pointer handle, int streamKind, SizeT streamNumber);
+    }
+
+    /**
+     * Holder of the registered narrow {@code MediaInfoA_*} methods.
+     * <p>
+     * They are registered separately from the wide functions, because older libraries do not
+     * export them. A missing function is reported as {@link UnsatisfiedLinkError} on each call,
+     * like the interface mapping does, so callers can fall back to the wide functions.
+     * </p>
+     */
+    private static final class NarrowNatives {
+        private static final UnsatisfiedLinkError MISSING;
+
+        static {
+            UnsatisfiedLinkError missing = null;
+            try {
+                Native.register(NarrowNatives.class, NativeLibrary.getInstance(NativeLibraryLoader.getLibraryPath().toString()));
+            } catch (UnsatisfiedLinkError e) {
+                missing = e;
+            }
+            MISSING = missing;
+        }
+
+        private NarrowNatives() {
+            // Native methods only
+        }
+
+        static void ensureRegistered() {
+            if (MISSING != null) {
+                throw new UnsatisfiedLinkError(MISSING.getMessage());
+            }
+        }
+
+        static native int MediaInfoA_Open(Pointer handle, byte[] filename);
+
+        static native Pointer MediaInfoA_Option(Pointer handle, byte[] parameter, byte[] value);
+
+        static native Pointer MediaInfoA_Inform(Pointer handle);
+
+        static native Pointer MediaInfoA_Get(Pointer handle, int streamKind, SizeT streamNumber, byte[] parameter, int infoKind, int searchKind);
+
+        static native Pointer MediaInfoA_GetI(Pointer handle, int streamKind, SizeT streamNumber, SizeT parameter, int infoKind);
+    }
+}
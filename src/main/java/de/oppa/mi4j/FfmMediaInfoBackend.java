@@ -0,0 +1,44 @@
+package de.oppa.mi4j;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Placeholder for the Foreign Function and Memory backend on Java versions before 22.
+ * <p>
+ * The actual implementation lives in {@code src/main/java22} and is packaged into the
+ * {@code META-INF/versions/22} layer of the multi-release jar.
+ * </p>
+ */
+final class FfmMediaInfoBackend {
+    private FfmMediaInfoBackend() {
+        // Not available before Java 22
+    }
+
+    /**
+     * Check if the FFM backend is available on the running Java version.
+     *
+     * @return always false before Java 22
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    static MediaInfoBackend getInstance() {
+        throw new MediaInfoException("The FFM backend requires Java 22 or newer. Running: %s".formatted(Runtime.version()));
+    }
+}
@@ -0,0 +1,268 @@
+package de.oppa.mi4j;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Enum representing the numeric fields with typed accessors in {@link Section}.
+ * <p>
+ * Every field has its display name, used as field name in the text report, e.g. "Bit rate",
+ * and its internal parameter name, used in the JSON report, e.g. "BitRate". Values are in
+ * base units: durations in milliseconds, bit rates in bits per second, sizes in bytes,
+ * sampling rates in Hz and frame rates in frames per second.
+ * <p>
+ * The complete report lists the raw value first, e.g. "Duration : 6454865", followed by
+ * human readable variants like "1 h 47 min". The parser captures the raw value, so it is
+ * available although the section keeps the last variant. Without a raw value, the stored
+ * human readable value is parsed on first access.
+ * </p>
+ */
+public enum Field {
+    DURATION("Duration", "Duration"),
+    OVERALL_BIT_RATE("Overall bit rate", "OverallBitRate"),
+    BIT_RATE("Bit rate", "BitRate"),
+    FILE_SIZE("File size", "FileSize"),
+    STREAM_SIZE("Stream size", "StreamSize"),
+    WIDTH("Width", "Width"),
+    HEIGHT("Height", "Height"),
+    FRAME_RATE("Frame rate", "FrameRate"),
+    FRAME_COUNT("Frame count", "FrameCount"),
+    SAMPLING_RATE("Sampling rate", "SamplingRate"),
+    CHANNELS("Channel(s)", "Channels"),
+    BIT_DEPTH("Bit depth", "BitDepth");
+
+    private static final Field[] VALUES = values();
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+        1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18};
+
+    private final String name;
+    private final String parameterName;
+
+    Field(String name, String parameterName) {
+        this.name = name;
+        this.parameterName = parameterName;
+    }
+
+    /**
+     * Get the display name of the field, as used in the text report.
+     *
+     * @return the display name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the internal MediaInfo parameter name of the field, as used in the JSON report.
+     *
+     * @return the parameter name
+     */
+    public String getParameterName() {
+        return parameterName;
+    }
+
+    /**
+     * Get the field for a display name.
+     *
+     * @param name the display name
+     * @return the field, or null if the name has no typed field
+     */
+    static Field fromName(CharSequence name) {
+        for (Field field : VALUES) {
+            if (field.name.contentEquals(name)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the field for an internal parameter name.
+     *
+     * @param parameterName the parameter name
+     * @return the field, or null if the name has no typed field
+     */
+    static Field fromParameterName(String parameterName) {
+        for (Field field : VALUES) {
+            if (field.parameterName.equals(parameterName)) {
+                return field;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Parse a raw, machine readable value like "6454865" or "23.976".
+     *
+     * @param value the value
+     * @return the number, or NaN if the value is not a plain number
+     */
+    static double parseRaw(CharSequence value) {
+        int length = value.length();
+        int position = 0;
+        boolean negative = length > 0 && value.charAt(0) == '-';
+        if (negative) {
+            position++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; position < length; position++) {
+            char c = value.charAt(position);
+            if (isDigit(c)) {
+                if (++digits > MAX_MANTISSA_DIGITS) {
+                    return parseDouble(value);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+
+        double number = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -number : number;
+    }
+
+    /**
+     * Parse a human readable value of this field, e.g. "5 765 kb/s", "1 920 pixels" or "1 h 47 min".
+     *
+     * @param value the value
+     * @return the number in base units, or NaN if the value cannot be parsed
+     */
+    double parseText(String value) {
+        double raw = parseRaw(value);
+        if (!Double.isNaN(raw)) {
+            return raw;
+        }
+
+        return this == DURATION ? parseDuration(value) : parseQuantity(value);
+    }
+
+    /**
+     * Narrow a value of this field to an int.
+     *
+     * @param value the value in base units
+     * @return the same value as an int
+     * @throws MediaInfoException if the value does not fit, e.g. a file size above 2 GiB
+     */
+    int toInt(long value) {
+        try {
+            return Math.toIntExact(value);
+        } catch (ArithmeticException e) {
+            throw new MediaInfoException("Value of %s does not fit in an int: %d".formatted(name, value), e);
+        }
+    }
+
+    /**
+     * Parse a quantity with digit groups and a unit, e.g. "5 765 kb/s" or "4.33 GiB".
+     */
+    private static double parseQuantity(String value) {
+        int length = value.length();
+        int position = 0;
+        StringBuilder number = new StringBuilder(length);
+        while (position < length) {
+            char c = value.charAt(position);
+            if (isDigit(c) || c == '.') {
+                number.append(c);
+            } else if (!(c == ' ' && position + 1 < length && isDigit(value.charAt(position + 1)) && !number.isEmpty())) {
+                break;
+            }
+            position++;
+        }
+        if (number.isEmpty()) {
+            return Double.NaN;
+        }
+
+        double quantity = parseRaw(number);
+        while (position < length && value.charAt(position) == ' ') {
+            position++;
+        }
+        if (position == length) {
+            return quantity;
+        }
+
+        boolean binary = position + 2 < length && value.charAt(position + 1) == 'i' && value.charAt(position + 2) == 'B';
+        return switch (value.charAt(position)) {
+            case 'k', 'K' -> quantity * (binary ? 1L << 10 : 1e3);
+            case 'M' -> quantity * (binary ? 1L << 20 : 1e6);
+            case 'G' -> quantity * (binary ? 1L << 30 : 1e9);
+            case 'T' -> quantity * (binary ? 1L << 40 : 1e12);
+            default -> quantity;
+        };
+    }
+
+    /**
+     * Parse a duration like "1 h 47 min 34 s 865 ms" or "01:47:34.865" into milliseconds.
+     */
+    private static double parseDuration(String value) {
+        int colon = value.indexOf(':');
+        if (colon > 0) {
+            String[] parts = value.split("[ (]", 2)[0].split(":");
+            if (parts.length != 3) {
+                return Double.NaN;
+            }
+            double hours = parseRaw(parts[0]);
+            double minutes = parseRaw(parts[1]);
+            double seconds = parseRaw(parts[2]);
+
+            return ((hours * 60 + minutes) * 60 + seconds) * 1000;
+        }
+
+        double millis = 0;
+        String[] tokens = value.split(" ");
+        if (tokens.length % 2 != 0) {
+            return Double.NaN;
+        }
+        for (int i = 0; i < tokens.length; i += 2) {
+            double amount = parseRaw(tokens[i]);
+            double unit = switch (tokens[i + 1]) {
+                case "h" -> 3_600_000;
+                case "min" -> 60_000;
+                case "s" -> 1000;
+                case "ms" -> 1;
+                default -> Double.NaN;
+            };
+            millis += amount * unit;
+        }
+
+        return millis;
+    }
+
+    private static double parseDouble(CharSequence value) {
+        try {
+            return Double.parseDouble(value.toString());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
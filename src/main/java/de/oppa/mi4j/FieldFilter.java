@@ -0,0 +1,240 @@
+package de.oppa.mi4j;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Projection of the fields stored while parsing a report.
+ * <p>
+ * Fields not accepted by the filter are skipped by the parser and never stored in a
+ * {@link Section}; all sections are still created. A filter is built from a set of field
+ * names for all section types, from a set per section type, or from a predicate.
+ * Set based filters are matched against the parsed characters directly and the accepted
+ * fields share the name strings of the filter, so a filtered parse does not allocate
+ * the names of skipped fields at all.
+ * <p>
+ * Chapters of menu sections ({@code ChapterName x}, {@code ChapterTimestamp x} and
+ * {@code ChapterCount}) are kept if the filter accepts {@value #CHAPTERS}. When parsing
+ * with a {@link ParseProfile} requiring fields, the filter should accept those fields.
+ * A filter is immutable and can be shared between threads.
+ * </p>
+ */
+public final class FieldFilter {
+    /**
+     * Field name standing for the chapter fields of menu sections.
+     */
+    public static final String CHAPTERS = "ChapterCount";
+
+    /**
+     * Accepts every field.
+     */
+    public static final FieldFilter ALL = new FieldFilter(null, null);
+
+    private final NameTable[] tables;
+    private final BiPredicate<SectionType, String> predicate;
+
+    private FieldFilter(NameTable[] tables, BiPredicate<SectionType, String> predicate) {
+        this.tables = tables;
+        this.predicate = predicate;
+    }
+
+    /**
+     * Create a filter accepting the given field names in all section types.
+     *
+     * @param fieldNames the field names to keep
+     * @return the filter
+     */
+    public static FieldFilter of(String... fieldNames) {
+        if (fieldNames == null) {
+            throw new MediaInfoException("Field names cannot be null");
+        }
+
+        return of(new HashSet<>(Arrays.asList(fieldNames)));
+    }
+
+    /**
+     * Create a filter accepting the given field names in all section types.
+     *
+     * @param fieldNames the field names to keep
+     * @return the filter
+     */
+    public static FieldFilter of(Set<String> fieldNames) {
+        NameTable table = new NameTable(validateFieldNames(fieldNames));
+        NameTable[] tables = new NameTable[SectionType.values().length];
+        Arrays.fill(tables, table);
+
+        return new FieldFilter(tables, null);
+    }
+
+    /**
+     * Create a filter accepting the given field names per section type.
+     * Section types without an entry keep no fields.
+     *
+     * @param fieldNames the field names to keep, by section type
+     * @return the filter
+     */
+    public static FieldFilter of(Map<SectionType, ? extends Set<String>> fieldNames) {
+        if (fieldNames == null) {
+            throw new MediaInfoException("Field names cannot be null");
+        }
+
+        Map<SectionType, NameTable> byType = new EnumMap<>(SectionType.class);
+        fieldNames.forEach((type, names) -> {
+            if (type == null) {
+                throw new MediaInfoException("Section type cannot be null");
+            }
+            byType.put(type, new NameTable(validateFieldNames(names)));
+        });
+
+        NameTable[] tables = new NameTable[SectionType.values().length];
+        for (SectionType type : SectionType.values()) {
+            tables[type.ordinal()] = byType.getOrDefault(type, NameTable.EMPTY);
+        }
+
+        return new FieldFilter(tables, null);
+    }
+
+    /**
+     * Create a filter accepting the fields matching a predicate.
+     * <p>
+     * The field name has to be materialized for the predicate, so set based filters are
+     * cheaper when the names are known up front.
+     * </p>
+     *
+     * @param predicate predicate of section type and field name
+     * @return the filter
+     */
+    public static FieldFilter matching(BiPredicate<SectionType, String> predicate) {
+        if (predicate == null) {
+            throw new MediaInfoException("Predicate cannot be null");
+        }
+
+        return new FieldFilter(null, predicate);
+    }
+
+    /**
+     * Check if a field is accepted.
+     *
+     * @param type      section type
+     * @param fieldName field name
+     * @return true if the field is kept
+     */
+    public boolean accepts(SectionType type, String fieldName) {
+        return match(type, fieldName) != null;
+    }
+
+    /**
+     * Match a parsed field name.
+     *
+     * @param type      section type
+     * @param fieldName field name
+     * @return the field name as string if it is accepted, otherwise null
+     */
+    String match(SectionType type, CharSequence fieldName) {
+        if (tables != null) {
+            return tables[type.ordinal()].find(fieldName);
+        }
+
+        String name = fieldName.toString();
+        return predicate == null || predicate.test(type, name) ? name : null;
+    }
+
+    /**
+     * Check if the chapters of a menu section are kept.
+     *
+     * @param type section type
+     * @return true if the chapter fields are kept
+     */
+    boolean acceptsChapters(SectionType type) {
+        return match(type, CHAPTERS) != null;
+    }
+
+    private static Set<String> validateFieldNames(Set<String> fieldNames) {
+        if (fieldNames == null) {
+            throw new MediaInfoException("Field names cannot be null");
+        }
+        for (String fieldName : fieldNames) {
+            if (fieldName == null || fieldName.isEmpty()) {
+                throw new MediaInfoException("Field name cannot be null or empty");
+            }
+        }
+
+        return fieldNames;
+    }
+
+    @Override
+    public String toString() {
+        return "%s[%s]".formatted(getClass().getSimpleName(),
+            this == ALL ? "all" : tables != null ? Arrays.toString(tables) : predicate);
+    }
+
+    /**
+     * Open addressing table of field names, looked up by the characters of a name.
+     */
+    private static final class NameTable {
+        private static final NameTable EMPTY = new NameTable(Set.of());
+
+        private final String[] slots;
+        private final int mask;
+
+        private NameTable(Set<String> names) {
+            int capacity = Integer.highestOneBit(Math.max(names.size() * 2 - 1, 1)) << 1;
+            this.slots = new String[capacity];
+            this.mask = capacity - 1;
+
+            for (String name : names) {
+                int slot = name.hashCode() & mask;
+                while (slots[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = name;
+            }
+        }
+
+        /**
+         * Find a name, hashing the characters like {@link String#hashCode()}.
+         */
+        private String find(CharSequence name) {
+            int length = name.length();
+            int hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + name.charAt(i);
+            }
+
+            for (int slot = hash & mask; slots[slot] != null; slot = (slot + 1) & mask) {
+                String candidate = slots[slot];
+                if (candidate.hashCode() == hash && candidate.contentEquals(name)) {
+                    return candidate;
+                }
+            }
+
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.stream(slots).filter(slot -> slot != null).sorted().toList().toString();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package de.oppa.mi4j;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Immutable index of the field names of the sections of a frozen {@link MediaInfo}.
+ * <p>
+ * Every distinct field name is stored once, in the order it is first seen, together with
+ * a bit set of the sections containing it. Names are found through an open addressing
+ * table of positions, so lookups do not allocate. Keeping arrays instead of hash map
+ * entries keeps the index small compared to the sections themselves.
+ * <p>
+ * Sections are numbered in report order, grouped by type, so the sections of a type form
+ * a contiguous range.
+ * </p>
+ */
+final class FieldIndex {
+    private final Section[] sections;
+    private final String[] names;
+    private final int[] table;
+    private final long[] masks;
+    private final int words;
+    private final Map<SectionType, Names> typeToNames;
+    private final Names allNames;
+
+    /**
+     * Create the index for the given sections.
+     *
+     * @param typeToSections the frozen sections, by type and name
+     */
+    FieldIndex(Map<SectionType, Map<String, Section>> typeToSections) {
+        List<Section> sectionList = new ArrayList<>();
+        Map<SectionType, int[]> ranges = new LinkedHashMap<>();
+        for (Map.Entry<SectionType, Map<String, Section>> entry : typeToSections.entrySet()) {
+            int start = sectionList.size();
+            sectionList.addAll(entry.getValue().values());
+            ranges.put(entry.getKey(), new int[]{start, sectionList.size()});
+        }
+
+        this.sections = sectionList.toArray(new Section[0]);
+        this.words = Math.max(1, (sections.length + 63) >>> 6);
+
+        int totalFields = 0;
+        for (Section section : sections) {
+            totalFields += section.getFieldNames().size();
+        }
+
+        int[] positions = new int[tableSize(totalFields)];
+        String[] distinct = new String[totalFields];
+        long[] bits = new long[totalFields * words];
+        int count = 0;
+        for (int i = 0; i < sections.length; i++) {
+            for (String name : sections[i].getFieldNames()) {
+                int slot = find(positions, distinct, name);
+                int position = positions[slot] - 1;
+                if (position < 0) {
+                    position = count++;
+                    distinct[position] = name;
+                    positions[slot] = position + 1;
+                }
+                bits[position * words + (i >>> 6)] |= 1L << i;
+            }
+        }
+
+        this.names = Arrays.copyOf(distinct, count);
+        this.table = count == totalFields ? positions : rehash(names);
+        this.masks = Arrays.copyOf(bits, count * words);
+        this.allNames = new Names(0, sections.length);
+
+        Map<SectionType, Names> namesOfType = new LinkedHashMap<>();
+        for (Map.Entry<SectionType, int[]> entry : ranges.entrySet()) {
+            namesOfType.put(entry.getKey(), new Names(entry.getValue()[0], entry.getValue()[1]));
+        }
+        this.typeToNames = Collections.unmodifiableMap(namesOfType);
+    }
+
+    /**
+     * Get the names of the fields of all sections.
+     *
+     * @return unmodifiable set of field names, in order of appearance
+     */
+    Set<String> names() {
+        return allNames;
+    }
+
+    /**
+     * Get the names of the fields of all sections of a type.
+     *
+     * @param type section type
+     * @return unmodifiable set of field names, empty if there are no sections of the type
+     */
+    Set<String> names(SectionType type) {
+        Names typeNames = typeToNames.get(type);
+        return typeNames == null ? Collections.emptySet() : typeNames;
+    }
+
+    /**
+     * Check if any section contains a field.
+     *
+     * @param name field name
+     * @return true if the field is found
+     */
+    boolean contains(String name) {
+        return indexOf(name) >= 0;
+    }
+
+    /**
+     * Get the sections containing a field.
+     *
+     * @param name field name
+     * @return unmodifiable list of sections, in report order
+     */
+    List<Section> sectionsWith(String name) {
+        int position = indexOf(name);
+        if (position < 0) {
+            return Collections.emptyList();
+        }
+
+        List<Section> result = new ArrayList<>();
+        for (int word = 0; word < words; word++) {
+            long mask = masks[position * words + word];
+            while (mask != 0) {
+                result.add(sections[(word << 6) + Long.numberOfTrailingZeros(mask)]);
+                mask &= mask - 1;
+            }
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    private int indexOf(String name) {
+        if (names.length == 0) {
+            return -1;
+        }
+
+        return table[find(table, names, name)] - 1;
+    }
+
+    /**
+     * Check if a field is contained in any section of a range.
+     */
+    private boolean isInRange(int position, int fromSection, int toSection) {
+        for (int section = fromSection; section < toSection; section++) {
+            if ((masks[position * words + (section >>> 6)] & 1L << section) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Find the slot of a name, or the empty slot where it belongs. Slots hold positions plus one.
+     */
+    private static int find(int[] table, String[] names, String name) {
+        int mask = table.length - 1;
+        int hash = name.hashCode();
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (table[slot] != 0 && !names[table[slot] - 1].equals(name)) {
+            slot = slot + 1 & mask;
+        }
+
+        return slot;
+    }
+
+    private static int[] rehash(String[] names) {
+        int[] table = new int[tableSize(names.length)];
+        for (int i = 0; i < names.length; i++) {
+            table[find(table, names, names[i])] = i + 1;
+        }
+
+        return table;
+    }
+
+    private static int tableSize(int entries) {
+        return Integer.highestOneBit(Math.max(2, entries + (entries >>> 1)) - 1) << 1;
+    }
+
+    /**
+     * Set view of the field names contained in a range of sections.
+     */
+    private final class Names extends AbstractSet<String> {
+        private final int fromSection;
+        private final int toSection;
+        private final int size;
+
+        private Names(int fromSection, int toSection) {
+            this.fromSection = fromSection;
+            this.toSection = toSection;
+
+            int count = 0;
+            for (int position = 0; position < names.length; position++) {
+                if (isInRange(position, fromSection, toSection)) {
+                    count++;
+                }
+            }
+            this.size = count;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof String name)) {
+                return false;
+            }
+
+            int position = indexOf(name);
+            return position >= 0 && isInRange(position, fromSection, toSection);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<>() {
+                private int next = advance(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next < names.length;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    String name = names[next];
+                    next = advance(next + 1);
+                    return name;
+                }
+
+                private int advance(int position) {
+                    while (position < names.length && !isInRange(position, fromSection, toSection)) {
+                        position++;
+                    }
+
+                    return position;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package de.oppa.mi4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Catalog of the known MediaInfo field names.
+ * <p>
+ * The catalog is read once from {@code field-keys.txt}, which lists per section type the
+ * internal parameter names and the display names of the complete text report. Every name
+ * is a single key with an ordinal, assigned in the natural order of the names, so storage
+ * indexed by ordinal iterates in the same order as a sorted map. Keys also have an ordinal
+ * per section type they are known for, numbering only the keys of that type, so storage for
+ * a section is sized by the keys of its type rather than the whole catalog. The catalog is part
+ * of the library, a missing resource fails class initialization with a {@link MediaInfoException}.
+ * <p>
+ * Names are looked up with a minimal perfect hash built when the catalog is loaded: the
+ * first hash selects a bucket, the displacement of the bucket selects the slot, and a
+ * single comparison confirms the name. Lookups work on any character sequence, so parsed
+ * names do not have to be copied into strings first.
+ * </p>
+ */
+public final class FieldKey {
+    private static final String CATALOG_RESOURCE = "field-keys.txt";
+    private static final int FNV_OFFSET_BASIS = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+
+    private static final FieldKey[] KEYS;
+    private static final int[] DISPLACEMENTS;
+    private static final FieldKey[] SLOTS;
+    private static final Map<SectionType, List<FieldKey>> TYPE_TO_KEYS;
+    private static final FieldKey[][] TYPE_KEYS;
+
+    static {
+        Map<String, Set<SectionType>> catalog = loadCatalog();
+
+        KEYS = new FieldKey[catalog.size()];
+        int ordinal = 0;
+        for (Map.Entry<String, Set<SectionType>> entry : catalog.entrySet()) {
+            KEYS[ordinal] = new FieldKey(entry.getKey(), ordinal, entry.getValue());
+            ordinal++;
+        }
+
+        DISPLACEMENTS = new int[Math.max(1, KEYS.length / 2)];
+        SLOTS = new FieldKey[Math.max(1, KEYS.length)];
+        buildPerfectHash();
+
+        Map<SectionType, List<FieldKey>> typeToKeys = new LinkedHashMap<>();
+        TYPE_KEYS = new FieldKey[SectionType.values().length][];
+        for (SectionType type : SectionType.values()) {
+            List<FieldKey> keys = Arrays.stream(KEYS).filter(key -> key.sectionTypes.contains(type)).toList();
+            for (int i = 0; i < keys.size(); i++) {
+                keys.get(i).typeOrdinals[type.ordinal()] = i;
+            }
+            typeToKeys.put(type, keys);
+            TYPE_KEYS[type.ordinal()] = keys.toArray(new FieldKey[0]);
+        }
+        TYPE_TO_KEYS = typeToKeys;
+    }
+
+    private final String name;
+    private final int ordinal;
+    private final int[] typeOrdinals;
+    private final Set<SectionType> sectionTypes;
+    private final Field field;
+
+    private FieldKey(String name, int ordinal, Set<SectionType> sectionTypes) {
+        this.name = name;
+        this.ordinal = ordinal;
+        this.typeOrdinals = new int[SectionType.values().length];
+        Arrays.fill(typeOrdinals, -1);
+        this.sectionTypes = Set.copyOf(sectionTypes);
+        this.field = Field.fromName(name);
+    }
+
+    /**
+     * Get the key for a field name.
+     *
+     * @param name the field name
+     * @return the key, or null if the name is not in the catalog
+     */
+    public static FieldKey of(CharSequence name) {
+        if (name == null) {
+            return null;
+        }
+
+        int bucket = Integer.remainderUnsigned(hash(name, 0), DISPLACEMENTS.length);
+        int slot = Integer.remainderUnsigned(hash(name, DISPLACEMENTS[bucket]), SLOTS.length);
+        FieldKey key = SLOTS[slot];
+
+        return key != null && key.name.contentEquals(name) ? key : null;
+    }
+
+    /**
+     * Get the keys known for a section type.
+     *
+     * @param type section type
+     * @return unmodifiable list of keys, in name order
+     */
+    public static List<FieldKey> values(SectionType type) {
+        if (type == null) {
+            throw new MediaInfoException("Section type cannot be null");
+        }
+
+        return TYPE_TO_KEYS.get(type);
+    }
+
+    /**
+     * Get the number of keys in the catalog.
+     *
+     * @return the number of keys
+     */
+    public static int count() {
+        return KEYS.length;
+    }
+
+    /**
+     * Get the number of keys known for a section type.
+     *
+     * @param type section type
+     * @return the number of keys
+     */
+    static int count(SectionType type) {
+        return TYPE_KEYS[type.ordinal()].length;
+    }
+
+    /**
+     * Get the key with an ordinal.
+     */
+    static FieldKey byOrdinal(int ordinal) {
+        return KEYS[ordinal];
+    }
+
+    /**
+     * Get the key with an ordinal of a section type.
+     */
+    static FieldKey byOrdinal(SectionType type, int ordinal) {
+        return TYPE_KEYS[type.ordinal()][ordinal];
+    }
+
+    /**
+     * Get the field name.
+     *
+     * @return the field name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the ordinal of the key, its position in the name order of the catalog.
+     *
+     * @return the ordinal
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Get the ordinal of the key among the keys of a section type, in name order.
+     *
+     * @param type section type
+     * @return the ordinal, or -1 if the field is not known for the type
+     */
+    int getOrdinal(SectionType type) {
+        return typeOrdinals[type.ordinal()];
+    }
+
+    /**
+     * Get the section types the field is known for.
+     *
+     * @return unmodifiable set of section types
+     */
+    public Set<SectionType> getSectionTypes() {
+        return sectionTypes;
+    }
+
+    /**
+     * Get the typed field with this display name.
+     *
+     * @return the typed field, or null if there is none
+     */
+    Field getField() {
+        return field;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Assign the keys to slots, bucket by bucket starting with the largest, searching a
+     * displacement per bucket that moves all keys of the bucket to free slots.
+     */
+    private static void buildPerfectHash() {
+        List<List<FieldKey>> buckets = new ArrayList<>();
+        for (int i = 0; i < DISPLACEMENTS.length; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (FieldKey key : KEYS) {
+            buckets.get(Integer.remainderUnsigned(hash(key.name, 0), DISPLACEMENTS.length)).add(key);
+        }
+
+        Integer[] order = new Integer[buckets.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingInt((Integer i) -> buckets.get(i).size()).reversed());
+
+        for (int bucket : order) {
+            List<FieldKey> keys = buckets.get(bucket);
+            if (keys.isEmpty()) {
+                break;
+            }
+
+            int[] slots = new int[keys.size()];
+            for (int displacement = 1; ; displacement++) {
+                if (tryPlace(keys, displacement, slots)) {
+                    DISPLACEMENTS[bucket] = displacement;
+                    for (int i = 0; i < slots.length; i++) {
+                        SLOTS[slots[i]] = keys.get(i);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean tryPlace(List<FieldKey> keys, int displacement, int[] slots) {
+        for (int i = 0; i < keys.size(); i++) {
+            int slot = Integer.remainderUnsigned(hash(keys.get(i).name, displacement), SLOTS.length);
+            if (SLOTS[slot] != null) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+
+        return true;
+    }
+
+    /**
+     * FNV-1a hash of the characters, seeded and finished with the murmur3 mix.
+     */
+    private static int hash(CharSequence name, int seed) {
+        int hash = FNV_OFFSET_BASIS ^ seed;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * FNV_PRIME;
+        }
+
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+
+        return hash;
+    }
+
+    private static Map<String, Set<SectionType>> loadCatalog() {
+        Map<String, Set<SectionType>> catalog = new TreeMap<>();
+
+        try (InputStream in = FieldKey.class.getResourceAsStream(CATALOG_RESOURCE)) {
+            if (in == null) {
+                throw new MediaInfoException("Field key catalog %s not found".formatted(CATALOG_RESOURCE));
+            }
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            SectionType type = null;
+            boolean header = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                if (line.isBlank()) {
+                    header = true;
+                    continue;
+                }
+
+                if (header) {
+                    type = SectionType.fromName(line);
+                    header = false;
+                } else {
+                    catalog.computeIfAbsent(line.trim(), name -> EnumSet.noneOf(SectionType.class)).add(type);
+                }
+            }
+        } catch (IOException e) {
+            throw new MediaInfoException("Failed to read the field key catalog: %s".formatted(e.getMessage()), e);
+        }
+
+        return catalog;
+    }
+}
@@ -0,0 +1,296 @@
+package de.oppa.mi4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Compiled query for a fixed list of MediaInfo parameters.
+ * <p>
+ * Instead of rendering the complete report with {@code MediaInfo_Inform}, a query fetches only
+ * the requested values with {@code MediaInfo_GetI}. Parameter names are resolved to parameter
+ * indexes the first time a stream of the kind is seen, and the indexes are reused by all later
+ * executions, so each value costs a single native call.
+ * <p>
+ * Only the static parameters of a stream kind have fixed indexes, their positions in the list
+ * of {@code Info_Parameters_CSV}. Dynamic parameters are appended per stream, so their index
+ * differs between files and even between streams of one file. They are fetched by name with
+ * {@code MediaInfo_Get}, as are all parameters if the backend does not return the list.
+ * <p>
+ * Parameter names are the internal MediaInfo names, e.g. {@code "Duration"}, {@code "Width"}
+ * or {@code "Channel(s)"}, as listed by {@code mediainfo --Info-Parameters}.
+ * A query is immutable apart from its index cache and can be shared between threads.
+ * </p>
+ */
+public final class FieldQuery {
+    private static final int UNRESOLVED = -2;
+    private static final int NOT_FOUND = -1;
+    private static final String OPTION_INFO_PARAMETERS = "Info_Parameters_CSV";
+    private static final String VALUE_COMPLETE = "Complete";
+
+    private final Parameter[] parameters;
+
+    /**
+     * Resolved parameter indexes, replaced as a whole when more stream kinds are resolved.
+     */
+    private volatile int[] indexes;
+
+    /**
+     * Create a query for the given parameters.
+     *
+     * @param parameters the parameters to fetch, in result order
+     */
+    public FieldQuery(List<Parameter> parameters) {
+        if (parameters == null || parameters.isEmpty()) {
+            throw new MediaInfoException("Parameters cannot be null or empty");
+        }
+        if (parameters.contains(null)) {
+            throw new MediaInfoException("Parameters cannot contain null");
+        }
+
+        this.parameters = parameters.toArray(new Parameter[0]);
+        this.indexes = new int[this.parameters.length];
+        Arrays.fill(this.indexes, UNRESOLVED);
+    }
+
+    /**
+     * Create a query for the given parameters.
+     *
+     * @param parameters the parameters to fetch, in result order
+     * @return the compiled query
+     */
+    public static FieldQuery of(Parameter... parameters) {
+        if (parameters == null) {
+            throw new MediaInfoException("Parameters cannot be null or empty");
+        }
+
+        return new FieldQuery(Arrays.asList(parameters));
+    }
+
+    /**
+     * Get the parameters of this query.
+     *
+     * @return unmodifiable list of parameters in result order
+     */
+    public List<Parameter> getParameters() {
+        return List.of(parameters);
+    }
+
+    /**
+     * Execute the query against a handle with an opened file.
+     *
+     * @param backend the backend the handle belongs to
+     * @param handle  the native handle
+     * @return the result
+     */
+    Result execute(MediaInfoBackend backend, long handle) {
+        int[] streamCounts = new int[SectionType.values().length];
+        Arrays.fill(streamCounts, -1);
+
+        int[] resolved = indexes;
+        String[] values = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+            int streamKind = parameter.sectionType().getStreamKind();
+
+            int ordinal = parameter.sectionType().ordinal();
+            if (streamCounts[ordinal] < 0) {
+                streamCounts[ordinal] = backend.countGet(handle, streamKind, -1);
+            }
+            if (parameter.streamNumber() >= streamCounts[ordinal]) {
+                continue;
+            }
+
+            if (resolved[i] == UNRESOLVED) {
+                resolved = resolve(backend, handle, parameter.sectionType(), parameter.streamNumber());
+            }
+
+            int index = resolved[i];
+            String value = index >= 0
+                ? backend.getI(handle, streamKind, parameter.streamNumber(), index, MediaInfoBackend.INFO_TEXT)
+                : backend.get(handle, streamKind, parameter.streamNumber(), parameter.name(), MediaInfoBackend.INFO_TEXT);
+            values[i] = value == null || value.isEmpty() ? null : value;
+        }
+
+        return new Result(parameters, values);
+    }
+
+    /**
+     * Resolve the static indexes of all parameters of a stream kind. An index is taken from the
+     * static parameter list and confirmed against the parameter name of the stream.
+     */
+    private synchronized int[] resolve(MediaInfoBackend backend, long handle, SectionType sectionType, int streamNumber) {
+        int[] current = indexes;
+        int[] updated = current.clone();
+        int streamKind = sectionType.getStreamKind();
+        List<String> staticNames = getStaticParameterNames(backend, handle, sectionType);
+
+        for (int i = 0; i < parameters.length; i++) {
+            if (parameters[i].sectionType() != sectionType || current[i] != UNRESOLVED) {
+                continue;
+            }
+
+            int index = staticNames.indexOf(parameters[i].name());
+            if (index >= 0 && !parameters[i].name().equals(backend.getI(handle, streamKind, streamNumber, index, MediaInfoBackend.INFO_NAME))) {
+                index = NOT_FOUND;
+            }
+            updated[i] = index;
+        }
+
+        indexes = updated;
+        return updated;
+    }
+
+    /**
+     * Get the names of the static parameters of a stream kind in index order, from the
+     * {@code Info_Parameters_CSV} list. Its blocks are separated by empty lines and start with
+     * the stream kind, followed by one {@code name;description} line per parameter.
+     *
+     * @return the names, or an empty list if the backend does not return the list
+     */
+    private static List<String> getStaticParameterNames(MediaInfoBackend backend, long handle, SectionType sectionType) {
+        String list = backend.getOption(handle, OPTION_INFO_PARAMETERS, VALUE_COMPLETE);
+        if (list == null) {
+            return List.of();
+        }
+
+        List<String> names = new ArrayList<>();
+        boolean blockStart = true;
+        boolean inBlock = false;
+        for (String line : list.split("\\R")) {
+            if (line.isEmpty()) {
+                if (inBlock) {
+                    break;
+                }
+                blockStart = true;
+                continue;
+            }
+
+            int separator = line.indexOf(';');
+            String name = separator < 0 ? line : line.substring(0, separator);
+            if (blockStart) {
+                inBlock = name.equals(sectionType.getName());
+                blockStart = false;
+            } else if (inBlock) {
+                names.add(name);
+            }
+        }
+
+        return names;
+    }
+
+    /**
+     * A single parameter to fetch.
+     *
+     * @param sectionType  the section type, i.e. the stream kind
+     * @param streamNumber the stream number of the kind, starting at 0
+     * @param name         the internal MediaInfo parameter name
+     */
+    public record Parameter(SectionType sectionType, int streamNumber, String name) {
+        public Parameter {
+            if (sectionType == null) {
+                throw new MediaInfoException("Section type cannot be null");
+            }
+            if (streamNumber < 0) {
+                throw new MediaInfoException("Stream number cannot be negative");
+            }
+            if (name == null || name.isEmpty()) {
+                throw new MediaInfoException("Parameter name cannot be null or empty");
+            }
+        }
+
+        /**
+         * Create a parameter of the first stream of a kind.
+         *
+         * @param sectionType the section type
+         * @param name        the internal MediaInfo parameter name
+         * @return the parameter
+         */
+        public static Parameter of(SectionType sectionType, String name) {
+            return new Parameter(sectionType, 0, name);
+        }
+    }
+
+    /**
+     * Values fetched by a query, in the order of its parameters.
+     */
+    public static final class Result {
+        private final Parameter[] parameters;
+        private final String[] values;
+
+        private Result(Parameter[] parameters, String[] values) {
+            this.parameters = parameters;
+            this.values = values;
+        }
+
+        /**
+         * Get the number of values.
+         *
+         * @return the number of parameters of the query
+         */
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * Get the value of the parameter at the given position of the query.
+         *
+         * @param index position of the parameter in the query
+         * @return the value, or null if not available
+         */
+        public String getValue(int index) {
+            return values[index];
+        }
+
+        /**
+         * Get the value of a parameter.
+         *
+         * @param sectionType  the section type
+         * @param streamNumber the stream number
+         * @param name         the parameter name
+         * @return the value, or null if not available or not part of the query
+         */
+        public String getValue(SectionType sectionType, int streamNumber, String name) {
+            for (int i = 0; i < parameters.length; i++) {
+                Parameter parameter = parameters[i];
+                if (parameter.sectionType() == sectionType && parameter.streamNumber() == streamNumber
+                    && parameter.name().equals(name)) {
+                    return values[i];
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Get all values.
+         *
+         * @return copy of the values in query order
+         */
+        public String[] getValues() {
+            return values.clone();
+        }
+
+        @Override
+        public String toString() {
+            return "%s[values=%s]".formatted(getClass().getSimpleName(), Arrays.toString(values));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package de.oppa.mi4j;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Parser for text reports pushed chunk by chunk, e.g. as they arrive from a socket.
+ * <p>
+ * Every chunk is parsed as soon as it is fed, only a line spanning two chunks is buffered.
+ * The memory used does not grow with the size of the report, apart from the result itself.
+ * Bytes are decoded with the charset given at construction, multi-byte characters may be
+ * split across chunks. A parser is not thread-safe and can be used for a single report only.
+ * </p>
+ */
+public final class IncrementalReportParser {
+    private static final int DECODE_BUFFER_SIZE = 8 * 1024;
+
+    private final MediaInfoBuilder builder;
+    private final TextReportParser parser;
+    private final CharsetDecoder decoder;
+    private CharBuffer decoded;
+    private ByteBuffer leftover;
+    private boolean finished;
+
+    /**
+     * Create a parser for characters, decoding bytes as UTF-8.
+     */
+    public IncrementalReportParser() {
+        this(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Create a parser decoding bytes with the given charset.
+     *
+     * @param charset charset of the report bytes
+     */
+    public IncrementalReportParser(Charset charset) {
+        this(charset, FieldFilter.ALL, null);
+    }
+
+    /**
+     * Create a parser decoding bytes with the given charset, keeping only the fields accepted by a filter.
+     *
+     * @param charset       charset of the report bytes
+     * @param filter        filter of the fields to keep
+     * @param valueInterner the interner for field values, or null to keep a copy per field
+     * @see FieldFilter
+     */
+    public IncrementalReportParser(Charset charset, FieldFilter filter, ValueInterner valueInterner) {
+        if (charset == null) {
+            throw new MediaInfoParseException("Charset cannot be null");
+        }
+        if (filter == null) {
+            throw new MediaInfoParseException("Field filter cannot be null");
+        }
+
+        this.builder = new MediaInfoBuilder(filter, valueInterner);
+        this.parser = new TextReportParser(builder);
+        this.decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Feed the next characters of the report.
+     *
+     * @param chunk the next characters
+     */
+    public void feed(CharSequence chunk) {
+        if (chunk == null) {
+            throw new MediaInfoParseException("Chunk cannot be null");
+        }
+
+        checkNotFinished();
+        parser.feed(chunk);
+    }
+
+    /**
+     * Feed the next characters of the report.
+     *
+     * @param chars  array holding the characters
+     * @param offset offset of the first character
+     * @param length number of characters
+     */
+    public void feed(char[] chars, int offset, int length) {
+        if (chars == null) {
+            throw new MediaInfoParseException("Chunk cannot be null");
+        }
+
+        checkNotFinished();
+        parser.feed(CharBuffer.wrap(chars, offset, length));
+    }
+
+    /**
+     * Feed the next bytes of the report.
+     * <p>
+     * All bytes between position and limit are consumed. Bytes of an incomplete character at
+     * the end of the buffer are kept until the next chunk.
+     * </p>
+     *
+     * @param bytes the next bytes
+     */
+    public void feed(ByteBuffer bytes) {
+        if (bytes == null) {
+            throw new MediaInfoParseException("Chunk cannot be null");
+        }
+
+        checkNotFinished();
+        decode(bytes, false);
+    }
+
+    /**
+     * Complete the report.
+     *
+     * @return parsed media information
+     * @throws MediaInfoParseException if the report is empty or does not contain any section header
+     */
+    public MediaInfo finish() {
+        checkNotFinished();
+        finished = true;
+
+        if (decoded != null) {
+            decode(ByteBuffer.allocate(0), true);
+        }
+
+        parser.finish();
+
+        return builder.build();
+    }
+
+    private void decode(ByteBuffer bytes, boolean endOfInput) {
+        if (decoded == null) {
+            decoded = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+        }
+
+        ByteBuffer input = bytes;
+        if (leftover != null && leftover.hasRemaining()) {
+            input = ByteBuffer.allocate(leftover.remaining() + bytes.remaining()).put(leftover).put(bytes).flip();
+        }
+
+        // Malformed input is replaced, so the decoder stops on underflow or a full output buffer only
+        CoderResult result;
+        do {
+            result = decoder.decode(input, decoded, endOfInput);
+            flushDecoded();
+        } while (result.isOverflow());
+
+        if (endOfInput) {
+            decoder.flush(decoded);
+            flushDecoded();
+        }
+
+        leftover = input.hasRemaining() ? ByteBuffer.allocate(input.remaining()).put(input).flip() : null;
+        bytes.position(bytes.limit());
+    }
+
+    private void flushDecoded() {
+        decoded.flip();
+        if (decoded.hasRemaining()) {
+            parser.feed(decoded);
+        }
+        decoded.clear();
+    }
+
+    private void checkNotFinished() {
+        if (finished) {
+            throw new MediaInfoParseException("Report parser is already finished");
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package de.oppa.mi4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Compiled {@code Inform} template for a fixed set of fields per section type.
+ * <p>
+ * The declared fields are compiled into a custom MediaInfo template, so the library renders
+ * only their values, separated by control characters that do not occur in values. The output
+ * is decoded positionally: no field names are rendered or parsed and no lines are split at
+ * colons. Each rendered stream is prefixed with its stream kind, number and count, so the
+ * sections get the same names as in the text report, e.g. "Audio #2".
+ * <p>
+ * Field names are the internal MediaInfo parameter names, e.g. {@code "Duration"} or
+ * {@code "Width"}, as listed by {@code mediainfo --Info-Parameters}. A template is immutable
+ * and can be shared between threads.
+ * </p>
+ */
+public final class InformTemplate {
+    /**
+     * Separates the rendered streams, the ASCII record separator.
+     */
+    static final char RECORD_SEPARATOR = '\u001E';
+
+    /**
+     * Separates the values of a rendered stream, the ASCII unit separator.
+     */
+    static final char UNIT_SEPARATOR = '\u001F';
+
+    private static final int HEADER_VALUES = 2;
+
+    private final Map<SectionType, String[]> typeToFields;
+    private final String template;
+
+    /**
+     * Create a template for the given fields.
+     *
+     * @param typeToFields internal parameter names to render, per section type
+     */
+    public InformTemplate(Map<SectionType, List<String>> typeToFields) {
+        if (typeToFields == null || typeToFields.isEmpty()) {
+            throw new MediaInfoException("Fields cannot be null or empty");
+        }
+
+        Map<SectionType, String[]> fields = new EnumMap<>(SectionType.class);
+        typeToFields.forEach((type, names) -> {
+            if (type == null) {
+                throw new MediaInfoException("Section type cannot be null");
+            }
+            if (names == null || names.isEmpty()) {
+                throw new MediaInfoException("Fields of %s cannot be null or empty".formatted(type.getName()));
+            }
+            for (String name : names) {
+                validateFieldName(name);
+            }
+            fields.put(type, names.toArray(new String[0]));
+        });
+
+        this.typeToFields = fields;
+        this.template = compile(fields);
+    }
+
+    /**
+     * Create a template for the fields of a single section type.
+     *
+     * @param type       section type
+     * @param fieldNames internal parameter names to render
+     * @return the compiled template
+     */
+    public static InformTemplate of(SectionType type, String... fieldNames) {
+        if (fieldNames == null) {
+            throw new MediaInfoException("Fields cannot be null or empty");
+        }
+
+        return new InformTemplate(Collections.singletonMap(type, Arrays.asList(fieldNames)));
+    }
+
+    /**
+     * Get the declared fields of a section type.
+     *
+     * @param type section type
+     * @return unmodifiable list of field names in rendering order, empty if the type is not declared
+     */
+    public List<String> getFieldNames(SectionType type) {
+        String[] fields = typeToFields.get(type);
+        return fields == null ? List.of() : List.of(fields);
+    }
+
+    /**
+     * Get the compiled template, the value of the native {@code Inform} option.
+     *
+     * @return the template
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Decode the output rendered with this template.
+     *
+     * @param report the rendered output
+     * @return the decoded values
+     * @throws MediaInfoParseException if the output does not match the template
+     */
+    public Result decode(String report) {
+        if (report == null) {
+            throw new MediaInfoParseException("Failed to retrieve media information. Data is null");
+        }
+
+        Result result = new Result();
+        int length = report.length();
+        int start = report.indexOf(RECORD_SEPARATOR);
+
+        while (start >= 0) {
+            int end = report.indexOf(RECORD_SEPARATOR, start + 1);
+            int recordEnd = end < 0 ? length : end;
+            result.add(decodeRecord(report, start + 1, recordEnd));
+            start = end;
+        }
+
+        return result;
+    }
+
+    private RenderedStream decodeRecord(String report, int start, int end) {
+        // Trailing line breaks are added by the library after every stream
+        while (end > start && (report.charAt(end - 1) == '\n' || report.charAt(end - 1) == '\r')) {
+            end--;
+        }
+
+        int separator = report.indexOf(UNIT_SEPARATOR, start);
+        if (separator < 0 || separator > end) {
+            throw new MediaInfoParseException("Invalid template output: %s".formatted(report.substring(start, end)));
+        }
+
+        SectionType type = SectionType.fromName(report.substring(start, separator));
+        String[] fields = typeToFields.get(type);
+        if (fields == null) {
+            throw new MediaInfoParseException("Template output contains undeclared section type: %s".formatted(type.getName()));
+        }
+
+        int count = HEADER_VALUES + fields.length;
+        String[] parts = new String[count];
+        int position = separator + 1;
+        for (int i = 0; i < count; i++) {
+            int next = report.indexOf(UNIT_SEPARATOR, position);
+            if (i == count - 1 ? next >= 0 && next < end : next < 0 || next > end) {
+                throw new MediaInfoParseException("Template output of %s does not match the declared fields".formatted(type.getName()));
+            }
+
+            int valueEnd = i == count - 1 ? end : next;
+            parts[i] = valueEnd > position ? report.substring(position, valueEnd) : null;
+            position = valueEnd + 1;
+        }
+
+        try {
+            int streamNumber = Integer.parseInt(parts[0]);
+            int streamCount = Integer.parseInt(parts[1]);
+
+            return new RenderedStream(type, streamNumber, streamCount, Arrays.copyOfRange(parts, HEADER_VALUES, count));
+        } catch (NumberFormatException e) {
+            throw new MediaInfoParseException("Invalid stream number in template output of %s".formatted(type.getName()), e);
+        }
+    }
+
+    private static String compile(Map<SectionType, String[]> typeToFields) {
+        StringBuilder builder = new StringBuilder();
+        typeToFields.forEach((type, fields) -> {
+            if (!builder.isEmpty()) {
+                builder.append(System.lineSeparator());
+            }
+
+            builder.append(type.getName()).append(';')
+                .append(RECORD_SEPARATOR).append(type.getName())
+                .append(UNIT_SEPARATOR).append("%StreamKindID%")
+                .append(UNIT_SEPARATOR).append("%StreamCount%");
+            for (String field : fields) {
+                builder.append(UNIT_SEPARATOR).append('%').append(field).append('%');
+            }
+        });
+
+        return builder.toString();
+    }
+
+    private static void validateFieldName(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new MediaInfoException("Field name cannot be null or empty");
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '%' || c == ';' || c == '$' || c == '[' || c == ']' || c == '\\' || Character.isISOControl(c)) {
+                throw new MediaInfoException("Invalid character in field name: %s".formatted(name));
+            }
+        }
+    }
+
+    /**
+     * A rendered stream.
+     */
+    private record RenderedStream(SectionType type, int streamNumber, int streamCount, String[] values) {
+        private String sectionName() {
+            return streamCount > 1 ? "%s #%d".formatted(type.getName(), streamNumber + 1) : type.getName();
+        }
+    }
+
+    /**
+     * Values decoded from the output of a template, in the declared field order.
+     */
+    public final class Result {
+        private final Map<SectionType, List<RenderedStream>> typeToStreams = new EnumMap<>(SectionType.class);
+
+        private Result() {
+        }
+
+        private void add(RenderedStream stream) {
+            typeToStreams.computeIfAbsent(stream.type(), key -> new ArrayList<>()).add(stream);
+        }
+
+        /**
+         * Get the number of rendered streams of a type.
+         *
+         * @param type section type
+         * @return the number of streams
+         */
+        public int getStreamCount(SectionType type) {
+            return typeToStreams.getOrDefault(type, List.of()).size();
+        }
+
+        /**
+         * Get the values of a stream.
+         *
+         * @param type         section type
+         * @param streamNumber stream number, starting at 0
+         * @return copy of the values in declared field order, null for empty values,
+         * or null if there is no such stream
+         */
+        public String[] getValues(SectionType type, int streamNumber) {
+            RenderedStream stream = getStream(type, streamNumber);
+            return stream == null ? null : stream.values().clone();
+        }
+
+        /**
+         * Get a single value of a stream.
+         *
+         * @param type         section type
+         * @param streamNumber stream number, starting at 0
+         * @param fieldIndex   position of the field in the declared fields of the type
+         * @return the value, or null if empty or there is no such stream
+         */
+        public String getValue(SectionType type, int streamNumber, int fieldIndex) {
+            RenderedStream stream = getStream(type, streamNumber);
+            return stream == null ? null : stream.values()[fieldIndex];
+        }
+
+        /**
+         * Get a single value of a stream by field name.
+         *
+         * @param type         section type
+         * @param streamNumber stream number, starting at 0
+         * @param fieldName    declared field name
+         * @return the value, or null if empty, not declared or there is no such stream
+         */
+        public String getValue(SectionType type, int streamNumber, String fieldName) {
+            String[] fields = typeToFields.get(type);
+            if (fields != null) {
+                for (int i = 0; i < fields.length; i++) {
+                    if (fields[i].equals(fieldName)) {
+                        return getValue(type, streamNumber, i);
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Map the streams of a type to typed records.
+         *
+         * @param type   section type
+         * @param mapper function creating a record from the values in declared field order
+         * @param <T>    the record type
+         * @return the records in stream order
+         */
+        public <T> List<T> map(SectionType type, Function<String[], T> mapper) {
+            List<T> records = new ArrayList<>();
+            for (RenderedStream stream : typeToStreams.getOrDefault(type, List.of())) {
+                records.add(mapper.apply(stream.values().clone()));
+            }
+
+            return records;
+        }
+
+        /**
+         * Convert the decoded values to MediaInfo, skipping empty values.
+         *
+         * @return frozen media information with the declared fields as field names
+         */
+        public MediaInfo toMediaInfo() {
+            MediaInfo mediaInfo = new MediaInfo();
+            typeToStreams.forEach((type, streams) -> {
+                String[] fields = typeToFields.get(type);
+                for (RenderedStream stream : streams) {
+                    Section section = mediaInfo.getOrCreateSection(type, stream.sectionName());
+                    for (int i = 0; i < fields.length; i++) {
+                        if (stream.values()[i] != null) {
+                            section.addFieldValue(fields[i], stream.values()[i]);
+                        }
+                    }
+                }
+            });
+
+            return mediaInfo.toSnapshot();
+        }
+
+        private RenderedStream getStream(SectionType type, int streamNumber) {
+            List<RenderedStream> streams = typeToStreams.get(type);
+            return streams == null || streamNumber < 0 || streamNumber >= streams.size() ? null : streams.get(streamNumber);
+        }
+
+        @Override
+        public String toString() {
+            return "%s[streams=%s]".formatted(getClass().getSimpleName(), typeToStreams.values().stream()
+                .flatMap(List::stream).map(stream -> stream.sectionName() + Arrays.toString(stream.values())).toList());
+        }
+    }
+}
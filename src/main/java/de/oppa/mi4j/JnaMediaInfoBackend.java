@@ -0,0 +1,195 @@
+package de.oppa.mi4j;
+
+import com.sun.jna.Native;
+import com.sun.jna.Pointer;
+import com.sun.jna.WString;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * MediaInfoBackend implementation delegating to a JNA {@link MediaInfoLib} binding.
+ * <p>
+ * Strings are exchanged either through the wide {@code MediaInfo_*} functions or through the
+ * narrow {@code MediaInfoA_*} functions in UTF-8, see {@link MediaInfoEncoding}. With a 4 byte
+ * {@code wchar_t} UTF-8 quarters the bytes JNA has to copy and decode for mostly ASCII reports.
+ * If the library does not export the narrow functions, the backend falls back to the wide ones.
+ * </p>
+ */
+final class JnaMediaInfoBackend implements MediaInfoBackend {
+    private static final byte[] OPTION_CHARSET = Native.toByteArray("CharSet", "UTF-8");
+    private static final byte[] VALUE_UTF8 = Native.toByteArray("UTF-8", "UTF-8");
+
+    private final MediaInfoLib mediaInfoLib;
+    private volatile boolean utf8;
+
+    JnaMediaInfoBackend(MediaInfoLib mediaInfoLib) {
+        this(mediaInfoLib, MediaInfoEncoding.fromSystemProperty());
+    }
+
+    JnaMediaInfoBackend(MediaInfoLib mediaInfoLib, MediaInfoEncoding encoding) {
+        if (mediaInfoLib == null) {
+            throw new MediaInfoException("MediaInfoLib cannot be null");
+        }
+        if (encoding == null) {
+            throw new MediaInfoException("Encoding cannot be null");
+        }
+
+        this.mediaInfoLib = mediaInfoLib;
+        this.utf8 = encoding == MediaInfoEncoding.UTF8;
+    }
+
+    /**
+     * Get the encoding strings are exchanged in.
+     *
+     * @return the encoding, WIDE if UTF-8 was requested but is not supported by the library
+     */
+    MediaInfoEncoding getEncoding() {
+        return utf8 ? MediaInfoEncoding.UTF8 : MediaInfoEncoding.WIDE;
+    }
+
+    @Override
+    public String getName() {
+        return "jna";
+    }
+
+    @Override
+    public long newHandle() {
+        Pointer handle = mediaInfoLib.MediaInfo_New();
+        if (utf8 && handle != null) {
+            try {
+                mediaInfoLib.MediaInfoA_Option(handle, OPTION_CHARSET, VALUE_UTF8);
+            } catch (UnsatisfiedLinkError e) {
+                System.err.printf("Warning: MediaInfo library does not support UTF-8, falling back to wide strings: %s%n",
+                    e.getMessage());
+                utf8 = false;
+            }
+        }
+
+        return Pointer.nativeValue(handle);
+    }
+
+    @Override
+    public void deleteHandle(long handle) {
+        mediaInfoLib.MediaInfo_Delete(new Pointer(handle));
+    }
+
+    @Override
+    public boolean open(long handle, String filePath) {
+        if (utf8) {
+            return mediaInfoLib.MediaInfoA_Open(new Pointer(handle), toUtf8(filePath)) == 1;
+        }
+
+        return mediaInfoLib.MediaInfo_Open(new Pointer(handle), new WString(filePath)) == 1;
+    }
+
+    @Override
+    public void close(long handle) {
+        mediaInfoLib.MediaInfo_Close(new Pointer(handle));
+    }
+
+    @Override
+    public void setOption(long handle, String parameter, String value) {
+        if (utf8) {
+            mediaInfoLib.MediaInfoA_Option(new Pointer(handle), toUtf8(parameter), toUtf8(value));
+        } else {
+            mediaInfoLib.MediaInfo_Option(new Pointer(handle), new WString(parameter), new WString(value));
+        }
+    }
+
+    @Override
+    public String getOption(long handle, String parameter, String value) {
+        if (utf8) {
+            return fromUtf8(mediaInfoLib.MediaInfoA_Option(new Pointer(handle), toUtf8(parameter), toUtf8(value)), null);
+        }
+
+        WString result = mediaInfoLib.MediaInfo_Option(new Pointer(handle), new WString(parameter), new WString(value));
+        return result == null ? null : result.toString();
+    }
+
+    @Override
+    public String inform(long handle) {
+        if (utf8) {
+            return fromUtf8(mediaInfoLib.MediaInfoA_Inform(new Pointer(handle)), null);
+        }
+
+        WString data = mediaInfoLib.MediaInfo_Inform(new Pointer(handle));
+        return data == null ? null : data.toString();
+    }
+
+    @Override
+    public int openBufferInit(long handle, long fileSize, long fileOffset) {
+        return mediaInfoLib.MediaInfo_Open_Buffer_Init(new Pointer(handle), fileSize, fileOffset).intValue();
+    }
+
+    @Override
+    public int openBufferContinue(long handle, ByteBuffer buffer) {
+        Pointer data = Native.getDirectBufferPointer(buffer).share(buffer.position());
+        MediaInfoLib.SizeT size = new MediaInfoLib.SizeT(buffer.remaining());
+
+        return mediaInfoLib.MediaInfo_Open_Buffer_Continue(new Pointer(handle), data, size).intValue();
+    }
+
+    @Override
+    public long openBufferContinueGoToGet(long handle) {
+        return mediaInfoLib.MediaInfo_Open_Buffer_Continue_GoTo_Get(new Pointer(handle));
+    }
+
+    @Override
+    public int openBufferFinalize(long handle) {
+        return mediaInfoLib.MediaInfo_Open_Buffer_Finalize(new Pointer(handle)).intValue();
+    }
+
+    @Override
+    public String get(long handle, int streamKind, int streamNumber, String parameter, int infoKind) {
+        if (utf8) {
+            return fromUtf8(mediaInfoLib.MediaInfoA_Get(new Pointer(handle), streamKind, new MediaInfoLib.SizeT(streamNumber),
+                toUtf8(parameter), infoKind, INFO_NAME), "");
+        }
+
+        WString value = mediaInfoLib.MediaInfo_Get(new Pointer(handle), streamKind, new MediaInfoLib.SizeT(streamNumber),
+            new WString(parameter), infoKind, INFO_NAME);
+        return value == null ? "" : value.toString();
+    }
+
+    @Override
+    public String getI(long handle, int streamKind, int streamNumber, int parameterIndex, int infoKind) {
+        if (utf8) {
+            return fromUtf8(mediaInfoLib.MediaInfoA_GetI(new Pointer(handle), streamKind, new MediaInfoLib.SizeT(streamNumber),
+                new MediaInfoLib.SizeT(parameterIndex), infoKind), "");
+        }
+
+        WString value = mediaInfoLib.MediaInfo_GetI(new Pointer(handle), streamKind, new MediaInfoLib.SizeT(streamNumber),
+            new MediaInfoLib.SizeT(parameterIndex), infoKind);
+        return value == null ? "" : value.toString();
+    }
+
+    @Override
+    public int countGet(long handle, int streamKind, int streamNumber) {
+        return mediaInfoLib.MediaInfo_Count_Get(new Pointer(handle), streamKind, new MediaInfoLib.SizeT(streamNumber)).intValue();
+    }
+
+    private static byte[] toUtf8(String value) {
+        return Native.toByteArray(value, "UTF-8");
+    }
+
+    private static String fromUtf8(Pointer value, String defaultValue) {
+        return value == null ? defaultValue : value.getString(0, "UTF-8");
+    }
+}
@@ -0,0 +1,450 @@
+package de.oppa.mi4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Single pass parser for the native JSON report ({@code Output=JSON}).
+ * <p>
+ * The report is tokenized in place and every track is written straight into a {@link Section},
+ * without building a JSON tree first. Only the key and value strings are allocated.
+ * Tracks become sections named like in the text report, e.g. "Audio" or "Audio #2", the
+ * {@code extra} members of a track are added to its section, and the menu chapters are stored
+ * as {@link Chapters}, which derive the {@code ChapterName x} and {@code ChapterTimestamp x}
+ * fields, and their number as the {@code ChapterCount} field.
+ * The media reference becomes the "Complete name" field of the General section. The values of
+ * the typed {@link Field}s are captured in base units, durations converted from seconds.
+ * </p>
+ */
+final class JsonReportParser {
+    private static final String FIELD_COMPLETE_NAME = "Complete name";
+    private static final String KEY_TYPE = "@type";
+    private static final String KEY_TYPE_ORDER = "@typeorder";
+    private static final String KEY_EXTRA = "extra";
+
+    private final String json;
+    private final FieldFilter filter;
+    private final ValueInterner valueInterner;
+    private final MediaInfo mediaInfo = new MediaInfo();
+    private int position;
+    private String mediaReference;
+    private int trackCount;
+
+    private JsonReportParser(String json, FieldFilter filter, ValueInterner valueInterner) {
+        this.json = json;
+        this.filter = filter;
+        this.valueInterner = valueInterner;
+    }
+
+    /**
+     * Parse a JSON report, keeping only the fields accepted by a filter.
+     *
+     * @param json          the JSON report
+     * @param filter        the field filter
+     * @param valueInterner the interner for field values, or null to keep the parsed strings
+     * @return parsed media information
+     * @throws MediaInfoParseException if the report is not valid
+     */
+    static MediaInfo parse(String json, FieldFilter filter, ValueInterner valueInterner) {
+        if (json == null) {
+            throw new MediaInfoParseException("Failed to retrieve media information. Data is null");
+        }
+        if (json.isBlank()) {
+            throw new MediaInfoParseException("No media information found. Data is empty");
+        }
+
+        JsonReportParser parser = new JsonReportParser(json, filter, valueInterner);
+        parser.parseReport();
+
+        if (parser.trackCount == 0) {
+            throw new MediaInfoParseException("No media information found. Report does not contain any tracks");
+        }
+
+        return parser.mediaInfo.toSnapshot();
+    }
+
+    private void parseReport() {
+        expect('{');
+        if (consume('}')) {
+            return;
+        }
+
+        do {
+            String key = readString();
+            expect(':');
+            if ("media".equals(key) && peek() == '{') {
+                parseMedia();
+            } else {
+                skipValue();
+            }
+        } while (consume(','));
+        expect('}');
+    }
+
+    private void parseMedia() {
+        expect('{');
+        if (consume('}')) {
+            return;
+        }
+
+        do {
+            String key = readString();
+            expect(':');
+            if ("@ref".equals(key) && peek() == '"') {
+                mediaReference = readString();
+            } else if ("track".equals(key) && peek() == '[') {
+                parseTracks();
+            } else {
+                skipValue();
+            }
+        } while (consume(','));
+        expect('}');
+    }
+
+    private void parseTracks() {
+        expect('[');
+        if (consume(']')) {
+            return;
+        }
+
+        do {
+            parseTrack();
+        } while (consume(','));
+        expect(']');
+    }
+
+    private void parseTrack() {
+        expect('{');
+        TrackState track = new TrackState();
+
+        if (!consume('}')) {
+            do {
+                String key = readString();
+                expect(':');
+                if (KEY_TYPE.equals(key)) {
+                    track.type = readScalar();
+                } else if (KEY_TYPE_ORDER.equals(key)) {
+                    track.typeOrder = readScalar();
+                } else if (KEY_EXTRA.equals(key) && peek() == '{') {
+                    parseExtra(track);
+                } else if (peek() == '{' || peek() == '[') {
+                    skipValue();
+                } else {
+                    track.addField(key, readScalar());
+                }
+            } while (consume(','));
+            expect('}');
+        }
+
+        track.finish();
+        trackCount++;
+    }
+
+    private void parseExtra(TrackState track) {
+        expect('{');
+        if (consume('}')) {
+            return;
+        }
+
+        do {
+            String key = readString();
+            expect(':');
+            if (peek() == '{' || peek() == '[') {
+                skipValue();
+            } else {
+                track.addExtraField(key, readScalar());
+            }
+        } while (consume(','));
+        expect('}');
+    }
+
+    /**
+     * Read a string, number or literal value. Returns null for the null literal.
+     */
+    private String readScalar() {
+        char c = peek();
+        if (c == '"') {
+            return readString();
+        }
+
+        int start = position;
+        while (position < json.length()) {
+            c = json.charAt(position);
+            if (c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                break;
+            }
+            position++;
+        }
+        if (start == position) {
+            throw error("Value expected");
+        }
+
+        String literal = json.substring(start, position);
+        return "null".equals(literal) ? null : literal;
+    }
+
+    private String readString() {
+        expect('"');
+        int start = position;
+        while (position < json.length()) {
+            char c = json.charAt(position);
+            if (c == '"') {
+                return json.substring(start, position++);
+            }
+            if (c == '\\') {
+                return readEscapedString(start);
+            }
+            position++;
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private String readEscapedString(int start) {
+        StringBuilder builder = new StringBuilder(position - start + 16);
+        builder.append(json, start, position);
+
+        while (position < json.length()) {
+            char c = json.charAt(position++);
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (position >= json.length()) {
+                break;
+            }
+
+            char escaped = json.charAt(position++);
+            switch (escaped) {
+                case '"', '\\', '/' -> builder.append(escaped);
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (position + 4 > json.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(json, position, position + 4, 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    position += 4;
+                }
+                default -> throw error("Invalid escape character '%c'".formatted(escaped));
+            }
+        }
+
+        throw error("Unterminated string");
+    }
+
+    private void skipValue() {
+        char c = peek();
+        if (c == '{' || c == '[') {
+            char close = c == '{' ? '}' : ']';
+            position++;
+            if (consume(close)) {
+                return;
+            }
+
+            do {
+                if (c == '{') {
+                    readString();
+                    expect(':');
+                }
+                skipValue();
+            } while (consume(','));
+            expect(close);
+        } else {
+            readScalar();
+        }
+    }
+
+    private char peek() {
+        skipWhitespace();
+        if (position >= json.length()) {
+            throw error("Unexpected end of report");
+        }
+
+        return json.charAt(position);
+    }
+
+    private boolean consume(char expected) {
+        skipWhitespace();
+        if (position < json.length() && json.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (!consume(expected)) {
+            throw error("'%c' expected".formatted(expected));
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private MediaInfoParseException error(String message) {
+        return new MediaInfoParseException("Invalid JSON report at position %d: %s".formatted(position, message));
+    }
+
+    /**
+     * Parsing state of a single track.
+     * <p>
+     * The section is created once the first regular field arrives, as the type members
+     * precede the fields in the native output. Fields arriving earlier are buffered.
+     * </p>
+     */
+    private final class TrackState {
+        private String type;
+        private String typeOrder;
+        private Section section;
+        private SectionType sectionType;
+        private List<String> pendingFields;
+        private Chapters.Collector chapters;
+        private int chapterCount;
+
+        private void addField(String key, String value) {
+            if (value == null) {
+                return;
+            }
+
+            if (section == null && type == null) {
+                if (pendingFields == null) {
+                    pendingFields = new ArrayList<>();
+                }
+                pendingFields.add(key);
+                pendingFields.add(value);
+                return;
+            }
+
+            ensureSection();
+            put(key, value);
+        }
+
+        private void addExtraField(String key, String value) {
+            if (value == null) {
+                return;
+            }
+
+            ensureSection();
+            if (sectionType == SectionType.MENU && isChapterKey(key)) {
+                if (!filter.acceptsChapters(sectionType)) {
+                    return;
+                }
+
+                if (chapters == null) {
+                    chapters = new Chapters.Collector();
+                }
+                chapters.add(toMillis(key), value);
+                chapterCount++;
+            } else {
+                put(key, value);
+            }
+        }
+
+        private void put(String key, String value) {
+            if (filter.accepts(sectionType, key)) {
+                section.addFieldValue(key, valueInterner == null ? value : valueInterner.intern(key, value));
+
+                Field field = Field.fromParameterName(key);
+                if (field != null) {
+                    double number = Field.parseRaw(value);
+                    section.captureNumber(field, field == Field.DURATION ? number * 1000 : number);
+                }
+            }
+        }
+
+        private Section ensureSection() {
+            if (section == null) {
+                if (type == null || type.isEmpty()) {
+                    throw error("Track without %s".formatted(KEY_TYPE));
+                }
+
+                String name = typeOrder == null ? type : "%s #%s".formatted(type, typeOrder);
+                sectionType = SectionType.fromName(type);
+                section = mediaInfo.getOrCreateSection(sectionType, name);
+
+                if (sectionType == SectionType.GENERAL && mediaReference != null) {
+                    put(FIELD_COMPLETE_NAME, mediaReference);
+                }
+                if (pendingFields != null) {
+                    for (int i = 0; i < pendingFields.size(); i += 2) {
+                        put(pendingFields.get(i), pendingFields.get(i + 1));
+                    }
+                    pendingFields = null;
+                }
+            }
+
+            return section;
+        }
+
+        private void finish() {
+            ensureSection();
+            if (sectionType == SectionType.MENU && filter.acceptsChapters(sectionType)) {
+                section.addFieldValue("ChapterCount", String.valueOf(chapterCount));
+            }
+            if (chapters != null) {
+                section.setChapters(chapters.toChapters(), 1);
+            }
+        }
+    }
+
+    /**
+     * Check if an extra key of a menu track is a chapter start, e.g. {@code _00_11_28_688}.
+     */
+    private static boolean isChapterKey(String key) {
+        if (key.length() != 13) {
+            return false;
+        }
+
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            boolean separator = i == 0 || i == 3 || i == 6 || i == 9;
+            if (separator ? c != '_' : c < '0' || c > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Convert a chapter key like {@code _00_11_28_688} to milliseconds.
+     */
+    private static long toMillis(String chapterKey) {
+        return Integer.parseInt(chapterKey, 1, 3, 10) * 3_600_000L
+            + Integer.parseInt(chapterKey, 4, 6, 10) * 60_000L
+            + Integer.parseInt(chapterKey, 7, 9, 10) * 1000L
+            + Integer.parseInt(chapterKey, 10, 13, 10);
+    }
+}
@@ -49,6 +49,9 @@ import java.util.zip.Checksum;
  * <p>
  * It uses a map to store sections of media information, where each section
  * is identified by its type.
+ * <p>
+ * Instances returned by the parser are frozen snapshots, see {@link #freeze()}. They are
+ * immutable and safe to share between threads.
  * </p>
  */
 public final class MediaInfo {
@@ -64,8 +67,64 @@ public final class MediaInfo {
      * and the value is the corresponding section object.
      * </p>
      */
-    private final Map<SectionType, Map<String, Section>> typeToNameToSection = new LinkedHashMap<>();
+    private final Map<SectionType, Map<String, Section>> typeToNameToSection;
+
+    /**
+     * Read-only view of {@link #typeToNameToSection}, the map itself once frozen.
+     */
+    private final Map<SectionType, Map<String, Section>> sectionsView;
+
+    /**
+     * Index of the sections by name across all types, built once frozen, otherwise null.
+     */
+    private final Map<String, Section> nameToSection;
+
+    /**
+     * Index of the field names of all sections, built once frozen, otherwise null.
+     */
+    private final FieldIndex fieldIndex;
+
+    private final boolean frozen;
+
+    /**
+     * Create an empty, mutable instance.
+     */
+    public MediaInfo() {
+        this.typeToNameToSection = new LinkedHashMap<>();
+        this.sectionsView = Collections.unmodifiableMap(typeToNameToSection);
+        this.nameToSection = null;
+        this.fieldIndex = null;
+        this.frozen = false;
+    }
+
+    /**
+     * Create a frozen snapshot of the sections of another instance.
+     *
+     * @param source       the instance to snapshot
+     * @param copySections true to freeze copies of the sections, false to freeze the sections
+     *                     themselves when the source is discarded afterwards
+     */
+    private MediaInfo(MediaInfo source, boolean copySections) {
+        Map<SectionType, Map<String, Section>> sections = new LinkedHashMap<>();
+        Map<String, Section> sectionIndex = new LinkedHashMap<>();
+
+        for (Map.Entry<SectionType, Map<String, Section>> entry : source.typeToNameToSection.entrySet()) {
+            Map<String, Section> sectionsOfType = new LinkedHashMap<>();
+            for (Map.Entry<String, Section> sectionEntry : entry.getValue().entrySet()) {
+                Section section = copySections ? sectionEntry.getValue().copy() : sectionEntry.getValue();
+                section.freeze();
+                sectionsOfType.put(sectionEntry.getKey(), section);
+                sectionIndex.putIfAbsent(sectionEntry.getKey(), section);
+            }
+            sections.put(entry.getKey(), Collections.unmodifiableMap(sectionsOfType));
+        }
 
+        this.typeToNameToSection = Collections.unmodifiableMap(sections);
+        this.sectionsView = typeToNameToSection;
+        this.nameToSection = Collections.unmodifiableMap(sectionIndex);
+        this.fieldIndex = new FieldIndex(sections);
+        this.frozen = true;
+    }
 
     /**
      * Check if the file extension is supported.
@@ -130,18 +189,62 @@ public final class MediaInfo {
         validateSectionType(type);
         validateSectionName(sectionName);
 
+        if (frozen) {
+            Section section = getSection(type, sectionName);
+            if (section == null) {
+                throw new MediaInfoException("MediaInfo is frozen, cannot create section: %s".formatted(sectionName));
+            }
+            return section;
+        }
+
         return typeToNameToSection
             .computeIfAbsent(type, k -> new LinkedHashMap<>())
             .computeIfAbsent(sectionName, k -> new Section(sectionName));
     }
 
+    /**
+     * Get an immutable snapshot of this media information.
+     * <p>
+     * The snapshot and its sections cannot be changed: adding fields or sections fails with
+     * a {@link MediaInfoException}. All state is final or completed before the snapshot is
+     * published through its final fields, so a snapshot can be shared between threads
+     * without locks or copies. The parser returns snapshots; this instance stays mutable
+     * and independent of the snapshot.
+     * </p>
+     *
+     * @return the snapshot, or this instance if it is frozen already
+     */
+    public MediaInfo freeze() {
+        return frozen ? this : new MediaInfo(this, true);
+    }
+
+    /**
+     * Freeze the sections of this instance into a snapshot without copying them.
+     * This instance must not be used afterwards.
+     *
+     * @return the snapshot
+     */
+    MediaInfo toSnapshot() {
+        return frozen ? this : new MediaInfo(this, false);
+    }
+
+    /**
+     * Check if this instance is an immutable snapshot.
+     *
+     * @return true if frozen
+     * @see #freeze()
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
     /**
      * Get all sections.
      *
      * @return unmodifiable map of sections by type
      */
     public Map<SectionType, Map<String, Section>> getSections() {
-        return Collections.unmodifiableMap(typeToNameToSection);
+        return sectionsView;
     }
 
     /**
@@ -153,7 +256,8 @@ public final class MediaInfo {
     public Map<String, Section> getSections(SectionType type) {
         validateSectionType(type);
 
-        return Collections.unmodifiableMap(typeToNameToSection.getOrDefault(type, Collections.emptyMap()));
+        Map<String, Section> sections = typeToNameToSection.getOrDefault(type, Collections.emptyMap());
+        return frozen ? sections : Collections.unmodifiableMap(sections);
     }
 
     /**
@@ -162,7 +266,7 @@ public final class MediaInfo {
      * @return unmodifiable set of section types
      */
     public Set<SectionType> getSectionTypes() {
-        return Collections.unmodifiableSet(typeToNameToSection.keySet());
+        return sectionsView.keySet();
     }
 
     /**
@@ -174,7 +278,8 @@ public final class MediaInfo {
     public Set<String> getSectionNames(SectionType type) {
         validateSectionType(type);
 
-        return Collections.unmodifiableSet(typeToNameToSection.getOrDefault(type, Collections.emptyMap()).keySet());
+        Set<String> names = typeToNameToSection.getOrDefault(type, Collections.emptyMap()).keySet();
+        return frozen ? names : Collections.unmodifiableSet(names);
     }
 
     /**
@@ -183,6 +288,10 @@ public final class MediaInfo {
      * @return unmodifiable set of all section names
      */
     public Set<String> getSectionNames() {
+        if (frozen) {
+            return nameToSection.keySet();
+        }
+
         return typeToNameToSection.values().stream()
             .flatMap(map -> map.keySet().stream())
             .collect(Collectors.toUnmodifiableSet());
@@ -215,6 +324,9 @@ public final class MediaInfo {
         if (!hasSection(sectionName)) {
             throw new IllegalArgumentException("Section name does not exist");
         }
+        if (frozen) {
+            return nameToSection.get(sectionName);
+        }
 
         return typeToNameToSection.values().stream()
             .flatMap(map -> map.entrySet().stream())
@@ -248,6 +360,10 @@ public final class MediaInfo {
     public boolean hasSection(String sectionName) {
         validateSectionName(sectionName);
 
+        if (frozen) {
+            return nameToSection.containsKey(sectionName);
+        }
+
         return typeToNameToSection.values().stream()
             .anyMatch(map -> map.containsKey(sectionName));
     }
@@ -277,10 +393,8 @@ public final class MediaInfo {
         validateSectionName(sectionName);
         validateSectionName(fieldName);
 
-        return typeToNameToSection
-            .getOrDefault(type, Collections.emptyMap())
-            .getOrDefault(sectionName, new Section(sectionName))
-            .hasField(fieldName);
+        Section section = typeToNameToSection.getOrDefault(type, Collections.emptyMap()).get(sectionName);
+        return section != null && section.hasField(fieldName);
     }
 
     /**
@@ -311,6 +425,10 @@ public final class MediaInfo {
     public boolean hasFieldName(String fieldName) {
         validateSectionName(fieldName);
 
+        if (frozen) {
+            return fieldIndex.contains(fieldName);
+        }
+
         return typeToNameToSection.values().stream()
             .flatMap(map -> map.values().stream())
             .anyMatch(section -> section.hasField(fieldName));
@@ -327,10 +445,8 @@ public final class MediaInfo {
         validateSectionType(type);
         validateSectionName(sectionName);
 
-        return typeToNameToSection
-            .getOrDefault(type, Collections.emptyMap())
-            .getOrDefault(sectionName, new Section(sectionName))
-            .getFieldNames();
+        Section section = typeToNameToSection.getOrDefault(type, Collections.emptyMap()).get(sectionName);
+        return section == null ? Collections.emptySet() : section.getFieldNames();
     }
 
     /**
@@ -342,6 +458,10 @@ public final class MediaInfo {
     public Set<String> getFieldNames(SectionType type) {
         validateSectionType(type);
 
+        if (frozen) {
+            return fieldIndex.names(type);
+        }
+
         return typeToNameToSection
             .getOrDefault(type, Collections.emptyMap())
             .values().stream()
@@ -355,12 +475,67 @@ public final class MediaInfo {
      * @return unmodifiable set of all field names
      */
     public Set<String> getFieldNames() {
+        if (frozen) {
+            return fieldIndex.names();
+        }
+
         return typeToNameToSection.values().stream()
             .flatMap(map -> map.values().stream())
             .flatMap(section -> section.getFieldNames().stream())
             .collect(Collectors.toUnmodifiableSet());
     }
 
+    /**
+     * Get all sections containing a field.
+     *
+     * @param fieldName field name
+     * @return unmodifiable list of the sections containing the field, in report order
+     */
+    public List<Section> getSectionsWithField(String fieldName) {
+        validateSectionName(fieldName);
+
+        if (frozen) {
+            return fieldIndex.sectionsWith(fieldName);
+        }
+
+        return typeToNameToSection.values().stream()
+            .flatMap(map -> map.values().stream())
+            .filter(section -> section.hasField(fieldName))
+            .toList();
+    }
+
+    /**
+     * Get the values of several fields of the first section of a type at once.
+     * <p>
+     * The section is looked up once for all fields, which saves the repeated lookups of
+     * separate {@link #getSection(SectionType, String)} and {@link Section#getFieldValue(String)} calls.
+     * </p>
+     *
+     * @param type       section type
+     * @param fieldNames field names
+     * @return the values in the order of the field names, null for fields that are not found
+     */
+    public String[] getFieldValues(SectionType type, String... fieldNames) {
+        validateSectionType(type);
+        if (fieldNames == null) {
+            throw new MediaInfoException("Field names cannot be null");
+        }
+
+        String[] values = new String[fieldNames.length];
+        Map<String, Section> sections = typeToNameToSection.get(type);
+        if (sections == null || sections.isEmpty()) {
+            return values;
+        }
+
+        Section section = sections.values().iterator().next();
+        for (int i = 0; i < fieldNames.length; i++) {
+            validateSectionName(fieldNames[i]);
+            values[i] = section.getFieldValue(fieldNames[i]);
+        }
+
+        return values;
+    }
+
     /**
      * Print the media information to the console.
      * <p>
@@ -0,0 +1,227 @@
+package de.oppa.mi4j;
+
+import java.nio.ByteBuffer;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * MediaInfoBackend interface for calling into the native MediaInfo library.
+ * <p>
+ * A backend binds the MediaInfo entry points used by {@link MediaInfoParser} through a
+ * specific native access technology. Handles are passed around as raw native addresses,
+ * so the parser and the handle pool do not depend on the technology in use.
+ * <p>
+ * The backend used by default is selected with the {@value #BACKEND_PROPERTY} system property:
+ * {@code jna} (default) or {@code ffm}. The FFM backend requires Java 22 or newer.
+ */
+public interface MediaInfoBackend {
+    /**
+     * System property to select the default backend.
+     */
+    String BACKEND_PROPERTY = "mi4j.backend";
+
+    /**
+     * Kind of information: the parameter name ({@code Info_Name}).
+     */
+    int INFO_NAME = 0;
+
+    /**
+     * Kind of information: the parameter value ({@code Info_Text}).
+     */
+    int INFO_TEXT = 1;
+
+    /**
+     * Get the backend selected by the {@value #BACKEND_PROPERTY} system property.
+     *
+     * @return the configured backend
+     */
+    static MediaInfoBackend getInstance() {
+        String value = System.getProperty(BACKEND_PROPERTY);
+        if (value == null || value.isBlank() || value.trim().equalsIgnoreCase("jna")) {
+            return jna();
+        }
+        if (value.trim().equalsIgnoreCase("ffm")) {
+            return ffm();
+        }
+
+        throw new MediaInfoException("Unknown MediaInfo backend: %s".formatted(value));
+    }
+
+    /**
+     * Get a backend using JNA with the binding selected by {@link MediaInfoLib#getInstance()}.
+     *
+     * @return the JNA backend
+     */
+    static MediaInfoBackend jna() {
+        return new JnaMediaInfoBackend(MediaInfoLib.getInstance());
+    }
+
+    /**
+     * Get the backend using the Foreign Function and Memory API.
+     *
+     * @return the FFM backend
+     * @throws MediaInfoException if the running Java version or a 32-bit JVM does not support it
+     */
+    static MediaInfoBackend ffm() {
+        return FfmMediaInfoBackend.getInstance();
+    }
+
+    /**
+     * Get the name of the backend.
+     *
+     * @return the backend name
+     */
+    String getName();
+
+    /**
+     * Create a new MediaInfo handle ({@code MediaInfo_New}).
+     *
+     * @return the native address of the handle, or 0 if it could not be created
+     */
+    long newHandle();
+
+    /**
+     * Delete a MediaInfo handle ({@code MediaInfo_Delete}).
+     *
+     * @param handle the native handle
+     */
+    void deleteHandle(long handle);
+
+    /**
+     * Open a media file for analysis ({@code MediaInfo_Open}).
+     *
+     * @param handle   the native handle
+     * @param filePath the path to the media file
+     * @return true if the file was opened successfully
+     */
+    boolean open(long handle, String filePath);
+
+    /**
+     * Close the currently opened media file ({@code MediaInfo_Close}).
+     *
+     * @param handle the native handle
+     */
+    void close(long handle);
+
+    /**
+     * Set an option on a handle ({@code MediaInfo_Option}).
+     *
+     * @param handle    the native handle
+     * @param parameter the option name
+     * @param value     the option value
+     */
+    void setOption(long handle, String parameter, String value);
+
+    /**
+     * Get the result of an option ({@code MediaInfo_Option}), e.g. the parameter list of
+     * {@code Info_Parameters_CSV}.
+     * <p>
+     * The default implementation returns null, for backends that do not return option results.
+     *
+     * @param handle    the native handle
+     * @param parameter the option name
+     * @param value     the option value
+     * @return the result of the option, or null if not available
+     */
+    default String getOption(long handle, String parameter, String value) {
+        return null;
+    }
+
+    /**
+     * Retrieve the information about the opened media file ({@code MediaInfo_Inform}).
+     *
+     * @param handle the native handle
+     * @return the media information, or null if none is available
+     */
+    String inform(long handle);
+
+    /**
+     * Initialize buffer based parsing ({@code MediaInfo_Open_Buffer_Init}).
+     * <p>
+     * Called once before the first chunk and again whenever the library requested a seek.
+     * </p>
+     *
+     * @param handle     the native handle
+     * @param fileSize   the total size of the media data
+     * @param fileOffset the offset of the next chunk
+     * @return the status bitfield
+     */
+    int openBufferInit(long handle, long fileSize, long fileOffset);
+
+    /**
+     * Feed the remaining bytes of a direct buffer ({@code MediaInfo_Open_Buffer_Continue}).
+     * <p>
+     * The buffer position is not changed.
+     * </p>
+     *
+     * @param handle the native handle
+     * @param buffer a direct buffer holding the next chunk between its position and limit
+     * @return the status bitfield: bit 0 accepted, bit 1 filled, bit 2 updated, bit 3 finalized
+     */
+    int openBufferContinue(long handle, ByteBuffer buffer);
+
+    /**
+     * Get the offset the library wants to continue at ({@code MediaInfo_Open_Buffer_Continue_GoTo_Get}).
+     *
+     * @param handle the native handle
+     * @return the requested offset, or -1 to continue sequentially
+     */
+    long openBufferContinueGoToGet(long handle);
+
+    /**
+     * Finish buffer based parsing ({@code MediaInfo_Open_Buffer_Finalize}).
+     *
+     * @param handle the native handle
+     * @return the status bitfield
+     */
+    int openBufferFinalize(long handle);
+
+    /**
+     * Retrieve a single piece of information by parameter name ({@code MediaInfo_Get}).
+     *
+     * @param handle       the native handle
+     * @param streamKind   the stream kind, see {@link SectionType#getStreamKind()}
+     * @param streamNumber the stream number, starting at 0
+     * @param parameter    the parameter name, matched against {@link #INFO_NAME}
+     * @param infoKind     the kind of information, e.g. {@link #INFO_TEXT}
+     * @return the value, empty if not available
+     */
+    String get(long handle, int streamKind, int streamNumber, String parameter, int infoKind);
+
+    /**
+     * Retrieve a single piece of information by parameter index ({@code MediaInfo_GetI}).
+     *
+     * @param handle         the native handle
+     * @param streamKind     the stream kind, see {@link SectionType#getStreamKind()}
+     * @param streamNumber   the stream number, starting at 0
+     * @param parameterIndex the parameter index
+     * @param infoKind       the kind of information, e.g. {@link #INFO_TEXT}
+     * @return the value, empty if not available
+     */
+    String getI(long handle, int streamKind, int streamNumber, int parameterIndex, int infoKind);
+
+    /**
+     * Count streams or pieces of information ({@code MediaInfo_Count_Get}).
+     *
+     * @param handle       the native handle
+     * @param streamKind   the stream kind, see {@link SectionType#getStreamKind()}
+     * @param streamNumber the stream number, or -1 to count the streams of the kind
+     * @return the number of streams of the kind, or of pieces of information in the stream
+     */
+    int countGet(long handle, int streamKind, int streamNumber);
+}
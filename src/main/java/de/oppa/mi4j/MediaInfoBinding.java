@@ -0,0 +1,70 @@
+package de.oppa.mi4j;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Enum representing the available JNA bindings of the MediaInfo library.
+ * <p>
+ * The binding used by {@link MediaInfoLib#getInstance()} can be selected with the
+ * {@value #BINDING_PROPERTY} system property, e.g. {@code -Dmi4j.binding=direct}.
+ */
+public enum MediaInfoBinding {
+    /**
+     * Interface mapping through {@code Native.load}. Every call goes through a reflective proxy.
+     */
+    PROXY("proxy"),
+    /**
+     * Direct mapping through {@code Native.register}. Calls go straight to registered native methods.
+     */
+    DIRECT("direct");
+
+    /**
+     * System property to select the default binding.
+     */
+    public static final String BINDING_PROPERTY = "mi4j.binding";
+
+    private final String name;
+
+    MediaInfoBinding(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the binding selected by the {@value #BINDING_PROPERTY} system property.
+     *
+     * @return the configured binding, or PROXY if none is configured
+     */
+    public static MediaInfoBinding fromSystemProperty() {
+        String value = System.getProperty(BINDING_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return PROXY;
+        }
+
+        for (MediaInfoBinding binding : values()) {
+            if (binding.name.equalsIgnoreCase(value.trim())) {
+                return binding;
+            }
+        }
+
+        throw new MediaInfoException("Unknown MediaInfo binding: %s".formatted(value));
+    }
+
+    public String getName() {
+        return name;
+    }
+}
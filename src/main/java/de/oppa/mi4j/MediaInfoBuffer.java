@@ -0,0 +1,556 @@
+package de.oppa.mi4j;
+
+import java.util.Arrays;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Reusable parse target holding a report in flat arrays.
+ * <p>
+ * A buffer is a {@link MediaInfoHandler}: the parser copies section names, field names,
+ * values and chapter titles into one character array and records their offsets in int
+ * arrays. {@link #reset()} empties the buffer but keeps the arrays, so once they have grown
+ * to the size of the largest report, parsing further reports into the buffer does not
+ * allocate. Names of fields known to the {@link FieldKey} catalog are not copied, and the
+ * raw values of the typed {@link Field}s are captured like in {@link Section}.
+ * <p>
+ * Sections are addressed by index in report order. Reading typed values does not allocate,
+ * reading string values allocates the result. {@link #toMediaInfo()} builds a frozen
+ * {@link MediaInfo} snapshot of the content. A buffer is not thread-safe.
+ * </p>
+ *
+ * @see MediaInfoParser#parseBatch(Iterable, FieldFilter, java.util.function.Consumer)
+ */
+public final class MediaInfoBuffer implements MediaInfoHandler {
+    private static final Field[] FIELDS = Field.values();
+    private static final FieldKey[] FIELD_NAME_KEYS = Arrays.stream(FIELDS).map(field -> FieldKey.of(field.getName())).toArray(FieldKey[]::new);
+    private static final FieldKey[] FIELD_PARAMETER_KEYS = Arrays.stream(FIELDS).map(field -> FieldKey.of(field.getParameterName())).toArray(FieldKey[]::new);
+    private static final SectionType[] SECTION_TYPES = SectionType.values();
+    private static final int UNKNOWN_KEY = -1;
+
+    // Section entries: type ordinal, name start, name end, first field, end of fields, first chapter, end of chapters
+    private static final int SECTION_STRIDE = 7;
+    // Field entries: key ordinal or UNKNOWN_KEY, key start, key end, value start, value end
+    private static final int FIELD_STRIDE = 5;
+    // Chapter entries: title start, title end
+    private static final int CHAPTER_STRIDE = 2;
+
+    private FieldFilter filter;
+    private char[] chars = new char[4096];
+    private int charCount;
+    private int[] sections = new int[16 * SECTION_STRIDE];
+    private int sectionCount;
+    private int[] fields = new int[256 * FIELD_STRIDE];
+    private int fieldCount;
+    private int[] chapters = new int[16 * CHAPTER_STRIDE];
+    private long[] chapterStarts = new long[16];
+    private int chapterCount;
+    private double[] numbers = new double[16 * FIELDS.length];
+    private int[] capturedFields = new int[16];
+    private int currentSection = -1;
+    private final Slice key = new Slice();
+    private final Slice value = new Slice();
+
+    /**
+     * Create a buffer keeping all fields.
+     */
+    public MediaInfoBuffer() {
+        this(FieldFilter.ALL);
+    }
+
+    /**
+     * Create a buffer keeping the fields accepted by a filter.
+     *
+     * @param filter the field filter
+     */
+    public MediaInfoBuffer(FieldFilter filter) {
+        setFilter(filter);
+    }
+
+    /**
+     * Empty the buffer for the next report, keeping its arrays.
+     */
+    public void reset() {
+        charCount = 0;
+        sectionCount = 0;
+        fieldCount = 0;
+        chapterCount = 0;
+        currentSection = -1;
+    }
+
+    /**
+     * Replace the filter of the buffer, for the next report.
+     */
+    void setFilter(FieldFilter filter) {
+        if (filter == null) {
+            throw new MediaInfoException("Field filter cannot be null");
+        }
+
+        this.filter = filter;
+    }
+
+    @Override
+    public void onSectionStart(SectionType type, String name) {
+        onSectionEnd();
+
+        int section = sectionCount++;
+        if (section == capturedFields.length) {
+            sections = Arrays.copyOf(sections, sections.length * 2);
+            capturedFields = Arrays.copyOf(capturedFields, capturedFields.length * 2);
+            numbers = Arrays.copyOf(numbers, numbers.length * 2);
+        }
+
+        int offset = section * SECTION_STRIDE;
+        sections[offset] = type.ordinal();
+        sections[offset + 1] = charCount;
+        append(name);
+        sections[offset + 2] = charCount;
+        sections[offset + 3] = fieldCount;
+        sections[offset + 4] = fieldCount;
+        sections[offset + 5] = chapterCount;
+        sections[offset + 6] = chapterCount;
+        capturedFields[section] = 0;
+        currentSection = section;
+    }
+
+    @Override
+    public void onField(CharSequence fieldName, CharSequence fieldValue) {
+        SectionType type = currentSectionType();
+        FieldKey fieldKey = FieldKey.of(fieldName);
+        if (filter != FieldFilter.ALL && filter.match(type, fieldKey != null ? fieldKey.getName() : fieldName) == null) {
+            return;
+        }
+
+        if (fieldCount * FIELD_STRIDE == fields.length) {
+            fields = Arrays.copyOf(fields, fields.length * 2);
+        }
+
+        int offset = fieldCount++ * FIELD_STRIDE;
+        if (fieldKey != null) {
+            fields[offset] = fieldKey.getOrdinal();
+            fields[offset + 1] = 0;
+            fields[offset + 2] = 0;
+        } else {
+            fields[offset] = UNKNOWN_KEY;
+            fields[offset + 1] = charCount;
+            append(fieldName);
+            fields[offset + 2] = charCount;
+        }
+        fields[offset + 3] = charCount;
+        append(fieldValue);
+        fields[offset + 4] = charCount;
+        sections[currentSection * SECTION_STRIDE + 4] = fieldCount;
+
+        Field field = fieldKey != null ? fieldKey.getField() : null;
+        if (field != null && (capturedFields[currentSection] & 1 << field.ordinal()) == 0) {
+            double number = Field.parseRaw(fieldValue);
+            if (!Double.isNaN(number)) {
+                numbers[currentSection * FIELDS.length + field.ordinal()] = number;
+                capturedFields[currentSection] |= 1 << field.ordinal();
+            }
+        }
+    }
+
+    @Override
+    public void onChapter(long startMillis, CharSequence title) {
+        SectionType type = currentSectionType();
+        if (!filter.acceptsChapters(type)) {
+            return;
+        }
+
+        if (chapterCount == chapterStarts.length) {
+            chapterStarts = Arrays.copyOf(chapterStarts, chapterCount * 2);
+            chapters = Arrays.copyOf(chapters, chapters.length * 2);
+        }
+
+        int offset = chapterCount * CHAPTER_STRIDE;
+        chapterStarts[chapterCount] = startMillis;
+        chapters[offset] = charCount;
+        append(title);
+        chapters[offset + 1] = charCount;
+        chapterCount++;
+        sections[currentSection * SECTION_STRIDE + 6] = chapterCount;
+    }
+
+    @Override
+    public void onSectionEnd() {
+        currentSection = -1;
+    }
+
+    /**
+     * Get the number of sections.
+     *
+     * @return the number of sections
+     */
+    public int getSectionCount() {
+        return sectionCount;
+    }
+
+    /**
+     * Get the type of a section.
+     *
+     * @param section section index
+     * @return the section type
+     */
+    public SectionType getSectionType(int section) {
+        return SECTION_TYPES[sections[checkSection(section) * SECTION_STRIDE]];
+    }
+
+    /**
+     * Get the name of a section.
+     *
+     * @param section section index
+     * @return the section name, e.g. "Audio #2"
+     */
+    public String getSectionName(int section) {
+        int offset = checkSection(section) * SECTION_STRIDE;
+        return new String(chars, sections[offset + 1], sections[offset + 2] - sections[offset + 1]);
+    }
+
+    /**
+     * Get the index of a section by name.
+     *
+     * @param sectionName section name, e.g. "Audio #2"
+     * @return the index of the first section with the name, or -1 if not found
+     */
+    public int indexOf(String sectionName) {
+        if (sectionName == null || sectionName.isEmpty()) {
+            throw new MediaInfoException("Section name cannot be null or empty");
+        }
+
+        for (int section = 0; section < sectionCount; section++) {
+            int offset = section * SECTION_STRIDE;
+            if (regionEquals(sectionName, sections[offset + 1], sections[offset + 2])) {
+                return section;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the index of the first section of a type.
+     *
+     * @param type section type
+     * @return the section index, or -1 if there is no section of the type
+     */
+    public int indexOf(SectionType type) {
+        if (type == null) {
+            throw new MediaInfoException("Section type cannot be null");
+        }
+
+        for (int section = 0; section < sectionCount; section++) {
+            if (sections[section * SECTION_STRIDE] == type.ordinal()) {
+                return section;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the value of a field of a section.
+     *
+     * @param section   section index
+     * @param fieldName field name
+     * @return the value, or null if not found
+     */
+    public String getFieldValue(int section, String fieldName) {
+        int field = findField(checkSection(section), FieldKey.of(validateFieldName(fieldName)), fieldName);
+        if (field < 0) {
+            return null;
+        }
+
+        int offset = field * FIELD_STRIDE;
+        return new String(chars, fields[offset + 3], fields[offset + 4] - fields[offset + 3]);
+    }
+
+    /**
+     * Check if a section has a field.
+     *
+     * @param section   section index
+     * @param fieldName field name
+     * @return true if the field exists, false otherwise
+     */
+    public boolean hasField(int section, String fieldName) {
+        return findField(checkSection(section), FieldKey.of(validateFieldName(fieldName)), fieldName) >= 0;
+    }
+
+    /**
+     * Get the numeric value of a typed field of a section.
+     * <p>
+     * The raw value captured while parsing is returned without allocating. Otherwise the
+     * human readable value is parsed, like {@link Section#getDouble(Field)} does.
+     * </p>
+     *
+     * @param section section index
+     * @param field   the typed field
+     * @return the value in base units, or NaN if the field is missing or not numeric
+     */
+    public double getDouble(int section, Field field) {
+        checkSection(section);
+        if (field == null) {
+            throw new MediaInfoException("Field cannot be null");
+        }
+        if ((capturedFields[section] & 1 << field.ordinal()) != 0) {
+            return numbers[section * FIELDS.length + field.ordinal()];
+        }
+
+        int index = findField(section, FIELD_NAME_KEYS[field.ordinal()], field.getName());
+        if (index < 0) {
+            index = findField(section, FIELD_PARAMETER_KEYS[field.ordinal()], field.getParameterName());
+        }
+        if (index < 0) {
+            return Double.NaN;
+        }
+
+        int offset = index * FIELD_STRIDE;
+        return field.parseText(new String(chars, fields[offset + 3], fields[offset + 4] - fields[offset + 3]));
+    }
+
+    /**
+     * Get the numeric value of a typed field of a section, rounded to a long.
+     *
+     * @param section section index
+     * @param field   the typed field
+     * @return the value in base units, or -1 if the field is missing or not numeric
+     * @see #getDouble(int, Field)
+     */
+    public long getLong(int section, Field field) {
+        double number = getDouble(section, field);
+        return Double.isNaN(number) ? -1 : Math.round(number);
+    }
+
+    /**
+     * Get the numeric value of a typed field of a section, rounded to an int.
+     *
+     * @param section section index
+     * @param field   the typed field
+     * @return the value in base units, or -1 if the field is missing or not numeric
+     * @throws MediaInfoException if the value does not fit in an int, e.g. a file size above 2 GiB
+     * @see #getDouble(int, Field)
+     */
+    public int getInt(int section, Field field) {
+        return field.toInt(getLong(section, field));
+    }
+
+    /**
+     * Get the number of chapters of a section.
+     *
+     * @param section section index
+     * @return the number of chapters
+     */
+    public int getChapterCount(int section) {
+        int offset = checkSection(section) * SECTION_STRIDE;
+        return sections[offset + 6] - sections[offset + 5];
+    }
+
+    /**
+     * Get the start of a chapter of a section.
+     *
+     * @param section section index
+     * @param chapter chapter index within the section, starting at 0
+     * @return the start in milliseconds
+     */
+    public long getChapterStartMillis(int section, int chapter) {
+        return chapterStarts[checkChapter(section, chapter)];
+    }
+
+    /**
+     * Get the title of a chapter of a section.
+     *
+     * @param section section index
+     * @param chapter chapter index within the section, starting at 0
+     * @return the title as reported
+     */
+    public String getChapterTitle(int section, int chapter) {
+        int offset = checkChapter(section, chapter) * CHAPTER_STRIDE;
+        return new String(chars, chapters[offset], chapters[offset + 1] - chapters[offset]);
+    }
+
+    /**
+     * Replay the content of the buffer to a handler, in report order.
+     *
+     * @param handler the handler receiving the sections, fields and chapters
+     */
+    public void replay(MediaInfoHandler handler) {
+        if (handler == null) {
+            throw new MediaInfoException("Handler cannot be null");
+        }
+
+        for (int section = 0; section < sectionCount && !handler.isDone(); section++) {
+            int offset = section * SECTION_STRIDE;
+            handler.onSectionStart(getSectionType(section), getSectionName(section));
+            for (int field = sections[offset + 3]; field < sections[offset + 4] && !handler.isDone(); field++) {
+                int fieldOffset = field * FIELD_STRIDE;
+                CharSequence fieldName = fields[fieldOffset] == UNKNOWN_KEY
+                    ? key.set(chars, fields[fieldOffset + 1], fields[fieldOffset + 2])
+                    : FieldKey.byOrdinal(fields[fieldOffset]).getName();
+                handler.onField(fieldName, value.set(chars, fields[fieldOffset + 3], fields[fieldOffset + 4]));
+            }
+            for (int chapter = sections[offset + 5]; chapter < sections[offset + 6] && !handler.isDone(); chapter++) {
+                int chapterOffset = chapter * CHAPTER_STRIDE;
+                handler.onChapter(chapterStarts[chapter], value.set(chars, chapters[chapterOffset], chapters[chapterOffset + 1]));
+            }
+            handler.onSectionEnd();
+        }
+    }
+
+    /**
+     * Build a frozen media information snapshot of the content of the buffer.
+     *
+     * @return parsed media information
+     */
+    public MediaInfo toMediaInfo() {
+        MediaInfoBuilder builder = new MediaInfoBuilder();
+        replay(builder);
+        return builder.build();
+    }
+
+    /**
+     * Find the last value of a field in a section, as later values replace earlier ones.
+     *
+     * @return the field index, or -1 if not found
+     */
+    private int findField(int section, FieldKey fieldKey, String fieldName) {
+        int offset = section * SECTION_STRIDE;
+        for (int field = sections[offset + 4] - 1; field >= sections[offset + 3]; field--) {
+            int fieldOffset = field * FIELD_STRIDE;
+            boolean found = fieldKey != null
+                ? fields[fieldOffset] == fieldKey.getOrdinal()
+                : fields[fieldOffset] == UNKNOWN_KEY && regionEquals(fieldName, fields[fieldOffset + 1], fields[fieldOffset + 2]);
+            if (found) {
+                return field;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean regionEquals(String text, int start, int end) {
+        if (end - start != text.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            if (chars[start + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void append(CharSequence text) {
+        int length = text.length();
+        if (charCount + length > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(chars.length * 2, charCount + length));
+        }
+
+        if (text instanceof String string) {
+            string.getChars(0, length, chars, charCount);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[charCount + i] = text.charAt(i);
+            }
+        }
+        charCount += length;
+    }
+
+    private SectionType currentSectionType() {
+        if (currentSection < 0) {
+            throw new MediaInfoException("No section started");
+        }
+
+        return SECTION_TYPES[sections[currentSection * SECTION_STRIDE]];
+    }
+
+    private int checkSection(int section) {
+        if (section < 0 || section >= sectionCount) {
+            throw new MediaInfoException("Section index out of range: %d, sections: %d".formatted(section, sectionCount));
+        }
+
+        return section;
+    }
+
+    private int checkChapter(int section, int chapter) {
+        int offset = checkSection(section) * SECTION_STRIDE;
+        if (chapter < 0 || chapter >= sections[offset + 6] - sections[offset + 5]) {
+            throw new MediaInfoException("Chapter index out of range: %d, chapters: %d".formatted(chapter, sections[offset + 6] - sections[offset + 5]));
+        }
+
+        return sections[offset + 5] + chapter;
+    }
+
+    private static String validateFieldName(String fieldName) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            throw new MediaInfoException("Field name cannot be null or empty");
+        }
+
+        return fieldName;
+    }
+
+    @Override
+    public String toString() {
+        return "%s[sections=%d, fields=%d, chapters=%d]".formatted(getClass().getSimpleName(), sectionCount, fieldCount, chapterCount);
+    }
+
+    /**
+     * Reusable view of a range of the character array, passed to replayed handlers.
+     */
+    private static final class Slice implements CharSequence {
+        private char[] chars;
+        private int start;
+        private int length;
+
+        private Slice set(char[] chars, int start, int end) {
+            this.chars = chars;
+            this.start = start;
+            this.length = end - start;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return chars[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start %d, end %d, length %d".formatted(start, end, length));
+            }
+
+            return new String(chars, this.start + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, start, length);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package de.oppa.mi4j;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Handler building {@link MediaInfo} from the events of the text report parser.
+ * <p>
+ * Chapters are stored once, as {@link Chapters} of their menu section, which derives the
+ * {@code ChapterName x} and {@code ChapterTimestamp x} fields numbered across all menu
+ * sections. The number of chapters is stored as {@code ChapterCount} of the "Menu" section,
+ * or of the first menu section if there is none with that name. Fields not accepted by the
+ * {@link FieldFilter} of the builder are skipped. The raw values of the typed {@link Field}s
+ * are captured before later human readable duplicates replace them. The result is a frozen
+ * snapshot with sections compacted to shared {@link SectionShape}s.
+ * </p>
+ */
+final class MediaInfoBuilder implements MediaInfoHandler {
+    private final MediaInfo mediaInfo = new MediaInfo();
+    private final FieldFilter filter;
+    private final ValueInterner valueInterner;
+    private Section currentSection;
+    private SectionType currentSectionType;
+    private Section firstMenuSection;
+    private Chapters.Collector chapters;
+    private int chapterNumber;
+
+    /**
+     * Create a builder keeping all fields.
+     */
+    MediaInfoBuilder() {
+        this(FieldFilter.ALL, null);
+    }
+
+    /**
+     * Create a builder keeping the fields accepted by a filter.
+     *
+     * @param filter        the field filter
+     * @param valueInterner the interner for field values, or null to copy every value
+     */
+    MediaInfoBuilder(FieldFilter filter, ValueInterner valueInterner) {
+        this.filter = filter;
+        this.valueInterner = valueInterner;
+    }
+
+    @Override
+    public void onSectionStart(SectionType type, String name) {
+        currentSection = mediaInfo.getOrCreateSection(type, name);
+        currentSectionType = type;
+        if (type == SectionType.MENU && firstMenuSection == null && filter.acceptsChapters(type)) {
+            firstMenuSection = currentSection;
+        }
+    }
+
+    @Override
+    public void onField(CharSequence key, CharSequence value) {
+        FieldKey fieldKey = FieldKey.of(key);
+        String field = filter.match(currentSectionType, fieldKey != null ? fieldKey.getName() : key);
+        if (field == null) {
+            return;
+        }
+
+        String text = valueInterner == null ? value.toString() : valueInterner.intern(field, value);
+        if (fieldKey == null) {
+            currentSection.addFieldValue(field, text);
+            return;
+        }
+
+        currentSection.addFieldValue(fieldKey, text);
+        if (fieldKey.getField() != null) {
+            currentSection.captureNumber(fieldKey.getField(), Field.parseRaw(value));
+        }
+    }
+
+    @Override
+    public void onChapter(long startMillis, CharSequence title) {
+        if (!filter.acceptsChapters(currentSectionType)) {
+            return;
+        }
+
+        if (chapters == null) {
+            chapters = new Chapters.Collector();
+        }
+        chapters.add(startMillis, title);
+        chapterNumber++;
+    }
+
+    @Override
+    public void onSectionEnd() {
+        if (chapters != null) {
+            Chapters sectionChapters = chapters.toChapters();
+            currentSection.setChapters(sectionChapters, chapterNumber - sectionChapters.size() + 1);
+            chapters = null;
+        }
+        currentSection = null;
+        currentSectionType = null;
+    }
+
+    /**
+     * Complete and get the built media information.
+     *
+     * @return the media information
+     */
+    MediaInfo build() {
+        if (currentSection != null) {
+            onSectionEnd();
+        }
+        if (firstMenuSection != null) {
+            Section menu = mediaInfo.getSection(SectionType.MENU, SectionType.MENU.getName());
+            (menu != null ? menu : firstMenuSection).addFieldValue("ChapterCount", String.valueOf(chapterNumber));
+        }
+
+        return mediaInfo.toSnapshot();
+    }
+
+    /**
+     * Format milliseconds like the chapter timestamps of the report, e.g. {@code 00:11:28.688}.
+     */
+    static String formatTimestamp(long millis) {
+        char[] timestamp = new char[12];
+        int position = timestamp.length;
+
+        position = writeDigits(timestamp, position, millis % 1000, 3);
+        timestamp[--position] = '.';
+        position = writeDigits(timestamp, position, millis / 1000 % 60, 2);
+        timestamp[--position] = ':';
+        position = writeDigits(timestamp, position, millis / 60_000 % 60, 2);
+        timestamp[--position] = ':';
+        writeDigits(timestamp, position, millis / 3_600_000, 2);
+
+        return new String(timestamp);
+    }
+
+    private static int writeDigits(char[] target, int end, long value, int digits) {
+        for (int i = 0; i < digits; i++) {
+            target[--end] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+
+        return end;
+    }
+}
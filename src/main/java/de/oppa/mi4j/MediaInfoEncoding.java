@@ -0,0 +1,73 @@
+package de.oppa.mi4j;
+
+import com.sun.jna.Platform;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Enum representing the string encodings the JNA backend can exchange with the MediaInfo library.
+ * <p>
+ * The encoding used by the JNA backend can be selected with the {@value #ENCODING_PROPERTY}
+ * system property, e.g. {@code -Dmi4j.encoding=wide}. By default UTF-8 is used where
+ * {@code wchar_t} is 4 bytes wide, i.e. everywhere except on Windows.
+ */
+public enum MediaInfoEncoding {
+    /**
+     * Narrow {@code MediaInfoA_*} functions exchanging UTF-8 strings.
+     */
+    UTF8("utf8"),
+    /**
+     * Wide {@code MediaInfo_*} functions exchanging {@code wchar_t} strings, i.e. UTF-32 or UTF-16 on Windows.
+     */
+    WIDE("wide");
+
+    /**
+     * System property to select the default encoding.
+     */
+    public static final String ENCODING_PROPERTY = "mi4j.encoding";
+
+    private final String name;
+
+    MediaInfoEncoding(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the encoding selected by the {@value #ENCODING_PROPERTY} system property.
+     *
+     * @return the configured encoding, or the platform default if none is configured
+     */
+    public static MediaInfoEncoding fromSystemProperty() {
+        String value = System.getProperty(ENCODING_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return Platform.isWindows() ? WIDE : UTF8;
+        }
+
+        for (MediaInfoEncoding encoding : values()) {
+            if (encoding.name.equalsIgnoreCase(value.trim())) {
+                return encoding;
+            }
+        }
+
+        throw new MediaInfoException("Unknown MediaInfo encoding: %s".formatted(value));
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,508 @@
+package de.oppa.mi4j;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Bounded, thread-safe pool of pre-configured MediaInfo native handles.
+ * <p>
+ * Handles are created lazily with {@code MediaInfo_New}, configured once and reset with
+ * {@code MediaInfo_Close} when they are returned, so they can be reused for the next file.
+ * Handles keep their options between leases, so a lease only pays for options that differ
+ * from the previous one. A handle given an option without a pool default is deleted when it is
+ * returned, as the option cannot be undone.
+ * A thread preferably gets back the handle it used last. Leases that are garbage collected
+ * without being closed are reported as leaks and their handles are reclaimed.
+ * </p>
+ */
+public final class MediaInfoHandlePool implements AutoCloseable {
+    /**
+     * System property to configure the maximum size of the default pool.
+     */
+    public static final String MAX_SIZE_PROPERTY = "mi4j.pool.maxSize";
+
+    /**
+     * Options every handle is configured with. A {@link ParseProfile} sets the ones it does not
+     * change back to these values. ParseSpeed is the library default, it is listed so profiles
+     * changing it can be undone.
+     */
+    static final Map<String, String> DEFAULT_OPTIONS = Map.of(
+        "Inform", "",
+        ParseProfile.OPTION_COMPLETE, "1",
+        ParseProfile.OPTION_PARSE_SPEED, "0.5");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private static volatile MediaInfoHandlePool defaultPool;
+
+    private final MediaInfoBackend backend;
+    private final int maxSize;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledHandle> idleHandles = new ConcurrentLinkedDeque<>();
+    private final Set<PooledHandle> allHandles = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<PooledHandle> lastUsedHandle = new ThreadLocal<>();
+    private final AtomicInteger createdCount = new AtomicInteger();
+    private final AtomicLong leakedCount = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Create a pool using the default backend with the default maximum size.
+     */
+    public MediaInfoHandlePool() {
+        this(MediaInfoBackend.getInstance(), defaultMaxSize());
+    }
+
+    /**
+     * Create a pool using the default backend.
+     *
+     * @param maxSize maximum number of native handles
+     */
+    public MediaInfoHandlePool(int maxSize) {
+        this(MediaInfoBackend.getInstance(), maxSize);
+    }
+
+    /**
+     * Create a pool using the given JNA MediaInfo library binding.
+     *
+     * @param mediaInfoLib the library binding to create handles with
+     * @param maxSize      maximum number of native handles
+     */
+    public MediaInfoHandlePool(MediaInfoLib mediaInfoLib, int maxSize) {
+        this(new JnaMediaInfoBackend(mediaInfoLib), maxSize);
+    }
+
+    /**
+     * Create a pool using the given backend.
+     *
+     * @param backend the backend to create handles with
+     * @param maxSize maximum number of native handles
+     */
+    public MediaInfoHandlePool(MediaInfoBackend backend, int maxSize) {
+        if (backend == null) {
+            throw new MediaInfoException("Backend cannot be null");
+        }
+        if (maxSize < 1) {
+            throw new MediaInfoException("Pool size must be at least 1. Size: %d".formatted(maxSize));
+        }
+
+        this.backend = backend;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Get the process-wide default pool.
+     * <p>
+     * The pool is created on first use. Its size can be configured with the
+     * {@value #MAX_SIZE_PROPERTY} system property and defaults to the number of processors.
+     * </p>
+     *
+     * @return the default pool
+     */
+    public static MediaInfoHandlePool getDefault() {
+        MediaInfoHandlePool result = defaultPool;
+        if (result == null) {
+            synchronized (MediaInfoHandlePool.class) {
+                result = defaultPool;
+                if (result == null) {
+                    result = new MediaInfoHandlePool();
+                    defaultPool = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Acquire a handle, blocking until one is available.
+     *
+     * @return a lease on a configured handle, to be closed after use
+     * @throws MediaInfoException if the pool is closed, the thread is interrupted or no handle can be created
+     */
+    public Lease acquire() {
+        checkNotClosed();
+
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MediaInfoException("Interrupted while waiting for a MediaInfo handle", e);
+        }
+
+        try {
+            PooledHandle handle = claimIdleHandle();
+            if (handle == null) {
+                handle = createHandle();
+            }
+            lastUsedHandle.set(handle);
+
+            return new Lease(this, handle);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the backend the handles of this pool belong to.
+     *
+     * @return the MediaInfo backend
+     */
+    public MediaInfoBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Get the maximum number of native handles.
+     *
+     * @return the maximum pool size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the number of native handles created so far and not yet deleted.
+     *
+     * @return the number of live handles
+     */
+    public int getSize() {
+        return allHandles.size();
+    }
+
+    /**
+     * Get the number of handles currently leased.
+     *
+     * @return the number of leased handles
+     */
+    public int getLeasedCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * Get the number of leases that were garbage collected without being closed.
+     *
+     * @return the number of detected leaks
+     */
+    public long getLeakedCount() {
+        return leakedCount.get();
+    }
+
+    /**
+     * Close the pool and delete all idle handles.
+     * <p>
+     * Handles that are still leased are deleted as soon as they are returned.
+     * </p>
+     */
+    @Override
+    public void close() {
+        closed = true;
+        deleteIdleHandles();
+    }
+
+    /**
+     * Delete the queued handles that nobody claimed.
+     */
+    private void deleteIdleHandles() {
+        PooledHandle handle;
+        while ((handle = pollIdleHandle()) != null) {
+            if (handle.claim()) {
+                deleteHandle(handle);
+            }
+        }
+    }
+
+    /**
+     * Get the number of entries in the idle queue, for tests.
+     *
+     * @return the number of queued handles
+     */
+    int getQueuedCount() {
+        return idleHandles.size();
+    }
+
+    private PooledHandle claimIdleHandle() {
+        PooledHandle preferred = lastUsedHandle.get();
+        if (preferred != null && !preferred.deleted && preferred.claim()) {
+            // Its queue entry stays behind and is skipped when it is polled
+            return preferred;
+        }
+
+        PooledHandle handle;
+        while ((handle = pollIdleHandle()) != null) {
+            if (!handle.deleted && handle.claim()) {
+                return handle;
+            }
+        }
+
+        return null;
+    }
+
+    private PooledHandle pollIdleHandle() {
+        PooledHandle handle = idleHandles.pollFirst();
+        if (handle != null) {
+            handle.queued.set(false);
+        }
+
+        return handle;
+    }
+
+    private PooledHandle createHandle() {
+        long pointer = backend.newHandle();
+        if (pointer == 0) {
+            throw new MediaInfoException("Failed to initialize MediaInfo handle");
+        }
+
+        PooledHandle handle = new PooledHandle(pointer, createdCount.incrementAndGet());
+        DEFAULT_OPTIONS.forEach((parameter, value) -> handle.setOption(backend, parameter, value));
+
+        handle.claim();
+        allHandles.add(handle);
+
+        return handle;
+    }
+
+    private void release(PooledHandle handle) {
+        try {
+            backend.close(handle.pointer);
+
+            // A handle with an option that has no known default cannot be reset, replace it
+            if (closed || handle.hasCustomOptions()) {
+                deleteHandle(handle);
+            } else {
+                // Free before queueing: a concurrent poll that already dequeued the
+                // handle then claims it instead of losing it
+                handle.free();
+                if (handle.queued.compareAndSet(false, true)) {
+                    idleHandles.offerFirst(handle);
+                }
+
+                // The pool may have been closed and drained since the check above
+                if (closed) {
+                    deleteIdleHandles();
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void deleteHandle(PooledHandle handle) {
+        handle.deleted = true;
+        allHandles.remove(handle);
+        backend.deleteHandle(handle.pointer);
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new MediaInfoException("MediaInfo handle pool is closed");
+        }
+    }
+
+    private static int defaultMaxSize() {
+        String maxSize = System.getProperty(MAX_SIZE_PROPERTY);
+        if (maxSize == null || maxSize.isBlank()) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+
+        try {
+            return Integer.parseInt(maxSize.trim());
+        } catch (NumberFormatException e) {
+            throw new MediaInfoException("Invalid value for %s: %s".formatted(MAX_SIZE_PROPERTY, maxSize), e);
+        }
+    }
+
+    /**
+     * A native handle owned by the pool.
+     */
+    private static final class PooledHandle {
+        private final long pointer;
+        private final int id;
+        private final AtomicBoolean inUse = new AtomicBoolean();
+        private final AtomicBoolean queued = new AtomicBoolean();
+        private volatile boolean deleted;
+        private final Map<String, String> options = new HashMap<>();
+        private ByteBuffer buffer;
+
+        private PooledHandle(long pointer, int id) {
+            this.pointer = pointer;
+            this.id = id;
+        }
+
+        /**
+         * Set an option on the native handle, unless it already has the given value.
+         */
+        private void setOption(MediaInfoBackend backend, String parameter, String value) {
+            if (!value.equals(options.get(parameter))) {
+                backend.setOption(pointer, parameter, value);
+                options.put(parameter, value);
+            }
+        }
+
+        /**
+         * Check if an option was set that has no pool default to set it back to.
+         */
+        private boolean hasCustomOptions() {
+            return !DEFAULT_OPTIONS.keySet().containsAll(options.keySet());
+        }
+
+        private boolean claim() {
+            return inUse.compareAndSet(false, true);
+        }
+
+        private void free() {
+            inUse.set(false);
+        }
+
+        @Override
+        public String toString() {
+            return "%s[id=%d]".formatted(getClass().getSimpleName(), id);
+        }
+    }
+
+    /**
+     * Returns the handle to the pool once, either on close or when the lease is found to be leaked.
+     */
+    private static final class ReturnAction implements Runnable {
+        private final MediaInfoHandlePool pool;
+        private final PooledHandle handle;
+        private final String threadName;
+        private final AtomicBoolean returned = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private ReturnAction(MediaInfoHandlePool pool, PooledHandle handle) {
+            this.pool = pool;
+            this.handle = handle;
+            this.threadName = Thread.currentThread().getName();
+        }
+
+        @Override
+        public void run() {
+            if (!returned.compareAndSet(false, true)) {
+                return;
+            }
+
+            if (!closed) {
+                pool.leakedCount.incrementAndGet();
+                System.err.printf("Warning: MediaInfo handle %s leased by thread '%s' was never returned to the pool%n", handle, threadName);
+            }
+            pool.release(handle);
+        }
+    }
+
+    /**
+     * Lease on a pooled handle.
+     * <p>
+     * Closing the lease resets the handle with {@code MediaInfo_Close} and returns it to the pool.
+     * </p>
+     */
+    public static final class Lease implements AutoCloseable {
+        private final MediaInfoBackend backend;
+        private final PooledHandle handle;
+        private final ReturnAction returnAction;
+        private final Cleaner.Cleanable cleanable;
+
+        private Lease(MediaInfoHandlePool pool, PooledHandle handle) {
+            this.backend = pool.backend;
+            this.handle = handle;
+            this.returnAction = new ReturnAction(pool, handle);
+            this.cleanable = CLEANER.register(this, returnAction);
+        }
+
+        /**
+         * Get the native handle.
+         *
+         * @return the native address of the handle
+         */
+        public long getHandle() {
+            if (returnAction.closed) {
+                throw new MediaInfoException("Lease is already closed");
+            }
+
+            return handle.pointer;
+        }
+
+        /**
+         * Set an option on the handle.
+         * <p>
+         * The native call is skipped if the handle already has the given value. {@code Inform},
+         * {@code Complete} and {@code ParseSpeed} keep their value for later leases of the handle,
+         * which {@link ParseProfile} sets back to the pool defaults where needed. A handle given
+         * any other option is deleted instead of being reused.
+         * </p>
+         *
+         * @param parameter the option name
+         * @param value     the option value
+         */
+        public void setOption(String parameter, String value) {
+            if (returnAction.closed) {
+                throw new MediaInfoException("Lease is already closed");
+            }
+            if (parameter == null || parameter.isEmpty()) {
+                throw new MediaInfoException("Option name cannot be null or empty");
+            }
+            if (value == null) {
+                throw new MediaInfoException("Option value cannot be null");
+            }
+
+            handle.setOption(backend, parameter, value);
+        }
+
+        /**
+         * Get the direct buffer belonging to the handle, for feeding bytes with the buffer API.
+         * <p>
+         * The buffer is allocated on first use and reused by all later leases of the same handle.
+         * </p>
+         *
+         * @return the cleared direct buffer
+         */
+        public ByteBuffer getBuffer() {
+            if (returnAction.closed) {
+                throw new MediaInfoException("Lease is already closed");
+            }
+
+            if (handle.buffer == null) {
+                handle.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            }
+
+            return handle.buffer.clear();
+        }
+
+        /**
+         * Reset the handle and return it to the pool.
+         */
+        @Override
+        public void close() {
+            returnAction.closed = true;
+            cleanable.clean();
+        }
+    }
+}
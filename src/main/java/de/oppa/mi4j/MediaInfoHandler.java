@@ -0,0 +1,75 @@
+package de.oppa.mi4j;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Callback interface to receive the content of a text report as it is parsed.
+ * <p>
+ * Driving a handler instead of building {@link MediaInfo} skips creating sections and their
+ * maps altogether. The character sequences passed to the callbacks are views into the report
+ * and only valid during the call; use {@code toString()} to keep a value. Field names and
+ * values are trimmed. Chapter lines of menu sections are reported with {@link #onChapter}
+ * instead of {@link #onField}.
+ * <p>
+ * Parsing stops as soon as {@link #isDone()} returns true after a callback, so a handler can
+ * stop once it has seen what it needs. All methods have empty defaults.
+ * </p>
+ */
+public interface MediaInfoHandler {
+    /**
+     * Called when a section starts.
+     *
+     * @param type section type
+     * @param name section name, e.g. "Audio #2"
+     */
+    default void onSectionStart(SectionType type, String name) {
+    }
+
+    /**
+     * Called for every field of the current section.
+     *
+     * @param key   field name, only valid during the call
+     * @param value field value, only valid during the call
+     */
+    default void onField(CharSequence key, CharSequence value) {
+    }
+
+    /**
+     * Called for every chapter of a menu section.
+     *
+     * @param startMillis start of the chapter in milliseconds
+     * @param title       chapter title as reported, e.g. ": en:Chapter 1", only valid during the call
+     */
+    default void onChapter(long startMillis, CharSequence title) {
+    }
+
+    /**
+     * Called when the current section ends.
+     */
+    default void onSectionEnd() {
+    }
+
+    /**
+     * Check if the handler has seen everything it needs.
+     *
+     * @return true to stop parsing
+     */
+    default boolean isDone() {
+        return false;
+    }
+}
@@ -1,12 +1,11 @@
 package de.oppa.mi4j;
 
+import com.sun.jna.IntegerType;
 import com.sun.jna.Library;
 import com.sun.jna.Native;
-import com.sun.jna.Platform;
 import com.sun.jna.Pointer;
 import com.sun.jna.WString;
 
-import java.io.IOException;
 import java.util.Set;
 
 /*
@@ -72,27 +71,34 @@ public interface MediaInfoLib extends Library {
     );
 
     /**
-     * Loads the MediaInfo library.
+     * Gets the MediaInfo library.
      * <p>
-     * This method loads the MediaInfo library using JNA. It is called automatically
-     * when the class is loaded.
+     * The native library is extracted and loaded using JNA once per process, on first use.
+     * All subsequent calls return the same shared instance. The binding is selected with the
+     * {@value MediaInfoBinding#BINDING_PROPERTY} system property.
      * </p>
      *
      * @return An instance of the MediaInfoLib interface.
      */
     static MediaInfoLib getInstance() {
-        try {
-            NativeLibraryLoader.loadMediaInfoLibrary();
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to load MediaInfo library", e);
-        }
+        return getInstance(MediaInfoBinding.fromSystemProperty());
+    }
 
-        MediaInfoLib instance = Native.load(Platform.isWindows() ? "MediaInfo" : "mediainfo", MediaInfoLib.class);
-        if (instance == null) {
-            throw new IllegalStateException("Failed to load MediaInfo library");
+    /**
+     * Gets the MediaInfo library using a specific binding.
+     *
+     * @param binding the JNA binding to use
+     * @return An instance of the MediaInfoLib interface.
+     */
+    static MediaInfoLib getInstance(MediaInfoBinding binding) {
+        if (binding == null) {
+            throw new MediaInfoException("Binding cannot be null");
         }
 
-        return instance;
+        return switch (binding) {
+            case PROXY -> NativeLibraryLoader.getMediaInfoLib();
+            case DIRECT -> DirectMediaInfoLib.getInstance();
+        };
     }
 
     /**
@@ -146,8 +152,9 @@ public interface MediaInfoLib extends Library {
      * @param handle    A pointer to the MediaInfo handle.
      * @param parameter The name of the option to set.
      * @param value     The value to set for the option.
+     * @return The result of the option, e.g. the parameter list for {@code Info_Parameters}.
      */
-    void MediaInfo_Option(Pointer handle, WString parameter, WString value);
+    WString MediaInfo_Option(Pointer handle, WString parameter, WString value);
 
     /**
      * Retrieves information about the media file.
@@ -159,4 +166,150 @@ public interface MediaInfoLib extends Library {
      * @return A WString containing the metadata information.
      */
     WString MediaInfo_Inform(Pointer handle);
+
+    /**
+     * Initializes the buffer based parsing of a media file.
+     * <p>
+     * This method prepares the MediaInfo handle to be fed with raw bytes instead of opening a file.
+     * It is also called again with the new offset after a seek was requested.
+     * </p>
+     *
+     * @param handle     A pointer to the MediaInfo handle.
+     * @param fileSize   The total size of the media data.
+     * @param fileOffset The offset of the next bytes to be fed.
+     * @return A status bitfield, see {@link #MediaInfo_Open_Buffer_Continue}.
+     */
+    SizeT MediaInfo_Open_Buffer_Init(Pointer handle, long fileSize, long fileOffset);
+
+    /**
+     * Feeds the next chunk of bytes to the MediaInfo handle.
+     *
+     * @param handle     A pointer to the MediaInfo handle.
+     * @param buffer     A pointer to the bytes.
+     * @param bufferSize The number of bytes to read from the buffer.
+     * @return A status bitfield: bit 0 accepted, bit 1 filled, bit 2 updated, bit 3 finalized.
+     */
+    SizeT MediaInfo_Open_Buffer_Continue(Pointer handle, Pointer buffer, SizeT bufferSize);
+
+    /**
+     * Gets the offset the MediaInfo handle wants to continue reading from.
+     *
+     * @param handle A pointer to the MediaInfo handle.
+     * @return The requested offset, or -1 if the bytes should be fed sequentially.
+     */
+    long MediaInfo_Open_Buffer_Continue_GoTo_Get(Pointer handle);
+
+    /**
+     * Finishes the buffer based parsing of a media file.
+     *
+     * @param handle A pointer to the MediaInfo handle.
+     * @return A status bitfield, see {@link #MediaInfo_Open_Buffer_Continue}.
+     */
+    SizeT MediaInfo_Open_Buffer_Finalize(Pointer handle);
+
+    /**
+     * Retrieves a single piece of information by parameter name.
+     *
+     * @param handle       A pointer to the MediaInfo handle.
+     * @param streamKind   The kind of stream, see {@link SectionType#getStreamKind()}.
+     * @param streamNumber The number of the stream, starting at 0.
+     * @param parameter    The name of the parameter, e.g. "Duration".
+     * @param infoKind     The kind of information to retrieve, e.g. the text value.
+     * @param searchKind   The kind of information the parameter is matched against, e.g. the name.
+     * @return A WString containing the value, empty if not available.
+     */
+    WString MediaInfo_Get(Pointer handle, int streamKind, SizeT streamNumber, WString parameter, int infoKind, int searchKind);
+
+    /**
+     * Retrieves a single piece of information by parameter index.
+     *
+     * @param handle       A pointer to the MediaInfo handle.
+     * @param streamKind   The kind of stream, see {@link SectionType#getStreamKind()}.
+     * @param streamNumber The number of the stream, starting at 0.
+     * @param parameter    The index of the parameter.
+     * @param infoKind     The kind of information to retrieve, e.g. the text value.
+     * @return A WString containing the value, empty if not available.
+     */
+    WString MediaInfo_GetI(Pointer handle, int streamKind, SizeT streamNumber, SizeT parameter, int infoKind);
+
+    /**
+     * Counts streams of a kind, or pieces of information of a stream.
+     *
+     * @param handle       A pointer to the MediaInfo handle.
+     * @param streamKind   The kind of stream, see {@link SectionType#getStreamKind()}.
+     * @param streamNumber The number of the stream, or -1 to count the streams of the kind.
+     * @return The number of streams or pieces of information.
+     */
+    SizeT MediaInfo_Count_Get(Pointer handle, int streamKind, SizeT streamNumber);
+
+    /**
+     * Opens a media file for analysis, narrow variant of {@link #MediaInfo_Open}.
+     *
+     * @param handle   A pointer to the MediaInfo handle.
+     * @param filename The NUL terminated path to the media file in the narrow encoding.
+     * @return 1 if successful, 0 otherwise.
+     */
+    int MediaInfoA_Open(Pointer handle, byte[] filename);
+
+    /**
+     * Sets an option for the MediaInfo handle, narrow variant of {@link #MediaInfo_Option}.
+     * <p>
+     * Setting {@code CharSet} to {@code UTF-8} makes all narrow functions use UTF-8 instead of
+     * the locale encoding.
+     * </p>
+     *
+     * @param handle    A pointer to the MediaInfo handle.
+     * @param parameter The NUL terminated name of the option to set.
+     * @param value     The NUL terminated value to set for the option.
+     * @return A pointer to the NUL terminated result of the option, owned by the handle.
+     */
+    Pointer MediaInfoA_Option(Pointer handle, byte[] parameter, byte[] value);
+
+    /**
+     * Retrieves information about the media file, narrow variant of {@link #MediaInfo_Inform}.
+     *
+     * @param handle A pointer to the MediaInfo handle.
+     * @return A pointer to the NUL terminated metadata information, owned by the handle.
+     */
+    Pointer MediaInfoA_Inform(Pointer handle);
+
+    /**
+     * Retrieves a single piece of information by parameter name, narrow variant of {@link #MediaInfo_Get}.
+     *
+     * @param handle       A pointer to the MediaInfo handle.
+     * @param streamKind   The kind of stream, see {@link SectionType#getStreamKind()}.
+     * @param streamNumber The number of the stream, starting at 0.
+     * @param parameter    The NUL terminated name of the parameter, e.g. "Duration".
+     * @param infoKind     The kind of information to retrieve, e.g. the text value.
+     * @param searchKind   The kind of information the parameter is matched against, e.g. the name.
+     * @return A pointer to the NUL terminated value, owned by the handle.
+     */
+    Pointer MediaInfoA_Get(Pointer handle, int streamKind, SizeT streamNumber, byte[] parameter, int infoKind, int searchKind);
+
+    /**
+     * Retrieves a single piece of information by parameter index, narrow variant of {@link #MediaInfo_GetI}.
+     *
+     * @param handle       A pointer to the MediaInfo handle.
+     * @param streamKind   The kind of stream, see {@link SectionType#getStreamKind()}.
+     * @param streamNumber The number of the stream, starting at 0.
+     * @param parameter    The index of the parameter.
+     * @param infoKind     The kind of information to retrieve, e.g. the text value.
+     * @return A pointer to the NUL terminated value, owned by the handle.
+     */
+    Pointer MediaInfoA_GetI(Pointer handle, int streamKind, SizeT streamNumber, SizeT parameter, int infoKind);
+
+    /**
+     * Native {@code size_t}, sized according to the platform.
+     */
+    final class SizeT extends IntegerType {
+        private static final long serialVersionUID = 1L;
+
+        public SizeT() {
+            this(0);
+        }
+
+        public SizeT(long value) {
+            super(Native.SIZE_T_SIZE, value, true);
+        }
+    }
 }
@@ -1,13 +1,21 @@
 package de.oppa.mi4j;
 
-import com.sun.jna.Pointer;
-import com.sun.jna.WString;
-
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.StringReader;
-import java.util.List;
-import java.util.regex.Pattern;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /*
  * Copyright (C) 2025 oppahansi
@@ -40,7 +48,46 @@ import java.util.regex.Pattern;
 public final class MediaInfoParser {
     private static final String FAILED_TO_RETRIEVE_MEDIA_INFORMATION_DATA_IS_NULL = "Failed to retrieve media information. Data is null";
     private static final String NO_MEDIA_INFORMATION_FOUND_DATA_IS_EMPTY = "No media information found. Data is empty";
-    private static final Pattern TIMESTAMP_PATTERN = Pattern.compile("^\\d{2}:\\d{2}:\\d{2}\\.\\d{3}\\s+.*$");
+    private static final String OPTION_INFORM = "Inform";
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+    private static final int BUFFER_STATUS_FINALIZED = 0x08;
+    private static final long NO_SEEK_REQUESTED = -1;
+    private static final long MAPPED_WINDOW_SIZE = 256L * 1024 * 1024;
+    private static final int MAPPED_CHUNK_SIZE = 1024 * 1024;
+    private static final int MAX_IDLE_BATCH_TARGETS = Runtime.getRuntime().availableProcessors();
+
+    private final MediaInfoHandlePool handlePool;
+    private final ValueInterner valueInterner;
+    private final ConcurrentLinkedQueue<BatchTarget> idleBatchTargets = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleBatchTargetCount = new AtomicInteger();
+
+    /**
+     * Create a parser using the process-wide default handle pool.
+     */
+    public MediaInfoParser() {
+        this(null);
+    }
+
+    /**
+     * Create a parser using the given handle pool.
+     *
+     * @param handlePool the pool to lease native handles from, or null for the default pool
+     */
+    public MediaInfoParser(MediaInfoHandlePool handlePool) {
+        this(handlePool, null);
+    }
+
+    /**
+     * Create a parser using the given handle pool and sharing repeated field values through an interner.
+     *
+     * @param handlePool    the pool to lease native handles from, or null for the default pool
+     * @param valueInterner the interner for field values, or null to keep a copy per field
+     * @see ValueInterner
+     */
+    public MediaInfoParser(MediaInfoHandlePool handlePool, ValueInterner valueInterner) {
+        this.handlePool = handlePool;
+        this.valueInterner = valueInterner;
+    }
 
     /**
      * Parse the media information from a file.
@@ -50,159 +97,785 @@ public final class MediaInfoParser {
      * @throws MediaInfoParseException if parsing fails
      */
     public MediaInfo parseFile(String filePath) {
+        return parseFile(filePath, ParseProfile.STANDARD, ReportFormat.TEXT);
+    }
+
+    /**
+     * Parse the media information from a file using a parse profile.
+     * <p>
+     * If the profile requires fields that are missing from the result and names a deeper
+     * profile, the file is parsed again with the deeper profile, on the same native handle.
+     * </p>
+     *
+     * @param filePath file path to extract media information from
+     * @param profile  parse profile controlling how much of the file is read
+     * @return parsed media information
+     * @throws MediaInfoParseException if parsing fails
+     */
+    public MediaInfo parseFile(String filePath, ParseProfile profile) {
+        return parseFile(filePath, profile, ReportFormat.TEXT);
+    }
+
+    /**
+     * Parse the media information from a file, letting the library render the given report format.
+     * <p>
+     * With {@link ReportFormat#JSON} the structured report is parsed directly into sections,
+     * which avoids the line based text parsing. Note that the field names are then the internal
+     * MediaInfo parameter names, e.g. "BitRate" instead of "Bit rate".
+     * </p>
+     *
+     * @param filePath file path to extract media information from
+     * @param format   report format to render and parse
+     * @return parsed media information
+     * @throws MediaInfoParseException if parsing fails
+     */
+    public MediaInfo parseFile(String filePath, ReportFormat format) {
+        return parseFile(filePath, ParseProfile.STANDARD, format);
+    }
+
+    /**
+     * Parse the media information from a file using a parse profile and report format.
+     *
+     * @param filePath file path to extract media information from
+     * @param profile  parse profile controlling how much of the file is read
+     * @param format   report format to render and parse
+     * @return parsed media information
+     * @throws MediaInfoParseException if parsing fails
+     * @see #parseFile(String, ParseProfile)
+     */
+    public MediaInfo parseFile(String filePath, ParseProfile profile, ReportFormat format) {
+        return parseFile(filePath, profile, format, FieldFilter.ALL);
+    }
+
+    /**
+     * Parse the media information from a file, keeping only the fields accepted by a filter.
+     *
+     * @param filePath file path to extract media information from
+     * @param filter   filter of the fields to keep
+     * @return parsed media information
+     * @throws MediaInfoParseException if parsing fails
+     * @see FieldFilter
+     */
+    public MediaInfo parseFile(String filePath, FieldFilter filter) {
+        return parseFile(filePath, ParseProfile.STANDARD, ReportFormat.TEXT, filter);
+    }
+
+    /**
+     * Parse the media information from a file using a parse profile and report format,
+     * keeping only the fields accepted by a filter.
+     *
+     * @param filePath file path to extract media information from
+     * @param profile  parse profile controlling how much of the file is read
+     * @param format   report format to render and parse
+     * @param filter   filter of the fields to keep
+     * @return parsed media information
+     * @throws MediaInfoParseException if parsing fails
+     * @see #parseFile(String, ParseProfile)
+     * @see FieldFilter
+     */
+    public MediaInfo parseFile(String filePath, ParseProfile profile, ReportFormat format, FieldFilter filter) {
         if (!MediaInfo.isSupportedFileType(filePath)) {
             throw new MediaInfoParseException("Unsupported file type: %s".formatted(filePath));
         }
+        if (profile == null) {
+            throw new MediaInfoParseException("Parse profile cannot be null");
+        }
+        if (format == null) {
+            throw new MediaInfoParseException("Report format cannot be null");
+        }
+        validateFilter(filter);
+
+        MediaInfoHandlePool pool = getHandlePool();
+        MediaInfoBackend backend = pool.getBackend();
+
+        try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+            long handle = lease.getHandle();
+            lease.setOption(OPTION_INFORM, format.getInformOption());
+
+            for (ParseProfile current = profile; ; current = current.getEscalation()) {
+                current.apply(lease);
+                if (!backend.open(handle, filePath)) {
+                    throw new MediaInfoParseException("Failed to open file. File path: %s".formatted(filePath));
+                }
 
-        MediaInfoLib mediaInfoLib = MediaInfoLib.getInstance();
-        Pointer handle = mediaInfoLib.MediaInfo_New();
-        if (handle == null) {
-            throw new MediaInfoParseException("Failed to initialize MediaInfo handle");
+                String report = backend.inform(handle);
+                MediaInfo mediaInfo = format == ReportFormat.JSON ? parseJson(report, filter) : parseData(report, filter);
+                if (current.getEscalation() == null || !current.isMissingRequiredFields(mediaInfo)) {
+                    return mediaInfo;
+                }
+
+                backend.close(handle);
+            }
+        }
+    }
+
+    /**
+     * Parse the text report of a file, reporting its content to a handler instead of building MediaInfo.
+     * <p>
+     * The report is rendered with the {@link ParseProfile#STANDARD} profile. Parsing stops as
+     * soon as the handler is done.
+     * </p>
+     *
+     * @param filePath file path to extract media information from
+     * @param handler  handler receiving the sections, fields and chapters
+     * @throws MediaInfoParseException if parsing fails
+     * @see MediaInfoHandler
+     */
+    public void parseFile(String filePath, MediaInfoHandler handler) {
+        if (!MediaInfo.isSupportedFileType(filePath)) {
+            throw new MediaInfoParseException("Unsupported file type: %s".formatted(filePath));
+        }
+        validateHandler(handler);
+
+        MediaInfoHandlePool pool = getHandlePool();
+        MediaInfoBackend backend = pool.getBackend();
+
+        try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+            long handle = lease.getHandle();
+            lease.setOption(OPTION_INFORM, ReportFormat.TEXT.getInformOption());
+            ParseProfile.STANDARD.apply(lease);
+            if (!backend.open(handle, filePath)) {
+                throw new MediaInfoParseException("Failed to open file. File path: %s".formatted(filePath));
+            }
+
+            parseData(backend.inform(handle), handler);
         }
+    }
+
+    /**
+     * Open a file for lazy, on demand access to its media information.
+     * <p>
+     * The returned session holds a pooled native handle until it is closed.
+     * </p>
+     *
+     * @param filePath file path to extract media information from
+     * @return the opened session, to be closed after use
+     * @throws MediaInfoParseException if the file cannot be opened
+     */
+    public MediaInfoSession open(String filePath) {
+        if (!MediaInfo.isSupportedFileType(filePath)) {
+            throw new MediaInfoParseException("Unsupported file type: %s".formatted(filePath));
+        }
+
+        MediaInfoHandlePool pool = getHandlePool();
+        MediaInfoBackend backend = pool.getBackend();
+        MediaInfoHandlePool.Lease lease = pool.acquire();
 
         try {
-            if (mediaInfoLib.MediaInfo_Open(handle, new WString(filePath)) == 1) {
-                mediaInfoLib.MediaInfo_Option(handle, new WString("Inform"), new WString(""));
-                mediaInfoLib.MediaInfo_Option(handle, new WString("Complete"), new WString("1"));
-                WString data = mediaInfoLib.MediaInfo_Inform(handle);
+            ParseProfile.STANDARD.apply(lease);
+            if (backend.open(lease.getHandle(), filePath)) {
+                return new MediaInfoSession(backend, lease);
+            }
+        } catch (RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+
+        lease.close();
+        throw new MediaInfoParseException("Failed to open file. File path: %s".formatted(filePath));
+    }
+
+    /**
+     * Fetch only the parameters of a compiled query from a file.
+     * <p>
+     * No report is rendered or parsed, the values are read one by one from the native handle.
+     * </p>
+     *
+     * @param filePath file path to extract media information from
+     * @param query    the compiled query
+     * @return the values of the query parameters
+     * @throws MediaInfoParseException if the file cannot be opened
+     */
+    public FieldQuery.Result query(String filePath, FieldQuery query) {
+        if (!MediaInfo.isSupportedFileType(filePath)) {
+            throw new MediaInfoParseException("Unsupported file type: %s".formatted(filePath));
+        }
+        if (query == null) {
+            throw new MediaInfoParseException("Query cannot be null");
+        }
 
-                checkDataValidity(data);
+        MediaInfoHandlePool pool = getHandlePool();
+        MediaInfoBackend backend = pool.getBackend();
 
-                return parseData(data.toString());
+        try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+            long handle = lease.getHandle();
+            ParseProfile.STANDARD.apply(lease);
+            if (backend.open(handle, filePath)) {
+                return query.execute(backend, handle);
             }
 
             throw new MediaInfoParseException("Failed to open file. File path: %s".formatted(filePath));
-        } finally {
-            mediaInfoLib.MediaInfo_Close(handle);
-            mediaInfoLib.MediaInfo_Delete(handle);
         }
     }
 
     /**
-     * Parse the raw data into MediaInfo.
+     * Render only the fields of a compiled template from a file and decode them positionally.
+     * <p>
+     * The library renders the values with the custom {@code Inform} template, which is much
+     * less text than the complete report, and no field names have to be parsed.
+     * </p>
      *
-     * @param data raw data to parse
+     * @param filePath file path to extract media information from
+     * @param template the compiled template
+     * @return the decoded values, see {@link InformTemplate.Result#toMediaInfo()}
+     * @throws MediaInfoParseException if the file cannot be opened or the output cannot be decoded
+     */
+    public InformTemplate.Result inform(String filePath, InformTemplate template) {
+        if (!MediaInfo.isSupportedFileType(filePath)) {
+            throw new MediaInfoParseException("Unsupported file type: %s".formatted(filePath));
+        }
+        if (template == null) {
+            throw new MediaInfoParseException("Template cannot be null");
+        }
+
+        MediaInfoHandlePool pool = getHandlePool();
+        MediaInfoBackend backend = pool.getBackend();
+
+        try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+            long handle = lease.getHandle();
+            ParseProfile.STANDARD.apply(lease);
+            lease.setOption(OPTION_INFORM, template.getTemplate());
+            if (backend.open(handle, filePath)) {
+                return template.decode(backend.inform(handle));
+            }
+
+            throw new MediaInfoParseException("Failed to open file. File path: %s".formatted(filePath));
+        }
+    }
+
+    /**
+     * Parse the media information from a memory-mapped file.
+     * <p>
+     * The file is mapped with {@link FileChannel#map} and the library is fed slices of the
+     * mapped region, so its seek requests become offsets into the mapping instead of read
+     * calls and no bytes are copied on the Java side. Files larger than the mapping window
+     * are mapped window by window.
+     * </p>
+     *
+     * @param filePath file path to extract media information from
+     * @return parsed media information
+     * @throws MediaInfoParseException if reading or parsing fails
+     */
+    public MediaInfo parseMappedFile(String filePath) {
+        if (!MediaInfo.isSupportedFileType(filePath)) {
+            throw new MediaInfoParseException("Unsupported file type: %s".formatted(filePath));
+        }
+
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedChunkSource source = new MappedChunkSource(channel, size);
+
+            return parseData(feed(size, 0, source));
+        } catch (IOException e) {
+            throw new MediaInfoParseException("Failed to map file. File path: %s".formatted(filePath), e);
+        }
+    }
+
+    /**
+     * Parse the media information from a channel.
+     * <p>
+     * The bytes are read by Java and fed to the MediaInfo library through its buffer API,
+     * following the seek requests of the library. The channel is not closed.
+     * </p>
+     *
+     * @param channel channel to read the media data from
+     * @return parsed media information
+     * @throws MediaInfoParseException if reading or parsing fails
+     */
+    public MediaInfo parse(SeekableByteChannel channel) {
+        if (channel == null) {
+            throw new MediaInfoParseException("Channel cannot be null");
+        }
+
+        try {
+            return parseData(feed(channel.size(), channel.position(), (offset, buffer) -> {
+                if (channel.position() != offset) {
+                    channel.position(offset);
+                }
+                buffer.clear();
+                if (channel.read(buffer) <= 0) {
+                    return null;
+                }
+
+                return buffer.flip();
+            }));
+        } catch (IOException e) {
+            throw new MediaInfoParseException("Failed to read media data: %s".formatted(e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Parse the media information from a buffer holding the complete media data.
+     * <p>
+     * The bytes between position and limit are parsed, the buffer itself is not modified.
+     * Direct buffers are handed to the library without copying, heap buffers are copied
+     * chunk by chunk into a pooled direct buffer.
+     * </p>
+     *
+     * @param data buffer holding the media data
      * @return parsed media information
      * @throws MediaInfoParseException if parsing fails
      */
-    public MediaInfo parseData(String data) {
-        checkDataValidity(data);
+    public MediaInfo parse(ByteBuffer data) {
+        if (data == null) {
+            throw new MediaInfoParseException("Buffer cannot be null");
+        }
+
+        ByteBuffer source = data.slice();
+        int size = source.remaining();
 
-        try (var stringReader = new StringReader(data);
-             var bufferedReader = new BufferedReader(stringReader)) {
-
-            List<String> mediaInfoLines = bufferedReader.lines().toList();
-            MediaInfo mediaInfo = new MediaInfo();
-            String currentSectionName;
-            Section currentSection = null;
-            SectionType currentSectionType = null;
-            int chapterNumber = 0;
-
-            for (String infoLine : mediaInfoLines) {
-                if (infoLine == null || infoLine.isEmpty()) {
-                    currentSection = null;
-                    currentSectionType = null;
-                    continue;
+        try {
+            return parseData(feed(size, 0, (offset, buffer) -> {
+                if (offset >= size) {
+                    return null;
                 }
 
-                if (isSectionHeader(infoLine)) {
-                    currentSectionName = infoLine.trim();
-                    currentSectionType = SectionType.fromName(currentSectionName);
-                    currentSection = mediaInfo.getOrCreateSection(currentSectionType, currentSectionName);
-                    continue;
+                ByteBuffer chunk = source.slice((int) offset, (int) Math.min(buffer.capacity(), size - offset));
+                return chunk.isDirect() ? chunk : buffer.clear().put(chunk).flip();
+            }));
+        } catch (IOException e) {
+            throw new MediaInfoParseException("Failed to read media data: %s".formatted(e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Feed media data chunk by chunk to a pooled handle through the buffer API.
+     *
+     * @param size        total size of the media data
+     * @param startOffset offset of the first chunk
+     * @param source      provider of the chunks
+     * @return the media information rendered by the library
+     * @throws IOException if a chunk cannot be read
+     */
+    private String feed(long size, long startOffset, ChunkSource source) throws IOException {
+        MediaInfoHandlePool pool = getHandlePool();
+        MediaInfoBackend backend = pool.getBackend();
+
+        try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+            long handle = lease.getHandle();
+            ByteBuffer buffer = lease.getBuffer();
+            long offset = startOffset;
+
+            ParseProfile.STANDARD.apply(lease);
+            backend.openBufferInit(handle, size, offset);
+            ByteBuffer chunk;
+            while ((chunk = source.read(offset, buffer)) != null && chunk.hasRemaining()) {
+                offset += chunk.remaining();
+
+                if ((backend.openBufferContinue(handle, chunk) & BUFFER_STATUS_FINALIZED) != 0) {
+                    break;
                 }
 
-                if (currentSection != null) {
-                    if (currentSectionType.equals(SectionType.MENU)) {
-                        if (TIMESTAMP_PATTERN.matcher(infoLine).matches()) {
-                            chapterNumber++;
-                        }
-                        parseMenuLine(infoLine, currentSection, chapterNumber);
-                    } else {
-                        parseKeyValueLine(infoLine, currentSection);
-                    }
-                } else {
-                    System.err.printf("Warning: No section defined for line: %s%n", infoLine);
+                long seekTo = backend.openBufferContinueGoToGet(handle);
+                if (seekTo != NO_SEEK_REQUESTED) {
+                    offset = Math.min(seekTo, size);
+                    backend.openBufferInit(handle, size, offset);
                 }
             }
+            backend.openBufferFinalize(handle);
+            lease.setOption(OPTION_INFORM, ReportFormat.TEXT.getInformOption());
 
-            if (mediaInfo.hasSection(SectionType.MENU)) {
-                mediaInfo.getSection(SectionType.MENU, SectionType.MENU.getName())
-                    .addFieldValue("ChapterCount", String.valueOf(chapterNumber));
-            }
+            return backend.inform(handle);
+        }
+    }
 
-            return mediaInfo;
-        } catch (IOException e) {
-            throw new MediaInfoParseException("Failed to parse data: %s".formatted(e.getMessage()), e);
+    /**
+     * Parse the raw data into MediaInfo.
+     *
+     * @param data raw data to parse
+     * @return parsed media information
+     * @throws MediaInfoParseException if parsing fails
+     */
+    public MediaInfo parseData(String data) {
+        return parseData(data, FieldFilter.ALL);
+    }
+
+    /**
+     * Parse the raw data into MediaInfo, keeping only the fields accepted by a filter.
+     *
+     * @param data   raw data to parse
+     * @param filter filter of the fields to keep
+     * @return parsed media information
+     * @throws MediaInfoParseException if parsing fails
+     * @see FieldFilter
+     */
+    public MediaInfo parseData(String data, FieldFilter filter) {
+        checkDataValidity(data);
+        validateFilter(filter);
+
+        MediaInfoBuilder builder = new MediaInfoBuilder(filter, valueInterner);
+        TextReportParser.parse(data, builder);
+
+        return builder.build();
+    }
+
+    /**
+     * Parse a text report from a reader, incrementally.
+     * <p>
+     * The report is read with a bounded buffer and parsed while it is read, so it is never held
+     * in memory as a whole. The reader is not closed.
+     * </p>
+     *
+     * @param reader reader of the text report
+     * @return parsed media information
+     * @throws MediaInfoParseException if reading or parsing fails
+     */
+    public MediaInfo parseReader(Reader reader) {
+        return parseReader(reader, FieldFilter.ALL);
+    }
+
+    /**
+     * Parse a text report from a reader, incrementally, keeping only the fields accepted by a filter.
+     * The reader is not closed.
+     *
+     * @param reader reader of the text report
+     * @param filter filter of the fields to keep
+     * @return parsed media information
+     * @throws MediaInfoParseException if reading or parsing fails
+     * @see FieldFilter
+     */
+    public MediaInfo parseReader(Reader reader, FieldFilter filter) {
+        if (reader == null) {
+            throw new MediaInfoParseException(FAILED_TO_RETRIEVE_MEDIA_INFORMATION_DATA_IS_NULL);
         }
+        validateFilter(filter);
+
+        MediaInfoBuilder builder = new MediaInfoBuilder(filter, valueInterner);
+        read(reader, new TextReportParser(builder));
+
+        return builder.build();
     }
 
     /**
-     * Determine if a media info line is a section header.
+     * Parse the raw data, reporting its content to a handler instead of building MediaInfo.
+     * <p>
+     * Field names and values are passed as views into the report, valid only during the
+     * callback. Parsing stops as soon as the handler is done.
+     * </p>
      *
-     * @param infoLine the media info line to check
-     * @return true if the line is a section header
+     * @param data    raw data to parse
+     * @param handler handler receiving the sections, fields and chapters
+     * @throws MediaInfoParseException if parsing fails
+     * @see MediaInfoHandler
      */
-    private boolean isSectionHeader(String infoLine) {
-        // Check if the line matches any of the known section types
-        // General, Video, Audio, Text, Image, Menu
-        // or with an optional chapter number (e.g., Text #1)
-        return infoLine.matches("^(%s|%s|%s( #\\d+)?|%s( #\\d+)?|%s|%s)$".formatted(
-            SectionType.GENERAL.getName(),
-            SectionType.VIDEO.getName(),
-            SectionType.AUDIO.getName(),
-            SectionType.TEXT.getName(),
-            SectionType.IMAGE.getName(),
-            SectionType.MENU.getName()));
+    public void parseData(String data, MediaInfoHandler handler) {
+        checkDataValidity(data);
+        validateHandler(handler);
+
+        TextReportParser.parse(data, handler);
     }
 
     /**
-     * Parse a key-value media info line for most sections (General, Video, Audio, Text, Image).
+     * Parse a text report from a reader, incrementally, reporting its content to a handler.
+     * <p>
+     * Reading stops as soon as the handler is done. The reader is not closed.
+     * </p>
      *
-     * @param infoLine the media info line to parse
-     * @param section  the section to add the key-value pair to
+     * @param reader  reader of the text report
+     * @param handler handler receiving the sections, fields and chapters
+     * @throws MediaInfoParseException if reading or parsing fails
+     * @see #parseData(String, MediaInfoHandler)
      */
-    private void parseKeyValueLine(String infoLine, Section section) {
-        int firstColon = infoLine.indexOf(':');
-        if (firstColon != -1) {
-            String key = infoLine.substring(0, firstColon).trim();
-            String value = infoLine.substring(firstColon + 1).trim();
-            section.addFieldValue(key, value);
-        } else {
-            System.err.printf("Warning: Invalid key-value pair: %s%n", infoLine);
+    public void parseReader(Reader reader, MediaInfoHandler handler) {
+        if (reader == null) {
+            throw new MediaInfoParseException(FAILED_TO_RETRIEVE_MEDIA_INFORMATION_DATA_IS_NULL);
+        }
+        validateHandler(handler);
+
+        read(reader, new TextReportParser(handler));
+    }
+
+    /**
+     * Parse a text report from a stream, incrementally. The stream is not closed.
+     *
+     * @param inputStream stream of the text report
+     * @param charset     charset of the text report
+     * @return parsed media information
+     * @throws MediaInfoParseException if reading or parsing fails
+     * @see #parseReader(Reader)
+     */
+    public MediaInfo parseStream(InputStream inputStream, Charset charset) {
+        return parseStream(inputStream, charset, FieldFilter.ALL);
+    }
+
+    /**
+     * Parse a text report from a stream, incrementally, keeping only the fields accepted by a filter.
+     * The stream is not closed.
+     *
+     * @param inputStream stream of the text report
+     * @param charset     charset of the text report
+     * @param filter      filter of the fields to keep
+     * @return parsed media information
+     * @throws MediaInfoParseException if reading or parsing fails
+     * @see FieldFilter
+     */
+    public MediaInfo parseStream(InputStream inputStream, Charset charset, FieldFilter filter) {
+        if (inputStream == null) {
+            throw new MediaInfoParseException(FAILED_TO_RETRIEVE_MEDIA_INFORMATION_DATA_IS_NULL);
         }
+
+        return parseChannel(Channels.newChannel(inputStream), charset, filter);
+    }
+
+    /**
+     * Parse a text report from a channel, incrementally. The channel is not closed.
+     *
+     * @param channel channel of the text report
+     * @param charset charset of the text report
+     * @return parsed media information
+     * @throws MediaInfoParseException if reading or parsing fails
+     * @see #parseReader(Reader)
+     */
+    public MediaInfo parseChannel(ReadableByteChannel channel, Charset charset) {
+        return parseChannel(channel, charset, FieldFilter.ALL);
     }
 
     /**
-     * Parse a media info line in the Menu section, handling timestamps and chapter names.
+     * Parse a text report from a channel, incrementally, keeping only the fields accepted by a filter.
+     * The channel is not closed.
      *
-     * @param infoLine the media info line to parse
-     * @param section  the Menu section to add data to
+     * @param channel channel of the text report
+     * @param charset charset of the text report
+     * @param filter  filter of the fields to keep
+     * @return parsed media information
+     * @throws MediaInfoParseException if reading or parsing fails
+     * @see FieldFilter
      */
-    private void parseMenuLine(String infoLine, Section section, int chapterNumber) {
-        if (TIMESTAMP_PATTERN.matcher(infoLine).matches()) {
-            String[] parts = infoLine.split("\\s+", 2);
-            if (parts.length == 2) {
-                String timestamp = parts[0].trim();
-                String chapterName = parts[1].trim();
-                // Store as a key-value pair with a unique key
-                section.addFieldValue("ChapterName %d".formatted(chapterNumber), chapterName);
-                section.addFieldValue("ChapterTimestamp %d".formatted(chapterNumber), timestamp);
-            } else {
-                System.err.printf("Warning: Invalid chapter infoLine: %s%n", infoLine);
+    public MediaInfo parseChannel(ReadableByteChannel channel, Charset charset, FieldFilter filter) {
+        if (channel == null) {
+            throw new MediaInfoParseException(FAILED_TO_RETRIEVE_MEDIA_INFORMATION_DATA_IS_NULL);
+        }
+        validateFilter(filter);
+
+        IncrementalReportParser parser = new IncrementalReportParser(charset, filter, valueInterner);
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        try {
+            while (channel.read(buffer) != -1) {
+                parser.feed(buffer.flip());
+                buffer.clear();
             }
-        } else {
-            parseKeyValueLine(infoLine, section);
+        } catch (IOException e) {
+            throw new MediaInfoParseException("Failed to parse data: %s".formatted(e.getMessage()), e);
         }
+
+        return parser.finish();
+    }
+
+    /**
+     * Parse a JSON report, as rendered by the MediaInfo library with {@code Output=JSON}, into MediaInfo.
+     * <p>
+     * The report is read in a single pass without building an intermediate JSON tree.
+     * Section names match the text report, e.g. "Audio #2", field names are the internal
+     * MediaInfo parameter names.
+     * </p>
+     *
+     * @param json JSON report to parse
+     * @return parsed media information
+     * @throws MediaInfoParseException if the report is not valid
+     */
+    public MediaInfo parseJson(String json) {
+        return parseJson(json, FieldFilter.ALL);
     }
 
-    private void checkDataValidity(WString data) {
+    /**
+     * Parse a JSON report into MediaInfo, keeping only the fields accepted by a filter.
+     *
+     * @param json   JSON report to parse
+     * @param filter filter of the fields to keep
+     * @return parsed media information
+     * @throws MediaInfoParseException if the report is not valid
+     * @see FieldFilter
+     */
+    public MediaInfo parseJson(String json, FieldFilter filter) {
+        validateFilter(filter);
+
+        return JsonReportParser.parse(json, filter, valueInterner);
+    }
+
+    /**
+     * Scan a text report into a view, without copying its names and values.
+     * <p>
+     * The view keeps the report and reads fields from it on demand, which is cheaper than
+     * {@link #parseData(String)} when only a few fields of a report are needed.
+     * </p>
+     *
+     * @param data text report, kept by the view and not to be changed afterwards
+     * @return the view
+     * @throws MediaInfoParseException if parsing fails
+     * @see MediaInfoView
+     */
+    public MediaInfoView parseView(CharSequence data) {
         if (data == null) {
             throw new MediaInfoParseException(FAILED_TO_RETRIEVE_MEDIA_INFORMATION_DATA_IS_NULL);
         }
         if (data.isEmpty()) {
             throw new MediaInfoParseException(NO_MEDIA_INFORMATION_FOUND_DATA_IS_EMPTY);
         }
+
+        return MediaInfoView.of(data);
+    }
+
+    /**
+     * Parse many text reports, one after the other, into a reused buffer.
+     *
+     * @param reports  text reports to parse
+     * @param consumer consumer of each parsed report
+     * @throws MediaInfoParseException if a report cannot be parsed, the remaining reports are skipped
+     * @see #parseBatch(Iterable, FieldFilter, Consumer)
+     */
+    public void parseBatch(Iterable<? extends CharSequence> reports, Consumer<MediaInfoBuffer> consumer) {
+        parseBatch(reports, FieldFilter.ALL, consumer);
+    }
+
+    /**
+     * Parse many text reports, one after the other, into a reused buffer, keeping only the
+     * fields accepted by a filter.
+     * <p>
+     * Each report is parsed into a {@link MediaInfoBuffer} that is reset for the next report,
+     * so the consumer must read what it needs before it returns and not keep the buffer; use
+     * {@link MediaInfoBuffer#toMediaInfo()} to keep a report. Buffers and report parsers are
+     * recycled across batches through a pool of the parser, so once they have grown to the
+     * size of the reports, parsing a batch allocates close to nothing. Batches may run
+     * concurrently on several threads.
+     * </p>
+     *
+     * @param reports  text reports to parse
+     * @param filter   filter of the fields to keep
+     * @param consumer consumer of each parsed report
+     * @throws MediaInfoParseException if a report cannot be parsed, the remaining reports are skipped
+     */
+    public void parseBatch(Iterable<? extends CharSequence> reports, FieldFilter filter, Consumer<MediaInfoBuffer> consumer) {
+        if (reports == null) {
+            throw new MediaInfoParseException(FAILED_TO_RETRIEVE_MEDIA_INFORMATION_DATA_IS_NULL);
+        }
+        validateFilter(filter);
+        if (consumer == null) {
+            throw new MediaInfoParseException("Consumer cannot be null");
+        }
+
+        BatchTarget target = acquireBatchTarget();
+        try {
+            target.buffer.setFilter(filter);
+            for (CharSequence report : reports) {
+                if (report == null) {
+                    throw new MediaInfoParseException(FAILED_TO_RETRIEVE_MEDIA_INFORMATION_DATA_IS_NULL);
+                }
+
+                target.buffer.reset();
+                target.parser.reset();
+                target.parser.parseReport(report);
+                consumer.accept(target.buffer);
+            }
+        } finally {
+            target.buffer.reset();
+            target.parser.reset();
+            releaseBatchTarget(target);
+        }
+    }
+
+    private BatchTarget acquireBatchTarget() {
+        BatchTarget target = idleBatchTargets.poll();
+        if (target == null) {
+            return new BatchTarget();
+        }
+
+        idleBatchTargetCount.decrementAndGet();
+        return target;
+    }
+
+    private void releaseBatchTarget(BatchTarget target) {
+        if (idleBatchTargetCount.incrementAndGet() <= MAX_IDLE_BATCH_TARGETS) {
+            idleBatchTargets.offer(target);
+        } else {
+            idleBatchTargetCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Buffer and report parser reused for the reports of a batch and pooled between batches.
+     */
+    private static final class BatchTarget {
+        private final MediaInfoBuffer buffer = new MediaInfoBuffer();
+        private final TextReportParser parser = new TextReportParser(buffer);
+    }
+
+    /**
+     * Provider of media data chunks for the buffer API.
+     */
+    @FunctionalInterface
+    private interface ChunkSource {
+        /**
+         * Get the chunk starting at the given offset.
+         *
+         * @param offset offset of the chunk in the media data
+         * @param buffer pooled direct buffer that may be filled and returned
+         * @return a direct buffer holding the chunk, or null at the end of the data
+         * @throws IOException if the chunk cannot be read
+         */
+        ByteBuffer read(long offset, ByteBuffer buffer) throws IOException;
+    }
+
+    /**
+     * Chunk source slicing a memory-mapped window of a file.
+     * <p>
+     * A new window is mapped only when the requested offset lies outside the current one.
+     * </p>
+     */
+    private static final class MappedChunkSource implements ChunkSource {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        private MappedChunkSource(FileChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+        }
+
+        @Override
+        public ByteBuffer read(long offset, ByteBuffer buffer) throws IOException {
+            if (offset >= size) {
+                return null;
+            }
+
+            if (window == null || offset < windowStart || offset >= windowStart + window.capacity()) {
+                windowStart = offset;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(MAPPED_WINDOW_SIZE, size - offset));
+            }
+
+            int position = (int) (offset - windowStart);
+            return window.slice(position, Math.min(MAPPED_CHUNK_SIZE, window.capacity() - position));
+        }
+    }
+
+    private static void read(Reader reader, TextReportParser parser) {
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        try {
+            int read;
+            while (!parser.isStopped() && (read = reader.read(buffer)) != -1) {
+                parser.feed(CharBuffer.wrap(buffer, 0, read));
+            }
+        } catch (IOException e) {
+            throw new MediaInfoParseException("Failed to parse data: %s".formatted(e.getMessage()), e);
+        }
+
+        parser.finish();
+    }
+
+    private void validateHandler(MediaInfoHandler handler) {
+        if (handler == null) {
+            throw new MediaInfoParseException("Handler cannot be null");
+        }
+    }
+
+    private void validateFilter(FieldFilter filter) {
+        if (filter == null) {
+            throw new MediaInfoParseException("Field filter cannot be null");
+        }
+    }
+
+    private MediaInfoHandlePool getHandlePool() {
+        return handlePool != null ? handlePool : MediaInfoHandlePool.getDefault();
     }
 
     private void checkDataValidity(String data) {
@@ -212,12 +885,5 @@ public final class MediaInfoParser {
         if (data.isEmpty()) {
             throw new MediaInfoParseException(NO_MEDIA_INFORMATION_FOUND_DATA_IS_EMPTY);
         }
-
-        for (SectionType sectionType : SectionType.values()) {
-            if (data.contains(sectionType.getName())) {
-                return;
-            }
-        }
-        throw new MediaInfoParseException("No media information found. Data does not contain any section headers");
     }
 }
\ No newline at end of file
@@ -0,0 +1,306 @@
+package de.oppa.mi4j;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * MediaInfoSession class to read media information lazily from an opened file.
+ * <p>
+ * A session keeps a pooled native handle open and fetches each field on first access with
+ * {@code MediaInfo_Get}, caching the answer. Nothing is rendered or parsed up front, which
+ * makes it cheap when only a few fields are needed. Sections are named like in the parsed
+ * report, e.g. "General", "Audio" or "Audio #2".
+ * <p>
+ * Field names are the internal MediaInfo parameter names, e.g. {@code "Duration"} or
+ * {@code "CompleteName"}. A session is not thread-safe and must be closed to return the
+ * handle to the pool.
+ * </p>
+ */
+public final class MediaInfoSession implements AutoCloseable {
+    private static final String MISSING = new String("");
+
+    private final MediaInfoBackend backend;
+    private final MediaInfoHandlePool.Lease lease;
+    private final long handle;
+    private final int[] streamCounts = new int[SectionType.values().length];
+    private final Map<SectionType, Map<String, LazySection>> typeToNameToSection = new LinkedHashMap<>();
+    private boolean closed;
+
+    MediaInfoSession(MediaInfoBackend backend, MediaInfoHandlePool.Lease lease) {
+        this.backend = backend;
+        this.lease = lease;
+        this.handle = lease.getHandle();
+        Arrays.fill(streamCounts, -1);
+    }
+
+    /**
+     * Get all sections of a specific type.
+     *
+     * @param type section type
+     * @return unmodifiable map of sections for the type, by section name
+     */
+    public Map<String, LazySection> getSections(SectionType type) {
+        validateSectionType(type);
+        checkNotClosed();
+
+        return Collections.unmodifiableMap(sectionsOf(type));
+    }
+
+    /**
+     * Get the section for a specific type and name.
+     *
+     * @param type        section type
+     * @param sectionName section name
+     * @return the section, or null if not found
+     */
+    public LazySection getSection(SectionType type, String sectionName) {
+        validateSectionType(type);
+        validateSectionName(sectionName);
+        checkNotClosed();
+
+        return sectionsOf(type).get(sectionName);
+    }
+
+    /**
+     * Get the section for a specific name across all types.
+     *
+     * @param sectionName section name
+     * @return the section, or null if not found
+     */
+    public LazySection getSection(String sectionName) {
+        validateSectionName(sectionName);
+
+        return getSection(SectionType.fromName(sectionName), sectionName);
+    }
+
+    /**
+     * Get the section of a stream.
+     *
+     * @param type         section type
+     * @param streamNumber stream number, starting at 0
+     * @return the section, or null if there is no such stream
+     */
+    public LazySection getSection(SectionType type, int streamNumber) {
+        validateSectionType(type);
+        checkNotClosed();
+
+        if (streamNumber < 0 || streamNumber >= getStreamCount(type)) {
+            return null;
+        }
+
+        return sectionsOf(type).values().stream().skip(streamNumber).findFirst().orElse(null);
+    }
+
+    /**
+     * Check if a section with the given name exists.
+     *
+     * @param sectionName section name
+     * @return true if the section exists, false otherwise
+     */
+    public boolean hasSection(String sectionName) {
+        return getSection(sectionName) != null;
+    }
+
+    /**
+     * Check if a section of the given type exists.
+     *
+     * @param type section type
+     * @return true if the section exists, false otherwise
+     */
+    public boolean hasSection(SectionType type) {
+        validateSectionType(type);
+        checkNotClosed();
+
+        return getStreamCount(type) > 0;
+    }
+
+    /**
+     * Check if a field exists in the section of the given type and name.
+     *
+     * @param type        section type
+     * @param sectionName section name
+     * @param fieldName   field name
+     * @return true if the field exists, false otherwise
+     */
+    public boolean hasField(SectionType type, String sectionName, String fieldName) {
+        LazySection section = getSection(type, sectionName);
+        return section != null && section.hasField(fieldName);
+    }
+
+    /**
+     * Get the value of a field of the first stream of a type.
+     *
+     * @param type      section type
+     * @param fieldName field name
+     * @return the value, or null if not found
+     */
+    public String getFieldValue(SectionType type, String fieldName) {
+        LazySection section = getSection(type, 0);
+        return section == null ? null : section.getFieldValue(fieldName);
+    }
+
+    /**
+     * Get the number of streams of a type.
+     *
+     * @param type section type
+     * @return the number of streams
+     */
+    public int getStreamCount(SectionType type) {
+        validateSectionType(type);
+        checkNotClosed();
+
+        int ordinal = type.ordinal();
+        if (streamCounts[ordinal] < 0) {
+            streamCounts[ordinal] = backend.countGet(handle, type.getStreamKind(), -1);
+        }
+
+        return streamCounts[ordinal];
+    }
+
+    /**
+     * Close the session and return the native handle to the pool.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            lease.close();
+        }
+    }
+
+    private Map<String, LazySection> sectionsOf(SectionType type) {
+        Map<String, LazySection> sections = typeToNameToSection.get(type);
+        if (sections == null) {
+            int count = getStreamCount(type);
+            sections = new LinkedHashMap<>();
+            for (int streamNumber = 0; streamNumber < count; streamNumber++) {
+                String name = count == 1 ? type.getName() : "%s #%d".formatted(type.getName(), streamNumber + 1);
+                sections.put(name, new LazySection(type, streamNumber, name));
+            }
+            typeToNameToSection.put(type, sections);
+        }
+
+        return sections;
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new MediaInfoException("MediaInfo session is closed");
+        }
+    }
+
+    private void validateSectionType(SectionType type) {
+        if (type == null) {
+            throw new MediaInfoException("Section type cannot be null");
+        }
+    }
+
+    private void validateSectionName(String sectionName) {
+        if (sectionName == null || sectionName.isEmpty()) {
+            throw new MediaInfoException("Section name cannot be null or empty");
+        }
+    }
+
+    /**
+     * Section of a session, fetching and caching its fields on demand.
+     */
+    public final class LazySection {
+        private final SectionType type;
+        private final int streamNumber;
+        private final String name;
+        private final Map<String, String> fieldToValue = new HashMap<>();
+
+        private LazySection(SectionType type, int streamNumber, String name) {
+            this.type = type;
+            this.streamNumber = streamNumber;
+            this.name = name;
+        }
+
+        /**
+         * Get the value for a specific field.
+         *
+         * @param fieldName the internal MediaInfo parameter name
+         * @return the value, or null if not found
+         */
+        public String getFieldValue(String fieldName) {
+            if (fieldName == null || fieldName.isEmpty()) {
+                throw new MediaInfoException("Field name cannot be null or empty");
+            }
+
+            String value = fieldToValue.get(fieldName);
+            if (value == null) {
+                checkNotClosed();
+
+                value = backend.get(handle, type.getStreamKind(), streamNumber, fieldName, MediaInfoBackend.INFO_TEXT);
+                if (value == null || value.isEmpty()) {
+                    value = MISSING;
+                }
+                fieldToValue.put(fieldName, value);
+            }
+
+            return value == MISSING ? null : value;
+        }
+
+        /**
+         * Check if the section has a value for a specific field.
+         *
+         * @param fieldName the internal MediaInfo parameter name
+         * @return true if the field has a value, false otherwise
+         */
+        public boolean hasField(String fieldName) {
+            return getFieldValue(fieldName) != null;
+        }
+
+        /**
+         * Get the type of this section.
+         *
+         * @return the section type
+         */
+        public SectionType getType() {
+            return type;
+        }
+
+        /**
+         * Get the stream number of this section.
+         *
+         * @return the stream number, starting at 0
+         */
+        public int getStreamNumber() {
+            return streamNumber;
+        }
+
+        /**
+         * Get the name of this section.
+         *
+         * @return the section name
+         */
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return "%s[name=%s, fieldToValue=%s]".formatted(getClass().getSimpleName(), name, fieldToValue);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package de.oppa.mi4j;
+
+import java.util.Arrays;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Read-only view of a text report that keeps the report and an offset table instead of strings.
+ * <p>
+ * The report is scanned once; for every field the offsets of its name and value in the
+ * report are recorded in an int array, together with the hash of the name. Values are
+ * returned as {@link CharSequence} slices of the report and only copied into a string when
+ * {@code toString()} is called, so reading a few fields of a large report costs little more
+ * than the scan. The retained memory is the report itself plus five ints per field.
+ * <p>
+ * Sections are addressed by index in report order. Typed values follow
+ * {@link Section#getDouble(Field)}: the first raw value of a field is preferred. Because the
+ * report is kept, a view must not be created over a character sequence that changes later.
+ * A view is immutable and can be shared between threads.
+ * </p>
+ *
+ * @see MediaInfoParser#parseView(CharSequence)
+ */
+public final class MediaInfoView {
+    private static final SectionType[] SECTION_TYPES = SectionType.values();
+
+    // Section entries: type ordinal, first field, end of fields, first chapter, end of chapters
+    private static final int SECTION_STRIDE = 5;
+    // Field entries: name hash, name start, name end, value start, value end
+    private static final int FIELD_STRIDE = 5;
+    // Chapter entries: title start, title end
+    private static final int CHAPTER_STRIDE = 2;
+
+    private final CharSequence report;
+    private final String[] sectionNames;
+    private final int[] sections;
+    private final int[] fields;
+    private final long[] chapterStarts;
+    private final int[] chapters;
+
+    private MediaInfoView(CharSequence report, Scanner scanner) {
+        this.report = report;
+        this.sectionNames = Arrays.copyOf(scanner.sectionNames, scanner.sectionCount);
+        this.sections = Arrays.copyOf(scanner.sections, scanner.sectionCount * SECTION_STRIDE);
+        this.fields = Arrays.copyOf(scanner.fields, scanner.fieldCount * FIELD_STRIDE);
+        this.chapterStarts = Arrays.copyOf(scanner.chapterStarts, scanner.chapterCount);
+        this.chapters = Arrays.copyOf(scanner.chapters, scanner.chapterCount * CHAPTER_STRIDE);
+    }
+
+    /**
+     * Scan a text report into a view.
+     *
+     * @param report the text report, kept by the view
+     * @return the view
+     * @throws MediaInfoParseException if the report does not contain any section header
+     */
+    static MediaInfoView of(CharSequence report) {
+        Scanner scanner = new Scanner();
+        new TextReportParser(scanner).parseReport(report);
+
+        return new MediaInfoView(report, scanner);
+    }
+
+    /**
+     * Get the number of sections.
+     *
+     * @return the number of sections
+     */
+    public int getSectionCount() {
+        return sectionNames.length;
+    }
+
+    /**
+     * Get the type of a section.
+     *
+     * @param section section index
+     * @return the section type
+     */
+    public SectionType getSectionType(int section) {
+        return SECTION_TYPES[sections[checkSection(section) * SECTION_STRIDE]];
+    }
+
+    /**
+     * Get the name of a section.
+     *
+     * @param section section index
+     * @return the section name, e.g. "Audio #2"
+     */
+    public String getSectionName(int section) {
+        return sectionNames[checkSection(section)];
+    }
+
+    /**
+     * Get the index of a section by name.
+     *
+     * @param sectionName section name, e.g. "Audio #2"
+     * @return the index of the first section with the name, or -1 if not found
+     */
+    public int indexOf(String sectionName) {
+        if (sectionName == null || sectionName.isEmpty()) {
+            throw new MediaInfoException("Section name cannot be null or empty");
+        }
+
+        for (int section = 0; section < sectionNames.length; section++) {
+            if (sectionNames[section].equals(sectionName)) {
+                return section;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the index of the first section of a type.
+     *
+     * @param type section type
+     * @return the section index, or -1 if there is no section of the type
+     */
+    public int indexOf(SectionType type) {
+        if (type == null) {
+            throw new MediaInfoException("Section type cannot be null");
+        }
+
+        for (int section = 0; section < sectionNames.length; section++) {
+            if (sections[section * SECTION_STRIDE] == type.ordinal()) {
+                return section;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Get the value of a field of a section as a slice of the report.
+     *
+     * @param section   section index
+     * @param fieldName field name
+     * @return the value, or null if not found
+     */
+    public CharSequence getField(int section, String fieldName) {
+        int field = findLast(checkSection(section), validateFieldName(fieldName));
+        return field < 0 ? null : valueOf(field);
+    }
+
+    /**
+     * Get the value of a field of a section.
+     *
+     * @param section   section index
+     * @param fieldName field name
+     * @return the value, or null if not found
+     */
+    public String getFieldValue(int section, String fieldName) {
+        CharSequence value = getField(section, fieldName);
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Check if a section has a field.
+     *
+     * @param section   section index
+     * @param fieldName field name
+     * @return true if the field exists, false otherwise
+     */
+    public boolean hasField(int section, String fieldName) {
+        return findLast(checkSection(section), validateFieldName(fieldName)) >= 0;
+    }
+
+    /**
+     * Get the numeric value of a typed field of a section.
+     *
+     * @param section section index
+     * @param field   the typed field
+     * @return the value in base units, or NaN if the field is missing or not numeric
+     * @see Section#getDouble(Field)
+     */
+    public double getDouble(int section, Field field) {
+        checkSection(section);
+        if (field == null) {
+            throw new MediaInfoException("Field cannot be null");
+        }
+
+        int offset = section * SECTION_STRIDE;
+        int hash = field.getName().hashCode();
+        for (int index = sections[offset + 1]; index < sections[offset + 2]; index++) {
+            if (nameEquals(index, hash, field.getName())) {
+                double number = Field.parseRaw(valueOf(index));
+                if (!Double.isNaN(number)) {
+                    return number;
+                }
+            }
+        }
+
+        int index = findLast(section, field.getName());
+        if (index < 0) {
+            index = findLast(section, field.getParameterName());
+        }
+
+        return index < 0 ? Double.NaN : field.parseText(valueOf(index).toString());
+    }
+
+    /**
+     * Get the numeric value of a typed field of a section, rounded to a long.
+     *
+     * @param section section index
+     * @param field   the typed field
+     * @return the value in base units, or -1 if the field is missing or not numeric
+     * @see #getDouble(int, Field)
+     */
+    public long getLong(int section, Field field) {
+        double number = getDouble(section, field);
+        return Double.isNaN(number) ? -1 : Math.round(number);
+    }
+
+    /**
+     * Get the numeric value of a typed field of a section, rounded to an int.
+     *
+     * @param section section index
+     * @param field   the typed field
+     * @return the value in base units, or -1 if the field is missing or not numeric
+     * @throws MediaInfoException if the value does not fit in an int, e.g. a file size above 2 GiB
+     * @see #getDouble(int, Field)
+     */
+    public int getInt(int section, Field field) {
+        return field.toInt(getLong(section, field));
+    }
+
+    /**
+     * Get the chapters of a section.
+     *
+     * @param section section index
+     * @return the chapters, empty if the section has none
+     */
+    public Chapters getChapters(int section) {
+        int offset = checkSection(section) * SECTION_STRIDE;
+        Chapters.Collector collector = new Chapters.Collector();
+        for (int chapter = sections[offset + 3]; chapter < sections[offset + 4]; chapter++) {
+            int chapterOffset = chapter * CHAPTER_STRIDE;
+            collector.add(chapterStarts[chapter], new Slice(report, chapters[chapterOffset], chapters[chapterOffset + 1]));
+        }
+
+        return collector.toChapters();
+    }
+
+    /**
+     * Build a frozen media information snapshot of the report.
+     *
+     * @return parsed media information
+     */
+    public MediaInfo toMediaInfo() {
+        MediaInfoBuilder builder = new MediaInfoBuilder();
+        new TextReportParser(builder).parseReport(report);
+
+        return builder.build();
+    }
+
+    /**
+     * Find the last value of a field in a section, as later values replace earlier ones.
+     *
+     * @return the field index, or -1 if not found
+     */
+    private int findLast(int section, String fieldName) {
+        int offset = section * SECTION_STRIDE;
+        int hash = fieldName.hashCode();
+        for (int index = sections[offset + 2] - 1; index >= sections[offset + 1]; index--) {
+            if (nameEquals(index, hash, fieldName)) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean nameEquals(int index, int hash, String fieldName) {
+        int offset = index * FIELD_STRIDE;
+        if (fields[offset] != hash || fields[offset + 2] - fields[offset + 1] != fieldName.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < fieldName.length(); i++) {
+            if (report.charAt(fields[offset + 1] + i) != fieldName.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private CharSequence valueOf(int index) {
+        int offset = index * FIELD_STRIDE;
+        return new Slice(report, fields[offset + 3], fields[offset + 4]);
+    }
+
+    private int checkSection(int section) {
+        if (section < 0 || section >= sectionNames.length) {
+            throw new MediaInfoException("Section index out of range: %d, sections: %d".formatted(section, sectionNames.length));
+        }
+
+        return section;
+    }
+
+    private static String validateFieldName(String fieldName) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            throw new MediaInfoException("Field name cannot be null or empty");
+        }
+
+        return fieldName;
+    }
+
+    @Override
+    public String toString() {
+        return "%s[sections=%d, fields=%d, chapters=%d]".formatted(getClass().getSimpleName(), sectionNames.length, fields.length / FIELD_STRIDE, chapterStarts.length);
+    }
+
+    /**
+     * Handler recording the offsets of the report content while it is scanned.
+     */
+    private static final class Scanner implements MediaInfoHandler {
+        private String[] sectionNames = new String[8];
+        private int[] sections = new int[8 * SECTION_STRIDE];
+        private int sectionCount;
+        private int[] fields = new int[512 * FIELD_STRIDE];
+        private int fieldCount;
+        private long[] chapterStarts = new long[16];
+        private int[] chapters = new int[16 * CHAPTER_STRIDE];
+        private int chapterCount;
+
+        @Override
+        public void onSectionStart(SectionType type, String name) {
+            if (sectionCount == sectionNames.length) {
+                sectionNames = Arrays.copyOf(sectionNames, sectionCount * 2);
+                sections = Arrays.copyOf(sections, sections.length * 2);
+            }
+
+            int offset = sectionCount * SECTION_STRIDE;
+            sectionNames[sectionCount++] = name;
+            sections[offset] = type.ordinal();
+            sections[offset + 1] = fieldCount;
+            sections[offset + 2] = fieldCount;
+            sections[offset + 3] = chapterCount;
+            sections[offset + 4] = chapterCount;
+        }
+
+        @Override
+        public void onField(CharSequence key, CharSequence value) {
+            if (fieldCount * FIELD_STRIDE == fields.length) {
+                fields = Arrays.copyOf(fields, fields.length * 2);
+            }
+
+            int offset = fieldCount++ * FIELD_STRIDE;
+            int hash = 0;
+            for (int i = 0; i < key.length(); i++) {
+                hash = 31 * hash + key.charAt(i);
+            }
+            int keyStart = TextReportParser.offsetOf(key);
+            int valueStart = TextReportParser.offsetOf(value);
+            fields[offset] = hash;
+            fields[offset + 1] = keyStart;
+            fields[offset + 2] = keyStart + key.length();
+            fields[offset + 3] = valueStart;
+            fields[offset + 4] = valueStart + value.length();
+            sections[(sectionCount - 1) * SECTION_STRIDE + 2] = fieldCount;
+        }
+
+        @Override
+        public void onChapter(long startMillis, CharSequence title) {
+            if (chapterCount == chapterStarts.length) {
+                chapterStarts = Arrays.copyOf(chapterStarts, chapterCount * 2);
+                chapters = Arrays.copyOf(chapters, chapters.length * 2);
+            }
+
+            int titleStart = TextReportParser.offsetOf(title);
+            chapterStarts[chapterCount] = startMillis;
+            chapters[chapterCount * CHAPTER_STRIDE] = titleStart;
+            chapters[chapterCount * CHAPTER_STRIDE + 1] = titleStart + title.length();
+            chapterCount++;
+            sections[(sectionCount - 1) * SECTION_STRIDE + 4] = chapterCount;
+        }
+    }
+
+    /**
+     * Slice of the report, copied into a string only by {@link #toString()}.
+     */
+    private static final class Slice implements CharSequence {
+        private final CharSequence text;
+        private final int start;
+        private final int end;
+
+        private Slice(CharSequence text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return text.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) {
+                throw new IndexOutOfBoundsException("start %d, end %d, length %d".formatted(start, end, length()));
+            }
+
+            return new Slice(text, this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            return text.subSequence(start, end).toString();
+        }
+    }
+}
@@ -1,51 +1,389 @@
 package de.oppa.mi4j;
 
+import com.sun.jna.Native;
+
+import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Extracts the bundled MediaInfo native library and binds it exactly once per process.
+ * <p>
+ * By default the library is extracted into a fresh temporary directory. Setting the
+ * {@value #CACHE_DIR_PROPERTY} system property switches to a persistent cache directory,
+ * where the library is stored under a directory named after its SHA-256 hash. The hashes are
+ * computed at build time into the {@value #HASHES_RESOURCE} resource, so a warm restart only
+ * verifies the cached copy instead of reading the library from the jar.
+ * </p>
+ */
+final class NativeLibraryLoader {
+    /**
+     * System property pointing to a persistent directory for the extracted native library.
+     */
+    static final String CACHE_DIR_PROPERTY = "mi4j.native.cacheDir";
+
+    /**
+     * Resource listing the SHA-256 hashes of the bundled libraries, in {@code sha256sum} format.
+     */
+    static final String HASHES_RESOURCE = "native-libraries.sha256";
+
+    private static final String TEMP_DIR_PREFIX = "mediainfo";
+    private static final String LOCK_FILE_NAME = ".lock";
+    private static final String PENDING_LOCK_FILE_SUFFIX = ".tmp";
+
+    /**
+     * Age after which an extraction directory without a lock file is considered leaked.
+     * <p>
+     * Versions before the lock file did not mark live directories, so their directories are
+     * only removed once no process can reasonably still be using them.
+     * </p>
+     */
+    static final Duration UNLOCKED_DIRECTORY_AGE = Duration.ofDays(7);
+
+    /**
+     * Lock held on the temporary extraction directory for the lifetime of the process.
+     * <p>
+     * Other processes use it to tell live extraction directories from leaked ones.
+     * </p>
+     */
+    @SuppressWarnings("unused")
+    private static FileLock extractionLock;
+
+    private static volatile Path libraryPath;
+    private static volatile MediaInfoLib mediaInfoLib;
+
+    private NativeLibraryLoader() {
+        // Utility class
+    }
+
+    /**
+     * Get the process-wide MediaInfo library binding.
+     * <p>
+     * The native library is extracted and loaded on first use only, guarded by a
+     * double-checked lock. Subsequent calls return the same instance without touching
+     * the file system. A failed initialization is retried on the next call.
+     * </p>
+     *
+     * @return the shared MediaInfoLib instance
+     */
+    static MediaInfoLib getMediaInfoLib() {
+        MediaInfoLib result = mediaInfoLib;
+        if (result == null) {
+            synchronized (NativeLibraryLoader.class) {
+                result = mediaInfoLib;
+                if (result == null) {
+                    result = Native.load(getLibraryPath().toString(), MediaInfoLib.class);
+                    if (result == null) {
+                        throw new IllegalStateException("Failed to load MediaInfo library");
+                    }
+                    mediaInfoLib = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Get the path of the extracted native library.
+     *
+     * @return path to the native library on disk
+     */
+    static Path getLibraryPath() {
+        Path result = libraryPath;
+        if (result == null) {
+            synchronized (NativeLibraryLoader.class) {
+                result = libraryPath;
+                if (result == null) {
+                    try {
+                        result = loadMediaInfoLibrary();
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to load MediaInfo library", e);
+                    }
+                    libraryPath = result;
+                }
+            }
+        }
 
-class NativeLibraryLoader {
-    static void loadMediaInfoLibrary() throws IOException {
+        return result;
+    }
+
+    /**
+     * Get the platform specific name of the bundled native library.
+     *
+     * @return the resource name of the native library
+     */
+    static String getLibraryFileName() {
         String os = System.getProperty("os.name").toLowerCase();
         String arch = System.getProperty("os.arch").toLowerCase();
 
-        String libName;
         if (os.contains("win")) {
-            libName = arch.contains("64") ? "MediaInfo.dll" : "MediaInfo32.dll";
+            return arch.contains("64") ? "MediaInfo.dll" : "MediaInfo32.dll";
         } else if (os.contains("mac")) {
-            libName = "libmediainfo.dylib";
+            return "libmediainfo.dylib";
         } else if (os.contains("nux") || os.contains("nix")) {
-            libName = "libmediainfo.so";
-        } else {
-            throw new UnsupportedOperationException("Unsupported OS: " + os);
+            return "libmediainfo.so";
         }
 
-        Path tempDir;
+        throw new UnsupportedOperationException("Unsupported OS: " + os);
+    }
+
+    /**
+     * Extract the bundled native library and point JNA at it.
+     *
+     * @return path to the extracted native library
+     * @throws IOException if the library cannot be extracted
+     */
+    static Path loadMediaInfoLibrary() throws IOException {
+        String libName = getLibraryFileName();
+
         Path libPath;
+        try (InputStream library = openLibraryResource(libName)) {
+            String cacheDir = System.getProperty(CACHE_DIR_PROPERTY);
+            libPath = cacheDir == null || cacheDir.isBlank()
+                ? extractToTempDirectory(libName, library)
+                : extractToCacheDirectory(Paths.get(cacheDir), libName, readLibraryHash(libName), library);
+        }
 
-        try (InputStream in = NativeLibraryLoader.class.getResourceAsStream("/%s".formatted(libName))) {
-            if (in == null) {
-                throw new FileNotFoundException("Native library not found in resources: " + libName);
-            }
+        System.setProperty("jna.library.path", libPath.getParent().toString());
 
-            tempDir = Files.createTempDirectory("mediainfo");
-            tempDir.toFile().deleteOnExit();
-            libPath = tempDir.resolve(libName);
+        return libPath;
+    }
+
+    private static InputStream openLibraryResource(String libName) throws IOException {
+        InputStream in = NativeLibraryLoader.class.getResourceAsStream("/%s".formatted(libName));
+        if (in == null) {
+            throw new FileNotFoundException("Native library not found in resources: " + libName);
+        }
 
-            try (OutputStream out = Files.newOutputStream(libPath)) {
-                byte[] buffer = new byte[4096];
-                int read;
-                while ((read = in.read(buffer)) != -1) {
-                    out.write(buffer, 0, read);
+        return in;
+    }
+
+    /**
+     * Get the build time hash of a bundled library.
+     *
+     * @throws IOException if the hash resource is missing or does not list the library
+     */
+    private static String readLibraryHash(String libName) throws IOException {
+        InputStream in = NativeLibraryLoader.class.getResourceAsStream(HASHES_RESOURCE);
+        if (in == null) {
+            throw new FileNotFoundException("Native library hashes not found in resources: " + HASHES_RESOURCE);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // sha256sum format: hash, two separator characters, file name
+                int separator = line.indexOf(' ');
+                if (separator > 0 && line.substring(separator + 2).equals(libName)) {
+                    return line.substring(0, separator);
                 }
             }
         }
 
+        throw new IOException("No hash for native library %s in %s".formatted(libName, HASHES_RESOURCE));
+    }
+
+    /**
+     * Extract the library into a new temporary directory.
+     * <p>
+     * Directories leaked by earlier processes, e.g. because Windows keeps loaded DLLs locked
+     * until exit, are removed first. The lock file is created and locked under a temporary
+     * name and only then moved into place, so a concurrent cleanup never sees an unlocked
+     * lock file in a live directory.
+     * </p>
+     */
+    private static Path extractToTempDirectory(String libName, InputStream library) throws IOException {
+        Path tmpRoot = Paths.get(System.getProperty("java.io.tmpdir"));
+        cleanUpLeakedTempDirectories(tmpRoot);
+
+        Path tempDir = Files.createTempDirectory(tmpRoot, TEMP_DIR_PREFIX);
+        tempDir.toFile().deleteOnExit();
+
+        Path lockFile = tempDir.resolve(LOCK_FILE_NAME);
+        Path pendingLockFile = Files.createTempFile(tempDir, LOCK_FILE_NAME, PENDING_LOCK_FILE_SUFFIX);
+        FileChannel lockChannel = FileChannel.open(pendingLockFile, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = lockChannel.tryLock();
+            if (lock == null) {
+                throw new IOException("Failed to lock extraction directory: " + tempDir);
+            }
+            Files.move(pendingLockFile, lockFile, StandardCopyOption.ATOMIC_MOVE);
+            extractionLock = lock;
+        } catch (IOException | RuntimeException e) {
+            lockChannel.close();
+            deleteRecursively(tempDir);
+            throw e;
+        }
+        lockFile.toFile().deleteOnExit();
+
+        Path libPath = tempDir.resolve(libName);
+        Files.copy(library, libPath);
         libPath.toFile().deleteOnExit();
 
-        System.setProperty("jna.library.path", tempDir.toString());
+        return libPath;
+    }
+
+    /**
+     * Extract the library into a persistent cache directory, unless a copy matching its hash already exists.
+     *
+     * @param cacheDir the cache directory
+     * @param libName  the file name of the library
+     * @param sha256   the expected SHA-256 hash of the library, hex encoded
+     * @param library  the library content, only read if there is no valid cached copy
+     * @return path to the cached library
+     * @throws IOException if the library cannot be extracted or does not match its hash
+     */
+    static Path extractToCacheDirectory(Path cacheDir, String libName, String sha256, InputStream library) throws IOException {
+        Path versionDir = cacheDir.resolve(sha256.substring(0, 16));
+        Path libPath = versionDir.resolve(libName);
+
+        if (Files.isRegularFile(libPath) && sha256.equalsIgnoreCase(sha256(libPath))) {
+            return libPath;
+        }
+
+        Files.createDirectories(versionDir);
+        Path partial = Files.createTempFile(versionDir, libName, ".part");
+        try {
+            MessageDigest digest = newSha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(partial), digest)) {
+                library.transferTo(out);
+            }
+            if (!sha256.equalsIgnoreCase(HexFormat.of().formatHex(digest.digest()))) {
+                throw new IOException("Native library does not match its hash: " + libName);
+            }
+            Files.move(partial, libPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // Another process may have won the race and holds the file open
+            if (!Files.isRegularFile(libPath) || !sha256.equalsIgnoreCase(sha256(libPath))) {
+                throw e;
+            }
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+
+        return libPath;
+    }
+
+    /**
+     * Remove extraction directories of processes that are no longer running.
+     * <p>
+     * A directory is considered leaked if nobody holds the lock on its lock file. Directories
+     * without a lock file, left by older versions or by a process that died while creating it,
+     * are only removed after {@link #UNLOCKED_DIRECTORY_AGE} and if they hold nothing but the
+     * library and pending lock files. Failures are ignored, the cleanup is best effort only.
+     * </p>
+     */
+    static void cleanUpLeakedTempDirectories(Path tmpRoot) {
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(tmpRoot, TEMP_DIR_PREFIX + "*")) {
+            for (Path dir : dirs) {
+                if (Files.isDirectory(dir) && isLeaked(dir)) {
+                    deleteRecursively(dir);
+                }
+            }
+        } catch (IOException | SecurityException e) {
+            // Best effort cleanup
+        }
+    }
+
+    private static boolean isLeaked(Path dir) {
+        Path lockFile = dir.resolve(LOCK_FILE_NAME);
+        if (!Files.exists(lockFile)) {
+            return isUnlockedAndStale(dir);
+        }
+
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.WRITE);
+             FileLock lock = channel.tryLock()) {
+            return lock != null;
+        } catch (IOException | OverlappingFileLockException e) {
+            return false;
+        }
+    }
+
+    private static boolean isUnlockedAndStale(Path dir) {
+        String libName = getLibraryFileName();
+        try (Stream<Path> files = Files.list(dir)) {
+            if (Files.getLastModifiedTime(dir).toInstant().isAfter(Instant.now().minus(UNLOCKED_DIRECTORY_AGE))) {
+                return false;
+            }
+
+            return files.map(file -> file.getFileName().toString()).allMatch(name -> name.equals(libName)
+                || name.startsWith(LOCK_FILE_NAME) && name.endsWith(PENDING_LOCK_FILE_SUFFIX));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    // Still in use, leave it for the next run
+                }
+            });
+        } catch (IOException e) {
+            // Best effort cleanup
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,240 @@
+package de.oppa.mi4j;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Parse profile controlling how much of a file the MediaInfo library reads and reports.
+ * <p>
+ * A profile is a set of native options, applied to a pooled handle before a file is opened.
+ * The handle remembers its options, so applying {@link #STANDARD}, which matches the pool
+ * defaults, costs no native calls. The presets differ in {@code ParseSpeed}, which decides how
+ * much of the file is read, and {@code Complete}, which decides how much text is rendered:
+ * </p>
+ * <ul>
+ *     <li>{@link #QUICK}: {@code ParseSpeed=0}, {@code Complete=0}</li>
+ *     <li>{@link #STANDARD}: {@code ParseSpeed=0.5}, {@code Complete=1}, the default of the parser</li>
+ *     <li>{@link #EXHAUSTIVE}: {@code ParseSpeed=1}, {@code Complete=1}</li>
+ * </ul>
+ * <p>
+ * Custom profiles are derived with {@link #withOption(String, String)}. A profile can require
+ * fields and name a deeper profile to escalate to when a required field is missing, e.g.
+ * {@code ParseProfile.QUICK.requires(SectionType.GENERAL, "Duration").escalateTo(ParseProfile.STANDARD)}.
+ * Options only apply to the parse they are set for: a profile sets {@code Inform},
+ * {@code Complete} and {@code ParseSpeed} to the pool defaults unless it changes them, so a
+ * repeated profile costs no native calls. A handle given any other option cannot be reset and
+ * is replaced by a new one, so such options cost a handle per parse.
+ * </p>
+ */
+public final class ParseProfile {
+    static final String OPTION_PARSE_SPEED = "ParseSpeed";
+    static final String OPTION_COMPLETE = "Complete";
+
+    /**
+     * Reads as little of the file as possible and renders the short report.
+     */
+    public static final ParseProfile QUICK = new ParseProfile("quick", Map.of(OPTION_PARSE_SPEED, "0", OPTION_COMPLETE, "0"));
+
+    /**
+     * The default of the library and the parser, renders the complete report.
+     */
+    public static final ParseProfile STANDARD = new ParseProfile("standard", Map.of(OPTION_PARSE_SPEED, "0.5", OPTION_COMPLETE, "1"));
+
+    /**
+     * Reads the whole file and renders the complete report.
+     */
+    public static final ParseProfile EXHAUSTIVE = new ParseProfile("exhaustive", Map.of(OPTION_PARSE_SPEED, "1", OPTION_COMPLETE, "1"));
+
+    private final String name;
+    private final Map<String, String> options;
+    private final Map<SectionType, Set<String>> requiredFields;
+    private final ParseProfile escalation;
+
+    /**
+     * Create a custom profile.
+     *
+     * @param name    name of the profile
+     * @param options native options to apply, e.g. {@code ParseSpeed}
+     */
+    public ParseProfile(String name, Map<String, String> options) {
+        this(name, validateOptions(options), Map.of(), null);
+    }
+
+    private ParseProfile(String name, Map<String, String> options, Map<SectionType, Set<String>> requiredFields,
+                         ParseProfile escalation) {
+        if (name == null || name.isEmpty()) {
+            throw new MediaInfoException("Profile name cannot be null or empty");
+        }
+
+        this.name = name;
+        this.options = Collections.unmodifiableMap(new LinkedHashMap<>(options));
+        this.requiredFields = requiredFields;
+        this.escalation = escalation;
+    }
+
+    /**
+     * Derive a profile with an additional or changed native option.
+     *
+     * @param parameter the option name
+     * @param value     the option value
+     * @return the derived profile
+     */
+    public ParseProfile withOption(String parameter, String value) {
+        Map<String, String> derived = new LinkedHashMap<>(options);
+        derived.put(parameter, value);
+
+        return new ParseProfile(name, validateOptions(derived), requiredFields, escalation);
+    }
+
+    /**
+     * Derive a profile requiring fields of a section type.
+     * <p>
+     * A field counts as present if any section of the type has it.
+     * </p>
+     *
+     * @param type       section type
+     * @param fieldNames names of the required fields as they appear in the report
+     * @return the derived profile
+     */
+    public ParseProfile requires(SectionType type, String... fieldNames) {
+        if (type == null) {
+            throw new MediaInfoException("Section type cannot be null");
+        }
+        if (fieldNames == null || fieldNames.length == 0 || Arrays.stream(fieldNames).anyMatch(f -> f == null || f.isEmpty())) {
+            throw new MediaInfoException("Field names cannot be null or empty");
+        }
+
+        Map<SectionType, Set<String>> derived = new EnumMap<>(SectionType.class);
+        derived.putAll(requiredFields);
+        Set<String> fields = new LinkedHashSet<>(derived.getOrDefault(type, Set.of()));
+        fields.addAll(Arrays.asList(fieldNames));
+        derived.put(type, Collections.unmodifiableSet(fields));
+
+        return new ParseProfile(name, options, Collections.unmodifiableMap(derived), escalation);
+    }
+
+    /**
+     * Derive a profile escalating to a deeper profile when a required field is missing.
+     *
+     * @param deeper the profile to parse the file again with, may itself escalate further
+     * @return the derived profile
+     */
+    public ParseProfile escalateTo(ParseProfile deeper) {
+        if (deeper == null) {
+            throw new MediaInfoException("Escalation profile cannot be null");
+        }
+        for (ParseProfile profile = deeper; profile != null; profile = profile.escalation) {
+            if (profile == this) {
+                throw new MediaInfoException("Escalation of profile %s is cyclic".formatted(name));
+            }
+        }
+
+        return new ParseProfile(name, options, requiredFields, deeper);
+    }
+
+    /**
+     * Check if a parse result lacks any of the required fields.
+     *
+     * @param mediaInfo the parse result
+     * @return true if a required field is missing
+     */
+    public boolean isMissingRequiredFields(MediaInfo mediaInfo) {
+        for (Map.Entry<SectionType, Set<String>> entry : requiredFields.entrySet()) {
+            if (!mediaInfo.getFieldNames(entry.getKey()).containsAll(entry.getValue())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the native options of this profile.
+     *
+     * @return unmodifiable map of option names to values
+     */
+    public Map<String, String> getOptions() {
+        return options;
+    }
+
+    /**
+     * Get the required fields of this profile.
+     *
+     * @return unmodifiable map of section types to required field names
+     */
+    public Map<SectionType, Set<String>> getRequiredFields() {
+        return requiredFields;
+    }
+
+    /**
+     * Get the profile to escalate to when a required field is missing.
+     *
+     * @return the deeper profile, or null if this profile does not escalate
+     */
+    public ParseProfile getEscalation() {
+        return escalation;
+    }
+
+    /**
+     * Apply the options of this profile to a leased handle, and the pool defaults of the options
+     * it does not set, which a previous lease of the handle may have changed.
+     *
+     * @param lease the lease of the handle
+     */
+    void apply(MediaInfoHandlePool.Lease lease) {
+        MediaInfoHandlePool.DEFAULT_OPTIONS.forEach((parameter, value) -> {
+            if (!options.containsKey(parameter)) {
+                lease.setOption(parameter, value);
+            }
+        });
+        options.forEach(lease::setOption);
+    }
+
+    @Override
+    public String toString() {
+        return "%s[name=%s, options=%s, requiredFields=%s, escalation=%s]".formatted(getClass().getSimpleName(), name,
+            options, requiredFields, escalation == null ? null : escalation.name);
+    }
+
+    private static Map<String, String> validateOptions(Map<String, String> options) {
+        if (options == null) {
+            throw new MediaInfoException("Options cannot be null");
+        }
+        options.forEach((parameter, value) -> {
+            if (parameter == null || parameter.isEmpty()) {
+                throw new MediaInfoException("Option name cannot be null or empty");
+            }
+            if (value == null) {
+                throw new MediaInfoException("Option value cannot be null");
+            }
+        });
+
+        return options;
+    }
+}
@@ -0,0 +1,44 @@
+package de.oppa.mi4j;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Enum representing the report formats the native library can render.
+ * <p>
+ * TEXT is the human readable report with display names as field names, e.g. "Bit rate".
+ * JSON is the structured report with internal parameter names as field names, e.g. "BitRate".
+ */
+public enum ReportFormat {
+    TEXT(""),
+    JSON("JSON");
+
+    private final String informOption;
+
+    ReportFormat(String informOption) {
+        this.informOption = informOption;
+    }
+
+    /**
+     * Get the value of the native {@code Inform} option selecting this format.
+     *
+     * @return the option value
+     */
+    public String getInformOption() {
+        return informOption;
+    }
+}
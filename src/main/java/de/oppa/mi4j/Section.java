@@ -1,9 +1,13 @@
 package de.oppa.mi4j;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeMap;
 
@@ -34,17 +38,62 @@ import java.util.TreeMap;
  * <p>
  * This class provides methods to add field-value pairs, retrieve values,
  * and iterate over the fields.
+ * <p>
+ * Fields are kept sorted by name. While a section is built, values of fields known to the
+ * {@link FieldKey} catalog for the type of the section are stored by their ordinal within
+ * the type and other fields in an overflow map.
+ * Parsed sections are compacted: they refer to a {@link SectionShape} shared by all sections
+ * with the same field names and only hold an array of their values. Menu sections also hold
+ * their {@link Chapters}, from which the {@code ChapterName x} and {@code ChapterTimestamp x}
+ * fields are derived when read instead of being stored. Chapter fields added by hand differ
+ * per file and stay out of the shape, in the overflow map.
+ * <p>
+ * Sections are only frozen by the snapshot constructor of {@link MediaInfo}, which every
+ * snapshot is built with, including the ones of the parser, {@link MediaInfoBuffer#toMediaInfo()}
+ * and {@link MediaInfoView#toMediaInfo()}. The fields of a section are not final: a frozen
+ * section is safely published by the final fields of its snapshot. Share the snapshot between
+ * threads; a section handed over on its own needs safe publication like any mutable object,
+ * e.g. through a volatile field or a concurrent collection.
  * </p>
  */
 public final class Section implements Iterable<String> {
+    private static final Field[] FIELDS = Field.values();
+    private static final FieldKey[] FIELD_NAME_KEYS = Arrays.stream(FIELDS).map(field -> FieldKey.of(field.getName())).toArray(FieldKey[]::new);
+    private static final FieldKey[] FIELD_PARAMETER_KEYS = Arrays.stream(FIELDS).map(field -> FieldKey.of(field.getParameterName())).toArray(FieldKey[]::new);
 
     /**
-     * Map to hold field-value pairs.
+     * Values of the fields known to the {@link FieldKey} catalog for {@link #type}, by key ordinal within the type.
      * <p>
-     * The map is sorted by field names for consistent ordering.
+     * Allocated with the first known field. The ordinals follow the name order, so the
+     * fields iterate sorted by name together with the overflow map.
      * </p>
      */
-    private final Map<String, String> fieldToValue = new TreeMap<>();
+    private String[] values;
+
+    /**
+     * Fields not in the catalog, sorted by field name. A compacted section only keeps its chapter fields here.
+     */
+    private Map<String, String> overflow;
+
+    /**
+     * Number of fields in {@link #values}.
+     */
+    private int valueCount;
+
+    /**
+     * Shared layout of the field names once the section is compacted, otherwise null.
+     */
+    private SectionShape shape;
+
+    /**
+     * Values of a compacted section, in the order of its shape.
+     */
+    private String[] shapeValues;
+
+    /**
+     * Sorted, read-only view of all fields.
+     */
+    private final Map<String, String> fieldToValue = new FieldValues();
 
     /**
      * Name of the section.
@@ -52,10 +101,45 @@ public final class Section implements Iterable<String> {
      * This is used to identify the section in the MediaInfo output.
      * </p>
      */
-    private String name;
+    private final String name;
+
+    /**
+     * Type of the section, derived from its name.
+     */
+    private final SectionType type;
+
+    /**
+     * Numeric values of the typed fields, by field ordinal.
+     */
+    private double[] numbers;
+
+    /**
+     * Bits of the typed fields with a raw value captured while parsing.
+     */
+    private int capturedFields;
+
+    /**
+     * Bits of the typed fields with a resolved value in {@link #numbers}, including the captured ones.
+     */
+    private int resolvedFields;
+
+    /**
+     * Chapters of a menu section.
+     */
+    private Chapters chapters = Chapters.EMPTY;
+
+    /**
+     * Number of the first chapter in the names of the chapter fields.
+     */
+    private int firstChapterNumber = 1;
+
+    /**
+     * Whether the section belongs to a frozen snapshot and rejects changes.
+     */
+    private boolean frozen;
 
     public Section() {
-        // Default constructor
+        this(null);
     }
 
     /**
@@ -65,6 +149,7 @@ public final class Section implements Iterable<String> {
      */
     public Section(String name) {
         this.name = name;
+        this.type = SectionType.fromName(name);
     }
 
     /**
@@ -74,7 +159,284 @@ public final class Section implements Iterable<String> {
      * @param value the field value
      */
     public void addFieldValue(String field, String value) {
-        fieldToValue.put(field, value);
+        checkNotFrozen();
+
+        FieldKey key = FieldKey.of(field);
+        if (key != null) {
+            addFieldValue(key, value);
+            return;
+        }
+        if (shape != null && !Chapters.isChapterField(field) && setShapeValue(shape.indexOf(field), value)) {
+            return;
+        }
+
+        addOverflowValue(field, value);
+    }
+
+    /**
+     * Add a value of a field known to the catalog.
+     *
+     * @param key   the field key
+     * @param value the field value
+     */
+    void addFieldValue(FieldKey key, String value) {
+        checkNotFrozen();
+        if (shape != null && setShapeValue(shape.indexOf(key), value)) {
+            return;
+        }
+
+        int ordinal = key.getOrdinal(type);
+        if (ordinal < 0) {
+            addOverflowValue(key.getName(), value);
+            return;
+        }
+        if (values == null) {
+            values = new String[FieldKey.count(type)];
+        }
+        if (values[ordinal] == null) {
+            valueCount++;
+        }
+        values[ordinal] = value;
+        resolvedFields = capturedFields;
+    }
+
+    private void addOverflowValue(String field, String value) {
+        if (overflow == null) {
+            overflow = new TreeMap<>();
+        }
+        overflow.put(field, value);
+        resolvedFields = capturedFields;
+    }
+
+    /**
+     * Compact the section: share the layout of its field names with equal sections and keep only
+     * an array of the values. Chapter fields stay in the overflow map, so that menu sections with
+     * a different number of chapters share one shape. Adding a field that is not part of the shape
+     * expands the section again.
+     */
+    void compact() {
+        if (shape != null) {
+            return;
+        }
+
+        int size = valueCount + (overflow == null ? 0 : overflow.size());
+        String[] names = new String[size];
+        String[] compactValues = new String[size];
+        Map<String, String> chapterFields = null;
+        int index = 0;
+        // Only the stored fields, the chapter fields derived from the chapters are not part of the section
+        Iterator<Map.Entry<String, String>> fields = new FieldIterator();
+        while (fields.hasNext()) {
+            Map.Entry<String, String> entry = fields.next();
+            if (Chapters.isChapterField(entry.getKey())) {
+                if (chapterFields == null) {
+                    chapterFields = new TreeMap<>();
+                }
+                chapterFields.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+
+            names[index] = entry.getKey();
+            compactValues[index] = entry.getValue();
+            index++;
+        }
+
+        shape = SectionShape.of(type, index == size ? names : Arrays.copyOf(names, index));
+        shapeValues = index == size ? compactValues : Arrays.copyOf(compactValues, index);
+        values = null;
+        overflow = chapterFields;
+        valueCount = 0;
+    }
+
+    /**
+     * Copy the section, sharing the shape and values, which are replaced rather than changed in place.
+     *
+     * @return the copy
+     */
+    Section copy() {
+        compact();
+
+        Section copy = new Section(name);
+        copy.shape = shape;
+        copy.shapeValues = shapeValues.clone();
+        copy.overflow = overflow == null ? null : new TreeMap<>(overflow);
+        copy.numbers = numbers == null ? null : numbers.clone();
+        copy.capturedFields = capturedFields;
+        copy.resolvedFields = resolvedFields;
+        copy.chapters = chapters;
+        copy.firstChapterNumber = firstChapterNumber;
+        return copy;
+    }
+
+    /**
+     * Freeze the section for a snapshot: compact it and resolve all typed values up front, so
+     * that reading it never writes. Changes are rejected afterwards. Only called while a
+     * {@link MediaInfo} snapshot is constructed, whose final fields publish the state written here.
+     */
+    void freeze() {
+        if (frozen) {
+            return;
+        }
+
+        compact();
+        for (Field field : FIELDS) {
+            getDouble(field);
+        }
+        frozen = true;
+    }
+
+    /**
+     * Check if the section belongs to a frozen snapshot.
+     *
+     * @return true if frozen
+     * @see MediaInfo#freeze()
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new MediaInfoException("Section is frozen: %s".formatted(name));
+        }
+    }
+
+    /**
+     * Get the shape of a compacted section.
+     *
+     * @return the shape, or null if the section is not compacted
+     */
+    SectionShape getShape() {
+        return shape;
+    }
+
+    /**
+     * Replace a value of a compacted section, or expand the section if the field is not part of its shape.
+     *
+     * @return true if the value was replaced
+     */
+    private boolean setShapeValue(int index, String value) {
+        if (index >= 0) {
+            shapeValues[index] = value;
+            resolvedFields = capturedFields;
+            return true;
+        }
+
+        SectionShape expanded = shape;
+        String[] expandedValues = shapeValues;
+        shape = null;
+        shapeValues = null;
+        for (int i = 0; i < expanded.size(); i++) {
+            addFieldValue(expanded.nameAt(i), expandedValues[i]);
+        }
+
+        return false;
+    }
+
+    /**
+     * Capture the raw value of a typed field, unless a raw value was captured before.
+     *
+     * @param field the typed field
+     * @param value the raw value in base units
+     */
+    void captureNumber(Field field, double value) {
+        checkNotFrozen();
+        int bit = 1 << field.ordinal();
+        if ((capturedFields & bit) == 0 && !Double.isNaN(value)) {
+            numbers()[field.ordinal()] = value;
+            capturedFields |= bit;
+            resolvedFields |= bit;
+        }
+    }
+
+    /**
+     * Get the chapters of a menu section.
+     * <p>
+     * The chapters are also available as {@code ChapterName x} and {@code ChapterTimestamp x}
+     * fields, in order of their start and numbered across all menu sections of the report.
+     * </p>
+     *
+     * @return the chapters, empty if the section has none
+     */
+    public Chapters getChapters() {
+        return chapters;
+    }
+
+    /**
+     * Set the chapters of a menu section.
+     *
+     * @param chapters    the chapters
+     * @param firstNumber number of the first chapter in the names of the chapter fields
+     */
+    void setChapters(Chapters chapters, int firstNumber) {
+        checkNotFrozen();
+        this.chapters = chapters;
+        this.firstChapterNumber = firstNumber;
+    }
+
+    /**
+     * Get the numeric value of a typed field.
+     * <p>
+     * The raw value captured while parsing is preferred, otherwise the stored value is
+     * parsed once and cached until the section changes.
+     * </p>
+     *
+     * @param field the typed field
+     * @return the value in base units, or NaN if the field is missing or not numeric
+     */
+    public double getDouble(Field field) {
+        if (field == null) {
+            throw new MediaInfoException("Field cannot be null");
+        }
+
+        int bit = 1 << field.ordinal();
+        if ((resolvedFields & bit) == 0) {
+            String value = getFieldValue(FIELD_NAME_KEYS[field.ordinal()], field.getName());
+            if (value == null) {
+                value = getFieldValue(FIELD_PARAMETER_KEYS[field.ordinal()], field.getParameterName());
+            }
+            if (value != null) {
+                numbers()[field.ordinal()] = field.parseText(value);
+            } else if (numbers != null) {
+                numbers[field.ordinal()] = Double.NaN;
+            }
+            resolvedFields |= bit;
+        }
+
+        return numbers == null ? Double.NaN : numbers[field.ordinal()];
+    }
+
+    /**
+     * Get the numeric value of a typed field, rounded to a long.
+     *
+     * @param field the typed field
+     * @return the value in base units, or -1 if the field is missing or not numeric
+     * @see #getDouble(Field)
+     */
+    public long getLong(Field field) {
+        double value = getDouble(field);
+        return Double.isNaN(value) ? -1 : Math.round(value);
+    }
+
+    /**
+     * Get the numeric value of a typed field, rounded to an int.
+     *
+     * @param field the typed field
+     * @return the value in base units, or -1 if the field is missing or not numeric
+     * @throws MediaInfoException if the value does not fit in an int, e.g. a file size above 2 GiB
+     * @see #getDouble(Field)
+     */
+    public int getInt(Field field) {
+        return field.toInt(getLong(field));
+    }
+
+    private double[] numbers() {
+        if (numbers == null) {
+            numbers = new double[FIELDS.length];
+            Arrays.fill(numbers, Double.NaN);
+        }
+
+        return numbers;
     }
 
     /**
@@ -93,17 +455,60 @@ public final class Section implements Iterable<String> {
      * @return the value, or null if not found
      */
     public String getFieldValue(String field) {
-        return fieldToValue.get(field);
+        String value = getStoredValue(field);
+        if (value == null && !chapters.isEmpty()) {
+            value = chapters.fieldValue(field, firstChapterNumber);
+        }
+
+        return value;
     }
 
     /**
-     * Get the value for a specific key, or return a default value if not found.
+     * Get the value of a stored field, i.e. not derived from the chapters.
+     */
+    private String getStoredValue(String field) {
+        if (shape != null) {
+            int index = shape.indexOf(field);
+            if (index >= 0) {
+                return shapeValues[index];
+            }
+            return overflow == null ? null : overflow.get(field);
+        }
+
+        FieldKey key = FieldKey.of(field);
+        if (key != null && key.getOrdinal(type) >= 0) {
+            return values == null ? null : values[key.getOrdinal(type)];
+        }
+
+        return overflow == null ? null : overflow.get(field);
+    }
+
+    /**
+     * Get the value of a field, using its catalog key if there is one.
+     */
+    private String getFieldValue(FieldKey key, String field) {
+        if (key == null) {
+            return getFieldValue(field);
+        }
+        if (shape != null) {
+            int index = shape.indexOf(key);
+            return index < 0 ? null : shapeValues[index];
+        }
+        if (key.getOrdinal(type) < 0) {
+            return overflow == null ? null : overflow.get(field);
+        }
+
+        return values == null ? null : values[key.getOrdinal(type)];
+    }
+
+    /**
+     * Check if the section has a field, including the fields derived from its chapters.
      *
-     * @param fieldName the field key
-     * @return the value, or the default value if not found
+     * @param fieldName the field name
+     * @return true if the field has a value
      */
     public boolean hasField(String fieldName) {
-        return fieldToValue.containsKey(fieldName);
+        return getFieldValue(fieldName) != null;
     }
 
     /**
@@ -166,4 +571,181 @@ public final class Section implements Iterable<String> {
         return "%s[fieldToValue=%s]".formatted(getClass().getSimpleName(), fieldToValue);
     }
 
+    /**
+     * Read-only map view of the fields, merging the catalog values, the overflow map and the chapter fields in name order.
+     */
+    private final class FieldValues extends AbstractMap<String, String> {
+        private final Set<Map.Entry<String, String>> entries = new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                Iterator<Map.Entry<String, String>> stored = shape != null ? new ShapeIterator() : new FieldIterator();
+                return chapters.isEmpty() ? stored : new ChapterFieldIterator(stored);
+            }
+
+            @Override
+            public int size() {
+                return FieldValues.this.size();
+            }
+        };
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return entries;
+        }
+
+        @Override
+        public int size() {
+            int overflowSize = overflow == null ? 0 : overflow.size();
+            int size = shape != null ? shape.size() + overflowSize : valueCount + overflowSize;
+            if (chapters.isEmpty()) {
+                return size;
+            }
+
+            // Chapter fields added by hand replace the derived ones of the same name
+            int chapterFields = chapters.size() * 2;
+            if (overflow != null) {
+                for (String field : overflow.keySet()) {
+                    if (chapters.fieldValue(field, firstChapterNumber) != null) {
+                        chapterFields--;
+                    }
+                }
+            }
+
+            return size + chapterFields;
+        }
+
+        @Override
+        public String get(Object key) {
+            return key instanceof String field ? getFieldValue(field) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+    }
+
+    /**
+     * Iterator over the values of a compacted section in the order of its shape, merged with the overflow map.
+     */
+    private final class ShapeIterator implements Iterator<Map.Entry<String, String>> {
+        private final SectionShape iteratedShape = shape;
+        private final String[] iteratedValues = shapeValues;
+        private final Iterator<Map.Entry<String, String>> overflowIterator =
+            overflow == null ? Collections.emptyIterator() : overflow.entrySet().iterator();
+        private Map.Entry<String, String> nextOverflow = overflowIterator.hasNext() ? overflowIterator.next() : null;
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < iteratedShape.size() || nextOverflow != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (index < iteratedShape.size()
+                && (nextOverflow == null || iteratedShape.nameAt(index).compareTo(nextOverflow.getKey()) < 0)) {
+                Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<>(iteratedShape.nameAt(index), iteratedValues[index]);
+                index++;
+                return entry;
+            }
+
+            Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<>(nextOverflow.getKey(), nextOverflow.getValue());
+            nextOverflow = overflowIterator.hasNext() ? overflowIterator.next() : null;
+            return entry;
+        }
+    }
+
+    /**
+     * Iterator merging the stored fields with the chapter fields derived from the chapters, in name order.
+     * A stored field replaces a derived one of the same name.
+     */
+    private final class ChapterFieldIterator implements Iterator<Map.Entry<String, String>> {
+        private final Iterator<Map.Entry<String, String>> stored;
+        private final Iterator<Map.Entry<String, String>> derived = chapters.fieldIterator(firstChapterNumber);
+        private Map.Entry<String, String> nextStored;
+        private Map.Entry<String, String> nextDerived = derived.next();
+
+        private ChapterFieldIterator(Iterator<Map.Entry<String, String>> stored) {
+            this.stored = stored;
+            this.nextStored = stored.hasNext() ? stored.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextStored != null || nextDerived != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            int order = nextStored == null ? 1 : nextDerived == null ? -1 : nextStored.getKey().compareTo(nextDerived.getKey());
+            Map.Entry<String, String> entry;
+            if (order <= 0) {
+                entry = nextStored;
+                nextStored = stored.hasNext() ? stored.next() : null;
+            } else {
+                entry = nextDerived;
+            }
+            if (order >= 0) {
+                nextDerived = derived.hasNext() ? derived.next() : null;
+            }
+
+            return entry;
+        }
+    }
+
+    /**
+     * Iterator over the catalog values and the overflow map, in name order.
+     */
+    private final class FieldIterator implements Iterator<Map.Entry<String, String>> {
+        private final Iterator<Map.Entry<String, String>> overflowIterator =
+            overflow == null ? Collections.emptyIterator() : overflow.entrySet().iterator();
+        private Map.Entry<String, String> nextOverflow = overflowIterator.hasNext() ? overflowIterator.next() : null;
+        private int ordinal = nextOrdinal(0);
+
+        @Override
+        public boolean hasNext() {
+            return ordinal >= 0 || nextOverflow != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            if (ordinal >= 0) {
+                FieldKey key = FieldKey.byOrdinal(type, ordinal);
+                if (nextOverflow == null || key.getName().compareTo(nextOverflow.getKey()) < 0) {
+                    Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<>(key.getName(), values[ordinal]);
+                    ordinal = nextOrdinal(ordinal + 1);
+                    return entry;
+                }
+            }
+
+            Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<>(nextOverflow.getKey(), nextOverflow.getValue());
+            nextOverflow = overflowIterator.hasNext() ? overflowIterator.next() : null;
+            return entry;
+        }
+
+        private int nextOrdinal(int from) {
+            if (values != null) {
+                for (int i = from; i < values.length; i++) {
+                    if (values[i] != null) {
+                        return i;
+                    }
+                }
+            }
+
+            return -1;
+        }
+    }
 }
@@ -0,0 +1,203 @@
+package de.oppa.mi4j;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Immutable layout of the field names of a compacted {@link Section}.
+ * <p>
+ * Files written by the same encoder and muxer produce sections with identical field names.
+ * A compacted section refers to the shape of its field names and only keeps the values, in
+ * the order of the shape. Shapes are created the first time a set of names is seen and
+ * cached, so equal sections share one shape, similar to the hidden classes of JavaScript
+ * engines. Field names of the catalog are mapped to positions by their {@link FieldKey}
+ * ordinal within the section type, other names are found by binary search.
+ * <p>
+ * The cache holds at most {@value #MAX_CACHED_SHAPES} shapes. When it is full, a shape is
+ * evicted with the CLOCK policy, like the values of the {@link ValueInterner}: shapes looked up
+ * since the last sweep get a second chance, so the layouts of the common encoders stay shared
+ * while rare layouts come and go. Sections keep an evicted shape, it is only no longer handed
+ * out. Chapter fields are not part of shapes, see {@link Section#compact()}.
+ * </p>
+ */
+final class SectionShape {
+    static final int MAX_CACHED_SHAPES = 8192;
+
+    private static final ConcurrentMap<ShapeKey, SectionShape> SHAPES = new ConcurrentHashMap<>();
+    private static final short ABSENT = -1;
+
+    /**
+     * Cached shapes in insertion order, swept by the clock hand. Guarded by its own lock.
+     */
+    private static final SectionShape[] CLOCK = new SectionShape[MAX_CACHED_SHAPES];
+    private static int clockSize;
+    private static int hand;
+
+    private final SectionType type;
+    private final String[] names;
+    private final short[] ordinalToIndex;
+
+    /**
+     * Whether the shape was looked up since the last sweep of the clock hand.
+     */
+    private volatile boolean referenced;
+
+    private SectionShape(SectionType type, String[] names) {
+        this.type = type;
+        this.names = names;
+        this.ordinalToIndex = new short[FieldKey.count(type)];
+        Arrays.fill(ordinalToIndex, ABSENT);
+
+        for (int i = 0; i < names.length; i++) {
+            FieldKey key = FieldKey.of(names[i]);
+            if (key != null && key.getOrdinal(type) >= 0) {
+                ordinalToIndex[key.getOrdinal(type)] = (short) i;
+            }
+        }
+    }
+
+    /**
+     * Get the shape for the given field names.
+     *
+     * @param type  the type of the sections
+     * @param names the field names, sorted in natural order
+     * @return the cached shape, or a new one
+     */
+    static SectionShape of(SectionType type, String[] names) {
+        if (names.length > Short.MAX_VALUE) {
+            throw new MediaInfoException("Too many fields for a section shape: %d".formatted(names.length));
+        }
+
+        ShapeKey key = new ShapeKey(type, Arrays.asList(names));
+        SectionShape shape = SHAPES.get(key);
+        if (shape != null) {
+            shape.reference();
+            return shape;
+        }
+
+        shape = new SectionShape(type, names);
+        synchronized (CLOCK) {
+            SectionShape cached = SHAPES.putIfAbsent(key, shape);
+            if (cached != null) {
+                cached.reference();
+                return cached;
+            }
+
+            CLOCK[clockSize < CLOCK.length ? clockSize++ : evict()] = shape;
+        }
+
+        return shape;
+    }
+
+    /**
+     * Advance the clock hand to the first shape not looked up since the last sweep and remove it
+     * from the cache. Called with the clock lock held.
+     *
+     * @return the freed clock position
+     */
+    private static int evict() {
+        while (CLOCK[hand].referenced) {
+            CLOCK[hand].referenced = false;
+            hand = (hand + 1) % CLOCK.length;
+        }
+
+        int freed = hand;
+        SectionShape victim = CLOCK[freed];
+        hand = (hand + 1) % CLOCK.length;
+        SHAPES.remove(new ShapeKey(victim.type, Arrays.asList(victim.names)), victim);
+
+        return freed;
+    }
+
+    private void reference() {
+        // Skip the volatile write for shapes already marked, which are most of the lookups
+        if (!referenced) {
+            referenced = true;
+        }
+    }
+
+    /**
+     * Get the number of cached shapes.
+     *
+     * @return the number of shapes
+     */
+    static int cachedShapeCount() {
+        return SHAPES.size();
+    }
+
+    /**
+     * Get the position of a field of the catalog.
+     *
+     * @param key the field key
+     * @return the position, or -1 if the shape does not contain the field
+     */
+    int indexOf(FieldKey key) {
+        int ordinal = key.getOrdinal(type);
+        if (ordinal >= 0) {
+            return ordinalToIndex[ordinal];
+        }
+
+        int index = Arrays.binarySearch(names, key.getName());
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * Get the position of a field.
+     *
+     * @param name the field name
+     * @return the position, or -1 if the shape does not contain the field
+     */
+    int indexOf(String name) {
+        FieldKey key = FieldKey.of(name);
+        if (key != null) {
+            return indexOf(key);
+        }
+
+        int index = Arrays.binarySearch(names, name);
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * Get the field name at a position.
+     *
+     * @param index the position
+     * @return the field name
+     */
+    String nameAt(int index) {
+        return names[index];
+    }
+
+    /**
+     * Get the number of fields.
+     *
+     * @return the number of fields
+     */
+    int size() {
+        return names.length;
+    }
+
+    /**
+     * Cache key of a shape: equal names only share a shape within a section type.
+     */
+    private record ShapeKey(SectionType type, List<String> names) {
+    }
+}
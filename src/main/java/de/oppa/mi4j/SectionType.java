@@ -24,18 +24,22 @@ package de.oppa.mi4j;
  * Audio, Video, Image, Text, Menu, Other, and General.
  */
 public enum SectionType {
-    AUDIO("Audio"),
-    VIDEO("Video"),
-    IMAGE("Image"),
-    TEXT("Text"),
-    MENU("Menu"),
-    OTHER("Other"),
-    GENERAL("General");
+    AUDIO("Audio", 2),
+    VIDEO("Video", 1),
+    IMAGE("Image", 5),
+    TEXT("Text", 3),
+    MENU("Menu", 6),
+    OTHER("Other", 4),
+    GENERAL("General", 0);
+
+    private static final SectionType[] VALUES = values();
 
     private final String name;
+    private final int streamKind;
 
-    SectionType(String name) {
+    SectionType(String name, int streamKind) {
         this.name = name;
+        this.streamKind = streamKind;
     }
 
     /**
@@ -50,17 +54,72 @@ public enum SectionType {
         }
 
         // Normalize the name (e.g., "Audio #1" -> "Audio")
-        String normalizedName = name.split("\\s+#")[0].trim();
+        int end = name.length();
+        for (int i = name.indexOf('#'); i > 0; i = name.indexOf('#', i + 1)) {
+            if (Character.isWhitespace(name.charAt(i - 1))) {
+                end = i;
+                break;
+            }
+        }
 
-        try {
-            return valueOf(normalizedName.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            return OTHER;
+        return fromName(name, 0, end);
+    }
+
+    /**
+     * Get the SectionType enum value from a range of a character sequence, without allocating.
+     *
+     * @param text  the text holding the name
+     * @param start start of the name, inclusive
+     * @param end   end of the name, exclusive
+     * @return the corresponding SectionType, or OTHER if not found
+     */
+    static SectionType fromName(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        for (SectionType type : VALUES) {
+            if (type.matches(text, start, end)) {
+                return type;
+            }
+        }
+
+        return OTHER;
+    }
+
+    /**
+     * Check if a range of a character sequence is the name of this section type, ignoring case.
+     */
+    boolean matches(CharSequence text, int start, int end) {
+        if (end - start != name.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = text.charAt(start + i);
+            char expected = name.charAt(i);
+            if (c != expected && Character.toUpperCase(c) != Character.toUpperCase(expected)) {
+                return false;
+            }
         }
+
+        return true;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Get the MediaInfo stream kind ({@code MediaInfo_stream_C}) of this section type.
+     *
+     * @return the native stream kind
+     */
+    public int getStreamKind() {
+        return streamKind;
+    }
+
 }
@@ -0,0 +1,479 @@
+package de.oppa.mi4j;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ * Copyright 2015-2021 Caprica Software Limited.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ *
+ * This code is a derivative work of the vlcj-info library
+ * (https://github.com/caprica/vlcj-info) and
+ * heavily modified by oppahansi (https://github.com/oppahansi).
+ */
+
+/**
+ * Single pass scanner for the text report rendered by {@code MediaInfo_Inform}.
+ * <p>
+ * The report is scanned line by line with plain index arithmetic: no regular expressions,
+ * no intermediate line list and no substring per line. The content is reported to a
+ * {@link MediaInfoHandler}, field names and values as reusable views into the report, so
+ * only the section names are allocated by the scanner itself.
+ * <p>
+ * Section headers are the section type names, optionally followed by a stream number, e.g. "Audio #2" or "Menu #1". Lines of a menu section starting with a
+ * timestamp are reported as chapters.
+ * <p>
+ * The report can be fed chunk by chunk with {@link #feed(CharSequence)}, e.g. as it is read
+ * from a stream, and completed with {@link #finish()}.
+ * </p>
+ */
+final class TextReportParser {
+    static final String NO_SECTION_HEADERS = "No media information found. Data does not contain any section headers";
+    static final String DATA_IS_EMPTY = "No media information found. Data is empty";
+
+    private static final int TIMESTAMP_LENGTH = 12;
+    private static final SectionType[] SECTION_TYPES = SectionType.values();
+    private static final int CACHED_STREAM_NUMBERS = 64;
+    private static final String[][] SECTION_NAMES = new String[SECTION_TYPES.length][CACHED_STREAM_NUMBERS];
+
+    private final MediaInfoHandler handler;
+    private final StringBuilder pendingLine = new StringBuilder();
+    private final CharSlice key = new CharSlice();
+    private final CharSlice value = new CharSlice();
+    private CharSequence data;
+    private boolean inSection;
+    private SectionType currentSectionType;
+    private boolean headerFound;
+    private boolean dataFound;
+    private boolean skipLineFeed;
+    private boolean stopped;
+    private boolean finished;
+
+    /**
+     * Create a parser driving the given handler.
+     *
+     * @param handler the handler receiving the report content
+     */
+    TextReportParser(MediaInfoHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Parse a complete text report, driving a handler.
+     *
+     * @param data    the text report
+     * @param handler the handler receiving the report content
+     * @throws MediaInfoParseException if the report does not contain any section header
+     */
+    static void parse(CharSequence data, MediaInfoHandler handler) {
+        new TextReportParser(handler).parseReport(data);
+    }
+
+    /**
+     * Parse a complete report in place, including an unterminated last line, and finish.
+     *
+     * @param report the text report
+     * @return true if the handler stopped the parsing early
+     * @throws MediaInfoParseException if the report does not contain any section header
+     */
+    boolean parseReport(CharSequence report) {
+        feed(report, true);
+        return finish();
+    }
+
+    /**
+     * Get the offset of a field name, value or chapter title passed to the handler, in the
+     * report being parsed. Only valid during the callback, for reports parsed with
+     * {@link #parseReport(CharSequence)}, where every line is parsed in place.
+     *
+     * @param slice the character sequence passed to the handler
+     * @return the offset of its first character in the report
+     */
+    static int offsetOf(CharSequence slice) {
+        return ((CharSlice) slice).start;
+    }
+
+    /**
+     * Parse the next chunk of a report.
+     * <p>
+     * Complete lines are parsed in place. Only a line spanning chunks is copied, so the memory
+     * held between chunks is bounded by the longest line. Chunks fed after the handler is done
+     * are ignored.
+     * </p>
+     *
+     * @param chunk the next characters of the report
+     */
+    void feed(CharSequence chunk) {
+        feed(chunk, false);
+    }
+
+    private void feed(CharSequence chunk, boolean last) {
+        if (finished) {
+            throw new MediaInfoParseException("Report parser is already finished");
+        }
+
+        int length = chunk.length();
+        int lineStart = 0;
+        if (length > 0) {
+            dataFound = true;
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (chunk.charAt(0) == '\n') {
+                    lineStart = 1;
+                }
+            }
+        }
+
+        while (lineStart < length && !stopped) {
+            int lineEnd = lineStart;
+            char c = 0;
+            while (lineEnd < length && (c = chunk.charAt(lineEnd)) != '\n' && c != '\r') {
+                lineEnd++;
+            }
+
+            if (lineEnd == length) {
+                if (last && pendingLine.isEmpty()) {
+                    data = chunk;
+                    parseLine(lineStart, lineEnd);
+                } else {
+                    pendingLine.append(chunk, lineStart, lineEnd);
+                }
+                return;
+            }
+
+            if (pendingLine.isEmpty()) {
+                data = chunk;
+                parseLine(lineStart, lineEnd);
+            } else {
+                pendingLine.append(chunk, lineStart, lineEnd);
+                parsePendingLine();
+            }
+
+            lineStart = lineEnd + 1;
+            if (c == '\r') {
+                if (lineStart == length) {
+                    skipLineFeed = true;
+                } else if (chunk.charAt(lineStart) == '\n') {
+                    lineStart++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Parse the last line of the report, if it was not terminated, and end the last section.
+     *
+     * @return true if the handler stopped the parsing early
+     * @throws MediaInfoParseException if the report is empty or does not contain any section header
+     */
+    boolean finish() {
+        if (finished) {
+            throw new MediaInfoParseException("Report parser is already finished");
+        }
+        finished = true;
+
+        if (!pendingLine.isEmpty() && !stopped) {
+            parsePendingLine();
+        }
+        data = null;
+        key.clear();
+        value.clear();
+
+        if (stopped) {
+            return true;
+        }
+        if (!dataFound) {
+            throw new MediaInfoParseException(DATA_IS_EMPTY);
+        }
+        if (!headerFound) {
+            throw new MediaInfoParseException(NO_SECTION_HEADERS);
+        }
+        endSection();
+
+        return false;
+    }
+
+    /**
+     * Reset the parser to parse another report, keeping its line buffer.
+     */
+    void reset() {
+        pendingLine.setLength(0);
+        key.clear();
+        value.clear();
+        data = null;
+        inSection = false;
+        currentSectionType = null;
+        headerFound = false;
+        dataFound = false;
+        skipLineFeed = false;
+        stopped = false;
+        finished = false;
+    }
+
+    /**
+     * Check if the handler stopped the parsing.
+     *
+     * @return true if the handler is done and further chunks are ignored
+     */
+    boolean isStopped() {
+        return stopped;
+    }
+
+    private void parsePendingLine() {
+        data = pendingLine;
+        parseLine(0, pendingLine.length());
+        pendingLine.setLength(0);
+    }
+
+    private void parseLine(int start, int end) {
+        if (start == end) {
+            endSection();
+            return;
+        }
+
+        SectionType headerType = parseSectionHeader(start, end);
+        if (headerType != null) {
+            headerFound = true;
+            endSection();
+            if (!stopped) {
+                inSection = true;
+                currentSectionType = headerType;
+                handler.onSectionStart(headerType, sectionName(headerType, start, end));
+                checkDone();
+            }
+            return;
+        }
+
+        if (!inSection) {
+            System.err.printf("Warning: No section defined for line: %s%n", data.subSequence(start, end));
+        } else if (currentSectionType == SectionType.MENU && isChapterLine(start, end)) {
+            handler.onChapter(parseTimestamp(start), trimmed(value, start + TIMESTAMP_LENGTH, end));
+            checkDone();
+        } else {
+            parseKeyValueLine(start, end);
+        }
+    }
+
+    private void endSection() {
+        if (inSection) {
+            inSection = false;
+            currentSectionType = null;
+            handler.onSectionEnd();
+            checkDone();
+        }
+    }
+
+    private void checkDone() {
+        if (handler.isDone()) {
+            stopped = true;
+        }
+    }
+
+    /**
+     * Get the section type if the line is a section header, e.g. "Audio" or "Audio #2".
+     *
+     * @return the section type, or null if the line is not a section header
+     */
+    private SectionType parseSectionHeader(int start, int end) {
+        int nameEnd = end;
+        int hash = indexOf('#', start, end);
+        if (hash >= 0) {
+            // Only a " #<digits>" suffix is allowed after the name
+            if (hash == start || data.charAt(hash - 1) != ' ' || hash + 1 == end) {
+                return null;
+            }
+            for (int i = hash + 1; i < end; i++) {
+                char c = data.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+            }
+            nameEnd = hash - 1;
+        }
+
+        for (SectionType type : SECTION_TYPES) {
+            if (regionEquals(type.getName(), start, nameEnd)) {
+                return type;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the name of a section header. Names like "Audio #2" are shared across reports, as
+     * strings are immutable, racing threads at worst both create the same name.
+     */
+    private String sectionName(SectionType type, int start, int end) {
+        int nameLength = type.getName().length();
+        if (end - start == nameLength) {
+            return type.getName();
+        }
+
+        int digitsStart = start + nameLength + 2;
+        if (end - digitsStart <= 2 && data.charAt(digitsStart) != '0') {
+            int number = (int) digits(digitsStart, end - digitsStart);
+            if (number < CACHED_STREAM_NUMBERS) {
+                String name = SECTION_NAMES[type.ordinal()][number];
+                if (name == null) {
+                    name = data.subSequence(start, end).toString();
+                    SECTION_NAMES[type.ordinal()][number] = name;
+                }
+                return name;
+            }
+        }
+
+        return data.subSequence(start, end).toString();
+    }
+
+    private boolean regionEquals(String text, int start, int end) {
+        if (end - start != text.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            if (data.charAt(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Check if a line starts with a chapter timestamp followed by whitespace, e.g. "00:11:28.688  : Chapter 2".
+     */
+    private boolean isChapterLine(int start, int end) {
+        if (end - start <= TIMESTAMP_LENGTH) {
+            return false;
+        }
+
+        for (int i = 0; i < TIMESTAMP_LENGTH; i++) {
+            char c = data.charAt(start + i);
+            boolean valid = switch (i) {
+                case 2, 5 -> c == ':';
+                case 8 -> c == '.';
+                default -> c >= '0' && c <= '9';
+            };
+            if (!valid) {
+                return false;
+            }
+        }
+
+        return Character.isWhitespace(data.charAt(start + TIMESTAMP_LENGTH));
+    }
+
+    private void parseKeyValueLine(int start, int end) {
+        int colon = indexOf(':', start, end);
+        if (colon >= 0) {
+            handler.onField(trimmed(key, start, colon), trimmed(value, colon + 1, end));
+            checkDone();
+        } else {
+            System.err.printf("Warning: Invalid key-value pair: %s%n", data.subSequence(start, end));
+        }
+    }
+
+    private int indexOf(char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (data.charAt(i) == c) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Parse the milliseconds of a chapter timestamp, e.g. {@code 00:11:28.688}.
+     */
+    private long parseTimestamp(int start) {
+        long hours = digits(start, 2);
+        long minutes = digits(start + 3, 2);
+        long seconds = digits(start + 6, 2);
+        long millis = digits(start + 9, 3);
+
+        return ((hours * 60 + minutes) * 60 + seconds) * 1000 + millis;
+    }
+
+    private long digits(int start, int count) {
+        long result = 0;
+        for (int i = start; i < start + count; i++) {
+            result = result * 10 + data.charAt(i) - '0';
+        }
+
+        return result;
+    }
+
+    /**
+     * Point a slice to a range of the data with leading and trailing whitespace removed, like {@link String#trim()}.
+     */
+    private CharSequence trimmed(CharSlice slice, int start, int end) {
+        while (start < end && data.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && data.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        return slice.set(data, start, end);
+    }
+
+    /**
+     * Reusable view of a range of characters, handed to the handler instead of a new string.
+     */
+    private static final class CharSlice implements CharSequence {
+        private CharSequence text;
+        private int start;
+        private int length;
+
+        private CharSlice set(CharSequence text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.length = end - start;
+            return this;
+        }
+
+        private void clear() {
+            text = null;
+            length = 0;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return text.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start %d, end %d, length %d".formatted(start, end, length));
+            }
+
+            return text.subSequence(this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            return text == null ? "" : text.subSequence(start, start + length).toString();
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package de.oppa.mi4j;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Bounded dictionary of field values, shared between parsed MediaInfo instances.
+ * <p>
+ * Values like "Yes", "English" or "48.0 kHz" repeat in almost every report. A parser given an
+ * interner stores one shared string per distinct value instead of a copy per field. Values are
+ * looked up by their characters, so a hit does not allocate at all.
+ * <p>
+ * The dictionary only takes values up to a maximum length, and only of fields with few distinct
+ * values, like formats, codec IDs, languages or channel layouts. Durations, sizes, bit rates,
+ * frame counts, names and dates differ per file and are copied, so they never push the shared
+ * values out. Its size is bounded: when a segment is full, an entry is evicted with the CLOCK
+ * policy, which gives every entry hit since the last sweep a second chance. Values seen once,
+ * e.g. an unusual encoder setting, are evicted before the frequently used ones. The interner is
+ * thread-safe and meant to be shared by all parsers.
+ * </p>
+ */
+public final class ValueInterner {
+    /**
+     * Default maximum number of values.
+     */
+    public static final int DEFAULT_MAX_SIZE = 16 * 1024;
+
+    /**
+     * Default maximum length of an interned value.
+     */
+    public static final int DEFAULT_MAX_VALUE_LENGTH = 64;
+
+    /**
+     * Fields with few distinct values across files, interned by default. Both the names of the
+     * text report and the parameter names of the JSON report are listed.
+     */
+    public static final Set<String> DEFAULT_INTERNED_FIELDS = Set.of(
+        // Stream identification
+        "Kind of stream", "StreamKind", "Stream identifier", "StreamKindID", "StreamKindPos", "ID",
+        "Count", "Count of stream of this kind", "StreamCount", "Default", "Forced",
+        "Language", "Language/String", "Service kind", "ServiceKind", "Muxing mode", "MuxingMode",
+        // Formats and codecs
+        "Format", "Format/Info", "Format/Url", "Format/Extensions usually used", "Format_Extensions",
+        "Commercial name", "Format_Commercial", "Format_Commercial_IfAny",
+        "Format profile", "Format_Profile", "Format level", "Format_Level", "Format tier", "Format_Tier",
+        "Format version", "Format_Version", "Format settings", "Format_Settings",
+        "Format settings, CABAC", "Format_Settings_CABAC", "Format settings, Reference frames",
+        "Format_Settings_RefFrames", "Format settings, Endianness", "Format_Settings_Endianness",
+        "Format settings, Sign", "Format_Settings_Sign", "Internet media type", "InternetMediaType",
+        "Codec ID", "CodecID", "Codec ID/Info", "CodecID/Info", "Codec ID/Hint", "CodecID/Hint",
+        "Codec ID/Url", "CodecID/Url", "Codecs Video", "Audio codecs", "Text codecs",
+        "Video_Format_List", "Video_Format_WithHint_List", "Video_Language_List",
+        "Audio_Format_List", "Audio_Format_WithHint_List", "Audio_Language_List",
+        "Text_Format_List", "Text_Format_WithHint_List", "Text_Language_List",
+        "Writing application", "Encoded_Application", "Writing library", "Encoded_Library",
+        "Encoded_Library_Name", "Encoded_Library_Version", "IsStreamable",
+        // Audio
+        "Channel(s)", "Channels", "Channel positions", "ChannelPositions", "Channel layout",
+        "ChannelLayout", "Sampling rate", "SamplingRate", "Samples per frame", "SamplesPerFrame",
+        "Bit depth", "BitDepth", "Compression mode", "Compression_Mode", "Bit rate mode",
+        "BitRate_Mode", "Dialog Normalization", "Delay, origin", "Delay_Source",
+        // Video
+        "Width", "Height", "Sampled_Width", "Sampled_Height", "Display aspect ratio",
+        "DisplayAspectRatio", "Pixel aspect ratio", "PixelAspectRatio", "Frame rate mode",
+        "FrameRate_Mode", "Frame rate", "FrameRate", "FrameRate_Num", "FrameRate_Den",
+        "Color space", "ColorSpace", "Chroma subsampling", "ChromaSubsampling", "Scan type",
+        "ScanType", "Scan order", "ScanOrder", "Color range", "colour_range", "Color primaries",
+        "colour_primaries", "Transfer characteristics", "transfer_characteristics",
+        "Matrix coefficients", "matrix_coefficients", "colour_description_present");
+
+    private static final int SEGMENTS = 16;
+    private static final int MIN_SIZE = SEGMENTS * 4;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxValueLength;
+    private final Set<String> internedFields;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create an interner with the default size, value length and interned fields.
+     */
+    public ValueInterner() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create an interner with the default value length and interned fields.
+     *
+     * @param maxSize maximum number of values
+     */
+    public ValueInterner(int maxSize) {
+        this(maxSize, DEFAULT_MAX_VALUE_LENGTH, DEFAULT_INTERNED_FIELDS);
+    }
+
+    /**
+     * Create an interner.
+     *
+     * @param maxSize        maximum number of values
+     * @param maxValueLength maximum length of an interned value, longer values are copied
+     * @param internedFields field names whose values are interned, values of other fields are copied
+     */
+    public ValueInterner(int maxSize, int maxValueLength, Set<String> internedFields) {
+        if (maxSize < MIN_SIZE) {
+            throw new MediaInfoException("Maximum size must be at least %d".formatted(MIN_SIZE));
+        }
+        if (maxValueLength < 1) {
+            throw new MediaInfoException("Maximum value length must be at least 1");
+        }
+        if (internedFields == null) {
+            throw new MediaInfoException("Interned fields cannot be null");
+        }
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxSize / SEGMENTS);
+        }
+        this.maxValueLength = maxValueLength;
+        this.internedFields = Set.copyOf(internedFields);
+    }
+
+    /**
+     * Get the shared string for a field value.
+     *
+     * @param field the field name
+     * @param value the field value
+     * @return the shared string, or a copy of the value if the field or value is not interned
+     */
+    public String intern(String field, CharSequence value) {
+        if (value.length() > maxValueLength || !internedFields.contains(field)) {
+            return value.toString();
+        }
+
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + value.charAt(i);
+        }
+        int spread = hash ^ (hash >>> 16);
+
+        return segments[spread & (SEGMENTS - 1)].intern(value, hash, spread >>> 4);
+    }
+
+    /**
+     * Get the number of lookups answered with a shared value.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that added a new value.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of values evicted to make room for new ones.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the ratio of hits to all lookups of interned fields.
+     *
+     * @return the hit rate between 0 and 1, or 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Get the number of values currently held.
+     *
+     * @return the number of values
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+
+        return size;
+    }
+
+    /**
+     * Remove all values. The metrics are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "%s[size=%d, hits=%d, misses=%d, evictions=%d]"
+            .formatted(getClass().getSimpleName(), size(), getHitCount(), getMissCount(), getEvictionCount());
+    }
+
+    /**
+     * Hash table entry, also holding its position in the clock.
+     */
+    private static final class Node {
+        private final String value;
+        private final int hash;
+        private final int clockIndex;
+        private Node next;
+        private boolean referenced;
+
+        private Node(String value, int hash, int clockIndex, Node next) {
+            this.value = value;
+            this.hash = hash;
+            this.clockIndex = clockIndex;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Independently locked part of the dictionary: a chained hash table plus a clock of its entries.
+     */
+    private final class Segment {
+        private final Node[] buckets;
+        private final Node[] clock;
+        private int hand;
+        private int size;
+
+        private Segment(int capacity) {
+            this.buckets = new Node[Integer.highestOneBit(capacity * 2 - 1) << 1];
+            this.clock = new Node[capacity];
+        }
+
+        private synchronized String intern(CharSequence value, int hash, int spread) {
+            int bucket = spread & (buckets.length - 1);
+            for (Node node = buckets[bucket]; node != null; node = node.next) {
+                if (node.hash == hash && node.value.contentEquals(value)) {
+                    node.referenced = true;
+                    hits.increment();
+                    return node.value;
+                }
+            }
+
+            misses.increment();
+            int clockIndex = size < clock.length ? size++ : evict();
+            Node node = new Node(value.toString(), hash, clockIndex, buckets[bucket]);
+            buckets[bucket] = node;
+            clock[clockIndex] = node;
+
+            return node.value;
+        }
+
+        /**
+         * Advance the clock hand to the first entry not referenced since the last sweep and remove it.
+         *
+         * @return the freed clock position
+         */
+        private int evict() {
+            while (clock[hand].referenced) {
+                clock[hand].referenced = false;
+                hand = (hand + 1) % clock.length;
+            }
+
+            Node victim = clock[hand];
+            hand = (hand + 1) % clock.length;
+            removeFromBucket(victim);
+            evictions.increment();
+
+            return victim.clockIndex;
+        }
+
+        private void removeFromBucket(Node victim) {
+            int spread = victim.hash ^ (victim.hash >>> 16);
+            int bucket = (spread >>> 4) & (buckets.length - 1);
+            if (buckets[bucket] == victim) {
+                buckets[bucket] = victim.next;
+                return;
+            }
+            for (Node node = buckets[bucket]; node.next != null; node = node.next) {
+                if (node.next == victim) {
+                    node.next = victim.next;
+                    return;
+                }
+            }
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        private synchronized void clear() {
+            Arrays.fill(buckets, null);
+            Arrays.fill(clock, null);
+            hand = 0;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package de.oppa.mi4j;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static java.lang.foreign.ValueLayout.JAVA_SHORT;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * MediaInfoBackend implementation using the Foreign Function and Memory API.
+ * <p>
+ * The MediaInfo entry points are bound once as downcall method handles. String arguments are
+ * encoded straight into confined arenas as {@code wchar_t} strings, which are freed as soon as
+ * the call returns. Run with {@code --enable-native-access=ALL-UNNAMED} to avoid the restricted
+ * method warning. {@code size_t} is bound as a {@code long}, so the backend is only supported on
+ * 64-bit JVMs; 32-bit hosts use the JNA backend.
+ * </p>
+ */
+final class FfmMediaInfoBackend implements MediaInfoBackend {
+    private static final boolean WINDOWS = System.getProperty("os.name").toLowerCase().contains("win");
+    private static final int WCHAR_SIZE = WINDOWS ? 2 : 4;
+    private static final Charset WCHAR_CHARSET = WINDOWS
+        ? StandardCharsets.UTF_16LE
+        : Charset.forName(ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? "UTF-32LE" : "UTF-32BE");
+
+    private static volatile FfmMediaInfoBackend instance;
+
+    private final MethodHandle mediaInfoNew;
+    private final MethodHandle mediaInfoDelete;
+    private final MethodHandle mediaInfoOpen;
+    private final MethodHandle mediaInfoClose;
+    private final MethodHandle mediaInfoOption;
+    private final MethodHandle mediaInfoInform;
+    private final MethodHandle mediaInfoOpenBufferInit;
+    private final MethodHandle mediaInfoOpenBufferContinue;
+    private final MethodHandle mediaInfoOpenBufferContinueGoToGet;
+    private final MethodHandle mediaInfoOpenBufferFinalize;
+    private final MethodHandle mediaInfoGet;
+    private final MethodHandle mediaInfoGetI;
+    private final MethodHandle mediaInfoCountGet;
+
+    private FfmMediaInfoBackend() {
+        Linker linker = Linker.nativeLinker();
+        SymbolLookup lookup = SymbolLookup.libraryLookup(NativeLibraryLoader.getLibraryPath(), Arena.global());
+        // The call sites pass size_t as long, which needs the 64-bit layout for invokeExact
+        ValueLayout sizeT = JAVA_LONG;
+
+        mediaInfoNew = downcall(linker, lookup, "MediaInfo_New", FunctionDescriptor.of(ADDRESS));
+        mediaInfoDelete = downcall(linker, lookup, "MediaInfo_Delete", FunctionDescriptor.ofVoid(ADDRESS));
+        mediaInfoOpen = downcall(linker, lookup, "MediaInfo_Open", FunctionDescriptor.of(sizeT, ADDRESS, ADDRESS));
+        mediaInfoClose = downcall(linker, lookup, "MediaInfo_Close", FunctionDescriptor.ofVoid(ADDRESS));
+        mediaInfoOption = downcall(linker, lookup, "MediaInfo_Option", FunctionDescriptor.of(ADDRESS, ADDRESS, ADDRESS, ADDRESS));
+        mediaInfoInform = downcall(linker, lookup, "MediaInfo_Inform", FunctionDescriptor.of(ADDRESS, ADDRESS, sizeT));
+        mediaInfoOpenBufferInit = downcall(linker, lookup, "MediaInfo_Open_Buffer_Init", FunctionDescriptor.of(sizeT, ADDRESS, JAVA_LONG, JAVA_LONG));
+        mediaInfoOpenBufferContinue = downcall(linker, lookup, "MediaInfo_Open_Buffer_Continue", FunctionDescriptor.of(sizeT, ADDRESS, ADDRESS, sizeT));
+        mediaInfoOpenBufferContinueGoToGet = downcall(linker, lookup, "MediaInfo_Open_Buffer_Continue_GoTo_Get", FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+        mediaInfoOpenBufferFinalize = downcall(linker, lookup, "MediaInfo_Open_Buffer_Finalize", FunctionDescriptor.of(sizeT, ADDRESS));
+        mediaInfoGet = downcall(linker, lookup, "MediaInfo_Get", FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_INT, sizeT, ADDRESS, JAVA_INT, JAVA_INT));
+        mediaInfoGetI = downcall(linker, lookup, "MediaInfo_GetI", FunctionDescriptor.of(ADDRESS, ADDRESS, JAVA_INT, sizeT, sizeT, JAVA_INT));
+        mediaInfoCountGet = downcall(linker, lookup, "MediaInfo_Count_Get", FunctionDescriptor.of(sizeT, ADDRESS, JAVA_INT, sizeT));
+    }
+
+    /**
+     * Check if the FFM backend is available on the running JVM.
+     *
+     * @return true on 64-bit JVMs, where {@code size_t} is a {@code long}
+     */
+    static boolean isSupported() {
+        return ADDRESS.byteSize() == Long.BYTES;
+    }
+
+    static MediaInfoBackend getInstance() {
+        if (!isSupported()) {
+            throw new MediaInfoException("The FFM backend requires a 64-bit JVM. Address size: %d bytes".formatted(ADDRESS.byteSize()));
+        }
+
+        FfmMediaInfoBackend result = instance;
+        if (result == null) {
+            synchronized (FfmMediaInfoBackend.class) {
+                result = instance;
+                if (result == null) {
+                    result = new FfmMediaInfoBackend();
+                    instance = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public String getName() {
+        return "ffm";
+    }
+
+    @Override
+    public long newHandle() {
+        try {
+            return ((MemorySegment) mediaInfoNew.invokeExact()).address();
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_New", e);
+        }
+    }
+
+    @Override
+    public void deleteHandle(long handle) {
+        try {
+            mediaInfoDelete.invokeExact(MemorySegment.ofAddress(handle));
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Delete", e);
+        }
+    }
+
+    @Override
+    public boolean open(long handle, String filePath) {
+        try (Arena arena = Arena.ofConfined()) {
+            return (long) mediaInfoOpen.invokeExact(MemorySegment.ofAddress(handle), toWideString(arena, filePath)) == 1;
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Open", e);
+        }
+    }
+
+    @Override
+    public void close(long handle) {
+        try {
+            mediaInfoClose.invokeExact(MemorySegment.ofAddress(handle));
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Close", e);
+        }
+    }
+
+    @Override
+    public void setOption(long handle, String parameter, String value) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment ignored = (MemorySegment) mediaInfoOption.invokeExact(MemorySegment.ofAddress(handle),
+                toWideString(arena, parameter), toWideString(arena, value));
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Option", e);
+        }
+    }
+
+    @Override
+    public String getOption(long handle, String parameter, String value) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment result = (MemorySegment) mediaInfoOption.invokeExact(MemorySegment.ofAddress(handle),
+                toWideString(arena, parameter), toWideString(arena, value));
+            return fromWideString(result);
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Option", e);
+        }
+    }
+
+    @Override
+    public String inform(long handle) {
+        try {
+            MemorySegment data = (MemorySegment) mediaInfoInform.invokeExact(MemorySegment.ofAddress(handle), 0L);
+            return fromWideString(data);
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Inform", e);
+        }
+    }
+
+    @Override
+    public int openBufferInit(long handle, long fileSize, long fileOffset) {
+        try {
+            return (int) (long) mediaInfoOpenBufferInit.invokeExact(MemorySegment.ofAddress(handle), fileSize, fileOffset);
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Open_Buffer_Init", e);
+        }
+    }
+
+    @Override
+    public int openBufferContinue(long handle, ByteBuffer buffer) {
+        MemorySegment data = MemorySegment.ofBuffer(buffer);
+        try {
+            return (int) (long) mediaInfoOpenBufferContinue.invokeExact(MemorySegment.ofAddress(handle), data, data.byteSize());
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Open_Buffer_Continue", e);
+        }
+    }
+
+    @Override
+    public long openBufferContinueGoToGet(long handle) {
+        try {
+            return (long) mediaInfoOpenBufferContinueGoToGet.invokeExact(MemorySegment.ofAddress(handle));
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Open_Buffer_Continue_GoTo_Get", e);
+        }
+    }
+
+    @Override
+    public int openBufferFinalize(long handle) {
+        try {
+            return (int) (long) mediaInfoOpenBufferFinalize.invokeExact(MemorySegment.ofAddress(handle));
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Open_Buffer_Finalize", e);
+        }
+    }
+
+    @Override
+    public String get(long handle, int streamKind, int streamNumber, String parameter, int infoKind) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment value = (MemorySegment) mediaInfoGet.invokeExact(MemorySegment.ofAddress(handle), streamKind,
+                (long) streamNumber, toWideString(arena, parameter), infoKind, INFO_NAME);
+            return nullToEmpty(fromWideString(value));
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Get", e);
+        }
+    }
+
+    @Override
+    public String getI(long handle, int streamKind, int streamNumber, int parameterIndex, int infoKind) {
+        try {
+            MemorySegment value = (MemorySegment) mediaInfoGetI.invokeExact(MemorySegment.ofAddress(handle), streamKind,
+                (long) streamNumber, (long) parameterIndex, infoKind);
+            return nullToEmpty(fromWideString(value));
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_GetI", e);
+        }
+    }
+
+    @Override
+    public int countGet(long handle, int streamKind, int streamNumber) {
+        try {
+            return (int) (long) mediaInfoCountGet.invokeExact(MemorySegment.ofAddress(handle), streamKind, (long) streamNumber);
+        } catch (Throwable e) {
+            throw nativeCallFailed("MediaInfo_Count_Get", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static MethodHandle downcall(Linker linker, SymbolLookup lookup, String name, FunctionDescriptor descriptor) {
+        MemorySegment symbol = lookup.find(name)
+            .orElseThrow(() -> new IllegalStateException("Symbol not found in MediaInfo library: " + name));
+
+        return linker.downcallHandle(symbol, descriptor);
+    }
+
+    /**
+     * Encode a string as a null-terminated {@code wchar_t} string in the given arena.
+     */
+    private static MemorySegment toWideString(Arena arena, String value) {
+        byte[] encoded = value.getBytes(WCHAR_CHARSET);
+        MemorySegment segment = arena.allocate(encoded.length + WCHAR_SIZE, WCHAR_SIZE);
+        MemorySegment.copy(encoded, 0, segment, JAVA_BYTE, 0, encoded.length);
+        segment.asSlice(encoded.length, WCHAR_SIZE).fill((byte) 0);
+
+        return segment;
+    }
+
+    /**
+     * Decode a null-terminated {@code wchar_t} string owned by the native library.
+     */
+    private static String fromWideString(MemorySegment pointer) {
+        if (pointer.address() == 0) {
+            return null;
+        }
+
+        MemorySegment data = pointer.reinterpret(Long.MAX_VALUE);
+        long length = 0;
+        if (WCHAR_SIZE == 2) {
+            while (data.getAtIndex(JAVA_SHORT, length) != 0) {
+                length++;
+            }
+        } else {
+            while (data.getAtIndex(JAVA_INT, length) != 0) {
+                length++;
+            }
+        }
+
+        return new String(data.asSlice(0, length * WCHAR_SIZE).toArray(JAVA_BYTE), WCHAR_CHARSET);
+    }
+
+    private static MediaInfoException nativeCallFailed(String function, Throwable cause) {
+        return new MediaInfoException("Native call failed: %s".formatted(function), cause);
+    }
+}
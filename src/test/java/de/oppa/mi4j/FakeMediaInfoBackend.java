@@ -0,0 +1,277 @@
+package de.oppa.mi4j;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Copyright (C) 2025 oppahansi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * In-memory backend for tests that must run without the native library.
+ * <p>
+ * Files are registered with their streams, each stream being a list of parameter name and
+ * value pairs in {@code MediaInfo_GetI} order. Handles record the options set on them. The static
+ * parameters of a stream kind are listed by the {@code Info_Parameters_CSV} option.
+ * </p>
+ */
+final class FakeMediaInfoBackend implements MediaInfoBackend {
+    private static final SectionType[] REPORT_ORDER = {
+        SectionType.GENERAL, SectionType.VIDEO, SectionType.AUDIO, SectionType.TEXT,
+        SectionType.OTHER, SectionType.IMAGE, SectionType.MENU
+    };
+
+    private final AtomicLong nextHandle = new AtomicLong(1);
+    private final Map<String, Map<Integer, List<String[][]>>> files = new ConcurrentHashMap<>();
+    private final Map<Long, Map<String, String>> options = new ConcurrentHashMap<>();
+    private final Map<Long, String> openFiles = new ConcurrentHashMap<>();
+    private final Set<Long> deletedHandles = ConcurrentHashMap.newKeySet();
+    private final Map<SectionType, List<String>> staticParameters = new ConcurrentHashMap<>();
+    private final AtomicInteger getCount = new AtomicInteger();
+    private final AtomicInteger setOptionCount = new AtomicInteger();
+
+    /**
+     * Register a file.
+     *
+     * @param filePath   path the file is opened with
+     * @param streamKind stream kind of the streams
+     * @param streams    the streams, each holding {@code {name, value}} pairs
+     */
+    void addFile(String filePath, int streamKind, String[][]... streams) {
+        files.computeIfAbsent(filePath, path -> new ConcurrentHashMap<>()).put(streamKind, List.of(streams));
+    }
+
+    /**
+     * Set the static parameters of a stream kind, the names every stream of the kind starts with.
+     *
+     * @param sectionType the section type
+     * @param names       the parameter names in index order
+     */
+    void setStaticParameters(SectionType sectionType, String... names) {
+        staticParameters.put(sectionType, List.of(names));
+    }
+
+    /**
+     * Get the number of values and names fetched with {@code MediaInfo_Get} or {@code MediaInfo_GetI}.
+     *
+     * @return the number of calls
+     */
+    int getGetCount() {
+        return getCount.get();
+    }
+
+    /**
+     * Get the number of options set with {@code MediaInfo_Option}.
+     *
+     * @return the number of calls
+     */
+    int getSetOptionCount() {
+        return setOptionCount.get();
+    }
+
+    /**
+     * Get the options set on a handle.
+     *
+     * @param handle the handle
+     * @return the options by name
+     */
+    Map<String, String> getOptions(long handle) {
+        return options.getOrDefault(handle, Map.of());
+    }
+
+    /**
+     * Get the number of handles created.
+     *
+     * @return the number of handles
+     */
+    int getCreatedCount() {
+        return (int) nextHandle.get() - 1;
+    }
+
+    /**
+     * Check if a handle was deleted.
+     *
+     * @param handle the handle
+     * @return true if it was deleted
+     */
+    boolean isDeleted(long handle) {
+        return deletedHandles.contains(handle);
+    }
+
+    @Override
+    public String getName() {
+        return "fake";
+    }
+
+    @Override
+    public long newHandle() {
+        long handle = nextHandle.getAndIncrement();
+        options.put(handle, new ConcurrentHashMap<>());
+        return handle;
+    }
+
+    @Override
+    public void deleteHandle(long handle) {
+        if (!deletedHandles.add(handle)) {
+            throw new IllegalStateException("Handle deleted twice: " + handle);
+        }
+    }
+
+    @Override
+    public boolean open(long handle, String filePath) {
+        checkHandle(handle);
+        if (!files.containsKey(filePath)) {
+            return false;
+        }
+
+        openFiles.put(handle, filePath);
+        return true;
+    }
+
+    @Override
+    public void close(long handle) {
+        checkHandle(handle);
+        openFiles.remove(handle);
+    }
+
+    @Override
+    public void setOption(long handle, String parameter, String value) {
+        checkHandle(handle);
+        setOptionCount.incrementAndGet();
+        options.get(handle).put(parameter, value);
+    }
+
+    @Override
+    public String getOption(long handle, String parameter, String value) {
+        checkHandle(handle);
+        if (!parameter.equals("Info_Parameters_CSV")) {
+            return "";
+        }
+
+        StringBuilder list = new StringBuilder();
+        for (SectionType type : REPORT_ORDER) {
+            list.append(type.getName()).append("\r\n");
+            for (String name : staticParameters.getOrDefault(type, List.of())) {
+                list.append(name).append(';').append("\r\n");
+            }
+            list.append("\r\n");
+        }
+
+        return list.toString();
+    }
+
+    @Override
+    public String inform(long handle) {
+        Map<Integer, List<String[][]>> file = openFile(handle);
+        if (file == null) {
+            return null;
+        }
+
+        StringBuilder report = new StringBuilder();
+        for (SectionType type : REPORT_ORDER) {
+            List<String[][]> streams = file.getOrDefault(type.getStreamKind(), List.of());
+            for (String[][] stream : streams) {
+                report.append(type.getName()).append('\n');
+                for (String[] parameter : stream) {
+                    report.append(parameter[0]).append(" : ").append(parameter[1]).append('\n');
+                }
+                report.append('\n');
+            }
+        }
+
+        return report.toString();
+    }
+
+    @Override
+    public int openBufferInit(long handle, long fileSize, long fileOffset) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int openBufferContinue(long handle, ByteBuffer buffer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long openBufferContinueGoToGet(long handle) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int openBufferFinalize(long handle) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String get(long handle, int streamKind, int streamNumber, String parameter, int infoKind) {
+        getCount.incrementAndGet();
+        String[][] stream = stream(handle, streamKind, streamNumber);
+        if (stream != null) {
+            for (String[] entry : stream) {
+                if (entry[0].equals(parameter)) {
+                    return entry[infoKind == INFO_NAME ? 0 : 1];
+                }
+            }
+        }
+
+        return "";
+    }
+
+    @Override
+    public String getI(long handle, int streamKind, int streamNumber, int parameterIndex, int infoKind) {
+        getCount.incrementAndGet();
+        String[][] stream = stream(handle, streamKind, streamNumber);
+        if (stream == null || parameterIndex < 0 || parameterIndex >= stream.length) {
+            return "";
+        }
+
+        return stream[parameterIndex][infoKind == INFO_NAME ? 0 : 1];
+    }
+
+    @Override
+    public int countGet(long handle, int streamKind, int streamNumber) {
+        Map<Integer, List<String[][]>> file = openFile(handle);
+        List<String[][]> streams = file == null ? List.of() : file.getOrDefault(streamKind, List.of());
+        if (streamNumber < 0) {
+            return streams.size();
+        }
+
+        return streamNumber < streams.size() ? streams.get(streamNumber).length : 0;
+    }
+
+    private Map<Integer, List<String[][]>> openFile(long handle) {
+        checkHandle(handle);
+        String filePath = openFiles.get(handle);
+        return filePath == null ? null : files.get(filePath);
+    }
+
+    private String[][] stream(long handle, int streamKind, int streamNumber) {
+        Map<Integer, List<String[][]>> file = openFile(handle);
+        List<String[][]> streams = file == null ? List.of() : file.getOrDefault(streamKind, List.of());
+        return streamNumber >= 0 && streamNumber < streams.size() ? streams.get(streamNumber) : null;
+    }
+
+    private void checkHandle(long handle) {
+        if (!options.containsKey(handle) || deletedHandles.contains(handle)) {
+            throw new IllegalStateException("Invalid handle: " + handle);
+        }
+    }
+}
@@ -3,27 +3,53 @@ package de.oppa.mi4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
+import java.lang.management.ManagementFactory;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class MediaInfoParserTest {
 
@@ -61,6 +87,54 @@ public class MediaInfoParserTest {
         assertEquals("AAC LC", audio.getFieldValue("Format"));
     }
 
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("backendNames")
+    @DisplayName("Test parsing a mp4 file with every backend and binding")
+    void parseFileMp4WithBackend(String backendName) throws URISyntaxException, IOException {
+        try (MediaInfoHandlePool pool = new MediaInfoHandlePool(createBackend(backendName, MediaInfoEncoding.fromSystemProperty()), 1)) {
+            MediaInfoParser backendParser = new MediaInfoParser(pool);
+            Path path = getResourcePath("mp4-file.mp4");
+
+            MediaInfo info = backendParser.parseFile(path.toString());
+            assertEquals(3, info.getSections().size());
+            assertEquals("MPEG-4", info.getSection(SectionType.GENERAL.getName()).getFieldValue("Format"));
+            assertEquals("AVC", info.getSection(SectionType.VIDEO.getName()).getFieldValue("Format"));
+            assertEquals("AAC LC", info.getSection(SectionType.AUDIO.getName()).getFieldValue("Format"));
+
+            FieldQuery.Result result = backendParser.query(path.toString(), FieldQuery.of(FieldQuery.Parameter.of(SectionType.VIDEO, "Format")));
+            assertEquals("AVC", result.getValue(0));
+
+            MediaInfo fromBuffer = backendParser.parse(ByteBuffer.wrap(Files.readAllBytes(path)));
+            assertEquals("AVC", fromBuffer.getSection(SectionType.VIDEO.getName()).getFieldValue("Format"));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("backendNames")
+    @DisplayName("Test parsing a file with a non-ASCII name in every encoding")
+    void parseFileNonAsciiName(String backendName) throws URISyntaxException, IOException {
+        String fileName = "\u00c4rger \u2013 \u65e5\u672c\u8a9e \ud83c\udfb5.mp3";
+        // Paths are encoded with the JNU encoding, which may not cover the name
+        Charset pathCharset = Charset.forName(System.getProperty("sun.jnu.encoding", Charset.defaultCharset().name()));
+        assumeTrue(pathCharset.newEncoder().canEncode(fileName), "File names are limited to the platform encoding");
+
+        Path dir = Files.createTempDirectory("mi4j-test");
+        Path path = dir.resolve(fileName);
+        Files.copy(getResourcePath("mp3-file.mp3"), path);
+        try {
+            for (MediaInfoEncoding encoding : MediaInfoEncoding.values()) {
+                try (MediaInfoHandlePool pool = new MediaInfoHandlePool(createBackend(backendName, encoding), 1)) {
+                    MediaInfo info = new MediaInfoParser(pool).parseFile(path.toString());
+                    assertEquals("MPEG Audio", info.getSection(SectionType.AUDIO.getName()).getFieldValue("Format"));
+                    assertEquals(path.toString(), info.getSection(SectionType.GENERAL.getName()).getFieldValue("Complete name"));
+                }
+            }
+        } finally {
+            Files.delete(path);
+            Files.delete(dir);
+        }
+    }
+
     @Test
     @DisplayName("Test successfully parsing of a mp3 file")
     void parseFileMp3() throws URISyntaxException {
@@ -77,6 +151,206 @@ public class MediaInfoParserTest {
         assertEquals("MPEG Audio", audio.getFieldValue("Format"));
     }
 
+    @Test
+    @DisplayName("Test successfully parsing of a mp4 file from a channel")
+    void parseChannelMp4() throws URISyntaxException, IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(getResourcePath("mp4-file.mp4"))) {
+            MediaInfo info = parser.parse(channel);
+            assertNotNull(info);
+
+            assertEquals("MPEG-4", info.getSection(SectionType.GENERAL.getName()).getFieldValue("Format"));
+            assertEquals("AVC", info.getSection(SectionType.VIDEO.getName()).getFieldValue("Format"));
+            assertEquals("AAC LC", info.getSection(SectionType.AUDIO.getName()).getFieldValue("Format"));
+        }
+    }
+
+    @Test
+    @DisplayName("Test successfully parsing of a mp3 file from heap and direct buffers")
+    void parseBufferMp3() throws URISyntaxException, IOException {
+        byte[] data = Files.readAllBytes(getResourcePath("mp3-file.mp3"));
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+
+        for (ByteBuffer buffer : new ByteBuffer[]{ByteBuffer.wrap(data), direct}) {
+            MediaInfo info = parser.parse(buffer);
+            assertNotNull(info);
+            assertEquals("MPEG Audio", info.getSection(SectionType.AUDIO.getName()).getFieldValue("Format"));
+            assertEquals(data.length, buffer.remaining());
+        }
+    }
+
+    @Test
+    @DisplayName("Test successfully parsing of a memory-mapped mp4 file")
+    void parseMappedFileMp4() throws URISyntaxException {
+        MediaInfo info = parser.parseMappedFile(getResourcePath("mp4-file.mp4").toString());
+        assertNotNull(info);
+        assertEquals(3, info.getSections().size());
+        assertEquals("AVC", info.getSection(SectionType.VIDEO.getName()).getFieldValue("Format"));
+
+        assertThrows(MediaInfoParseException.class, () -> parser.parseMappedFile("test.mp4"));
+    }
+
+    @Test
+    @DisplayName("Test parsing a mp4 file with an escalating parse profile")
+    void parseFileMp4WithProfile() throws URISyntaxException {
+        ParseProfile profile = ParseProfile.QUICK
+            .requires(SectionType.VIDEO, "Format", "Does not exist")
+            .escalateTo(ParseProfile.EXHAUSTIVE);
+        MediaInfo info = parser.parseFile(getResourcePath("mp4-file.mp4").toString(), profile);
+
+        assertEquals("AVC", info.getSection(SectionType.VIDEO.getName()).getFieldValue("Format"));
+        assertTrue(profile.isMissingRequiredFields(info));
+        assertEquals("MPEG-4", parser.parseFile(getResourcePath("mp4-file.mp4").toString())
+            .getSection(SectionType.GENERAL.getName()).getFieldValue("Format"));
+    }
+
+    @Test
+    @DisplayName("Test parse profile required fields and escalation")
+    void parseProfileRequiredFields() throws URISyntaxException, IOException {
+        MediaInfo info = getMediaInfoFromText();
+
+        assertFalse(ParseProfile.QUICK.isMissingRequiredFields(info));
+        assertFalse(ParseProfile.QUICK.requires(SectionType.AUDIO, "Format", "Channel(s)").isMissingRequiredFields(info));
+        assertTrue(ParseProfile.QUICK.requires(SectionType.IMAGE, "Format").isMissingRequiredFields(info));
+
+        ParseProfile custom = ParseProfile.STANDARD.withOption("ParseSpeed", "0.8");
+        assertEquals("0.8", custom.getOptions().get("ParseSpeed"));
+        assertEquals("0.5", ParseProfile.STANDARD.getOptions().get("ParseSpeed"));
+        assertNull(custom.getEscalation());
+        assertSame(ParseProfile.EXHAUSTIVE, custom.escalateTo(ParseProfile.EXHAUSTIVE).getEscalation());
+        assertThrows(MediaInfoException.class, () -> custom.withOption("ParseSpeed", null));
+        assertThrows(MediaInfoException.class, () -> custom.escalateTo(null));
+    }
+
+    @Test
+    @DisplayName("Test rendering a mp4 file with an inform template")
+    void informMp4() throws URISyntaxException {
+        InformTemplate template = new InformTemplate(Map.of(
+            SectionType.GENERAL, List.of("Format", "Duration"),
+            SectionType.VIDEO, List.of("Format", "Width")));
+
+        InformTemplate.Result result = parser.inform(getResourcePath("mp4-file.mp4").toString(), template);
+        assertEquals(1, result.getStreamCount(SectionType.VIDEO));
+        assertEquals(0, result.getStreamCount(SectionType.AUDIO));
+        assertEquals("MPEG-4", result.getValue(SectionType.GENERAL, 0, "Format"));
+        assertEquals("AVC", result.getValue(SectionType.VIDEO, 0, 0));
+        assertEquals("AVC", result.toMediaInfo().getSection(SectionType.VIDEO.getName()).getFieldValue("Format"));
+    }
+
+    @Test
+    @DisplayName("Test decoding the output of an inform template")
+    void decodeInformTemplate() {
+        InformTemplate template = new InformTemplate(Map.of(
+            SectionType.GENERAL, List.of("Format"),
+            SectionType.AUDIO, List.of("Format", "Channel(s)", "Language")));
+        assertTrue(template.getTemplate().contains("Audio;"));
+        assertTrue(template.getTemplate().contains("%Channel(s)%"));
+
+        String output = "\u001EGeneral\u001F0\u001F1\u001FMatroska\n"
+            + "\u001EAudio\u001F0\u001F2\u001FDTS\u001F6\u001Fen\n"
+            + "\u001EAudio\u001F1\u001F2\u001FAC-3\u001F2\u001F\n";
+        InformTemplate.Result result = template.decode(output);
+
+        assertEquals(2, result.getStreamCount(SectionType.AUDIO));
+        assertEquals("6", result.getValue(SectionType.AUDIO, 0, "Channel(s)"));
+        assertNull(result.getValue(SectionType.AUDIO, 1, "Language"));
+        assertEquals(List.of("DTS", "AC-3"), result.map(SectionType.AUDIO, values -> values[0]));
+
+        MediaInfo info = result.toMediaInfo();
+        assertEquals("Matroska", info.getSection("General").getFieldValue("Format"));
+        assertEquals("AC-3", info.getSection("Audio #2").getFieldValue("Format"));
+        assertFalse(info.getSection("Audio #2").hasField("Language"));
+
+        assertThrows(MediaInfoParseException.class, () -> template.decode("\u001EAudio\u001F0\u001F1\u001FDTS"));
+        assertThrows(MediaInfoParseException.class, () -> template.decode("\u001EVideo\u001F0\u001F1\u001FAVC"));
+        assertThrows(MediaInfoException.class, () -> InformTemplate.of(SectionType.VIDEO, "%Width%"));
+    }
+
+    @Test
+    @DisplayName("Test querying single parameters of a mp4 file")
+    void queryMp4() throws URISyntaxException {
+        FieldQuery query = FieldQuery.of(
+            FieldQuery.Parameter.of(SectionType.GENERAL, "Format"),
+            FieldQuery.Parameter.of(SectionType.VIDEO, "Format"),
+            FieldQuery.Parameter.of(SectionType.AUDIO, "Format"),
+            FieldQuery.Parameter.of(SectionType.TEXT, "Format"));
+        String filePath = getResourcePath("mp4-file.mp4").toString();
+
+        for (int i = 0; i < 2; i++) {
+            FieldQuery.Result result = parser.query(filePath, query);
+            assertEquals(4, result.size());
+            assertEquals("MPEG-4", result.getValue(0));
+            assertEquals("AVC", result.getValue(SectionType.VIDEO, 0, "Format"));
+            assertTrue(result.getValue(2).startsWith("AAC"));
+            assertNull(result.getValue(3));
+        }
+    }
+
+    @Test
+    @DisplayName("Test querying files whose dynamic parameters differ")
+    void queryDynamicParameters() {
+        FakeMediaInfoBackend backend = new FakeMediaInfoBackend();
+        int general = SectionType.GENERAL.getStreamKind();
+        int audio = SectionType.AUDIO.getStreamKind();
+        backend.addFile("first.mkv", general, new String[][]{{"Format", "Matroska"}, {"Encoder", "first"}});
+        backend.addFile("first.mkv", audio,
+            new String[][]{{"Format", "AAC"}, {"Language", "en"}},
+            new String[][]{{"Format", "AC-3"}, {"Title", "Commentary"}, {"Language", "de"}});
+        backend.addFile("second.mkv", general,
+            new String[][]{{"Format", "Matroska"}, {"Muxer", "mkvmerge"}, {"Tagged", "Yes"}, {"Encoder", "second"}});
+        backend.addFile("second.mkv", audio, new String[][]{{"Format", "DTS"}, {"Title", "Main"}, {"Language", "fr"}});
+        backend.setStaticParameters(SectionType.GENERAL, "Format");
+        backend.setStaticParameters(SectionType.AUDIO, "Format");
+
+        FieldQuery query = FieldQuery.of(
+            FieldQuery.Parameter.of(SectionType.GENERAL, "Format"),
+            FieldQuery.Parameter.of(SectionType.GENERAL, "Encoder"),
+            FieldQuery.Parameter.of(SectionType.AUDIO, "Format"),
+            FieldQuery.Parameter.of(SectionType.AUDIO, "Language"),
+            new FieldQuery.Parameter(SectionType.AUDIO, 1, "Language"));
+        MediaInfoParser fakeParser = new MediaInfoParser(new MediaInfoHandlePool(backend, 1));
+
+        for (int i = 0; i < 2; i++) {
+            assertArrayEquals(new String[]{"Matroska", "first", "AAC", "en", "de"}, fakeParser.query("first.mkv", query).getValues());
+            assertArrayEquals(new String[]{"Matroska", "second", "DTS", "fr", null}, fakeParser.query("second.mkv", query).getValues());
+        }
+
+        // Once resolved, each value is a single call, static parameters by index and dynamic ones by name
+        int getCount = backend.getGetCount();
+        fakeParser.query("first.mkv", query);
+        assertEquals(getCount + 5, backend.getGetCount());
+    }
+
+    @Test
+    @DisplayName("Test lazy access to a mp4 file through a session")
+    void openSessionMp4() throws URISyntaxException {
+        try (MediaInfoSession session = parser.open(getResourcePath("mp4-file.mp4").toString())) {
+            assertTrue(session.hasSection(SectionType.GENERAL));
+            assertTrue(session.hasSection(SectionType.VIDEO));
+            assertFalse(session.hasSection(SectionType.TEXT));
+            assertEquals(1, session.getSections(SectionType.AUDIO).size());
+
+            MediaInfoSession.LazySection video = session.getSection(SectionType.VIDEO.getName());
+            assertNotNull(video);
+            assertEquals("AVC", video.getFieldValue("Format"));
+            assertTrue(video.hasField("Width"));
+            assertFalse(video.hasField("test"));
+            assertEquals("MPEG-4", session.getFieldValue(SectionType.GENERAL, "Format"));
+            assertNull(session.getSection("Audio #2"));
+
+            session.close();
+            assertThrows(MediaInfoException.class, () -> session.getSections(SectionType.AUDIO));
+        }
+
+        assertThrows(MediaInfoParseException.class, () -> parser.open("test.mp4"));
+    }
+
+    @Test
+    @DisplayName("Test should fail parsing a null channel or buffer")
+    void parseNullChannelOrBuffer() {
+        assertThrows(MediaInfoParseException.class, () -> parser.parse((SeekableByteChannel) null));
+        assertThrows(MediaInfoParseException.class, () -> parser.parse((ByteBuffer) null));
+    }
+
     @Test
     @DisplayName("Test should fail parsing a null file")
     void parseFileNullFile() {
@@ -131,10 +405,621 @@ public class MediaInfoParserTest {
         assertEquals("00:00:00.000", menu.getFieldValue("ChapterTimestamp 1"));
     }
 
+    @Test
+    @DisplayName("Test parsing numbered section headers of all types")
+    void parseDataSectionHeaders() {
+        String data = "General\r\nFormat : Matroska\r\n\r\nVideo #1\r\nFormat : AVC\r\n\r\nVideo #2\r\nFormat : HEVC\r\n\r\n"
+            + "Image #1\nFormat : PNG\n\nOther #1\nType : Time code\n\nMenu #1\n00:00:00.000 : en:Intro\n"
+            + "00:05:00.000\t: en:Main\n\nAudio #\nFormat : AAC\n";
+        MediaInfo info = parser.parseData(data);
+
+        assertEquals("HEVC", info.getSection("Video #2").getFieldValue("Format"));
+        assertEquals(SectionType.IMAGE, SectionType.fromName("Image #1"));
+        assertEquals("PNG", info.getSection(SectionType.IMAGE, "Image #1").getFieldValue("Format"));
+        assertEquals("Time code", info.getSection(SectionType.OTHER, "Other #1").getFieldValue("Type"));
+
+        Section menu = info.getSection(SectionType.MENU, "Menu #1");
+        assertEquals("2", menu.getFieldValue("ChapterCount"));
+        assertEquals("00:05:00.000", menu.getFieldValue("ChapterTimestamp 2"));
+        assertEquals(": en:Main", menu.getFieldValue("ChapterName 2"));
+        assertFalse(info.hasSection("Audio #"));
+
+        assertEquals(SectionType.AUDIO, SectionType.fromName(" audio  #3"));
+        assertEquals(SectionType.OTHER, SectionType.fromName("Chapters"));
+    }
+
+    @Test
+    @DisplayName("Test parsing a full media info data from a reader, a stream and pushed chunks")
+    void parseDataStreaming() throws URISyntaxException, IOException {
+        Path path = getResourcePath("full.txt");
+        String expected = getMediaInfoFromText().toString();
+
+        try (Reader reader = Files.newBufferedReader(path)) {
+            assertEquals(expected, parser.parseReader(reader).toString());
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            assertEquals(expected, parser.parseStream(in, StandardCharsets.UTF_8).toString());
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            MediaInfo filtered = parser.parseStream(in, StandardCharsets.UTF_8, FieldFilter.of("Format"));
+            assertEquals(Set.of("Format"), filtered.getFieldNames(SectionType.GENERAL));
+        }
+
+        // Split inside lines, line breaks and multi-byte characters
+        byte[] bytes = Files.readString(path).replace("\n", "\r\n").replace("Ignition", "Igniti\u00f3n")
+            .getBytes(StandardCharsets.UTF_8);
+        IncrementalReportParser incremental = new IncrementalReportParser(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += 7) {
+            incremental.feed(ByteBuffer.wrap(bytes, offset, Math.min(7, bytes.length - offset)));
+        }
+        MediaInfo info = incremental.finish();
+        assertEquals(expected.replace("Ignition", "Igniti\u00f3n"), info.toString());
+        assertThrows(MediaInfoParseException.class, incremental::finish);
+        assertThrows(MediaInfoParseException.class, () -> incremental.feed("General"));
+        assertThrows(MediaInfoParseException.class, () -> incremental.feed(new char[1], 0, 1));
+
+        assertThrows(MediaInfoParseException.class, () -> parser.parseReader(new StringReader("")));
+        assertThrows(MediaInfoParseException.class, () -> parser.parseReader(new StringReader("test")));
+    }
+
+    @Test
+    @DisplayName("Test should report the parsed data to a handler")
+    void parseDataHandler() throws URISyntaxException, IOException {
+        String data = Files.readString(getResourcePath("full.txt"));
+        List<String> sections = new ArrayList<>();
+        List<Long> chapterStarts = new ArrayList<>();
+        int[] counts = new int[2];
+
+        parser.parseData(data, new MediaInfoHandler() {
+            @Override
+            public void onSectionStart(SectionType type, String name) {
+                sections.add(name);
+            }
+
+            @Override
+            public void onField(CharSequence key, CharSequence value) {
+                counts[0]++;
+            }
+
+            @Override
+            public void onChapter(long startMillis, CharSequence title) {
+                chapterStarts.add(startMillis);
+                if (startMillis == 688_688L) {
+                    assertEquals(": en:Surprise!", title.toString());
+                }
+            }
+
+            @Override
+            public void onSectionEnd() {
+                counts[1]++;
+            }
+        });
+
+        assertEquals(List.of("General", "Video", "Audio #1", "Audio #2", "Text #1", "Text #2", "Menu"), sections);
+        assertEquals(7, counts[1]);
+        assertEquals(19, chapterStarts.size());
+        assertEquals(6_032_026L, (long) chapterStarts.get(18));
+        assertEquals("01:40:32.026", parser.parseData(data).getSection(SectionType.MENU, "Menu").getFieldValue("ChapterTimestamp 19"));
+
+        // Stop once the video format is known
+        String[] format = new String[1];
+        parser.parseReader(new StringReader(data), new MediaInfoHandler() {
+            private SectionType current;
+
+            @Override
+            public void onSectionStart(SectionType type, String name) {
+                current = type;
+            }
+
+            @Override
+            public void onField(CharSequence key, CharSequence value) {
+                counts[0]--;
+                if (current == SectionType.VIDEO && "Format".contentEquals(key)) {
+                    format[0] = value.toString();
+                }
+            }
+
+            @Override
+            public boolean isDone() {
+                return format[0] != null;
+            }
+        });
+
+        assertEquals("HEVC", format[0]);
+        assertTrue(counts[0] > 0);
+        assertThrows(MediaInfoParseException.class, () -> parser.parseData(data, (MediaInfoHandler) null));
+        assertThrows(MediaInfoParseException.class, () -> parser.parseData("test", new MediaInfoHandler() {}));
+    }
+
+    @Test
+    @DisplayName("Test should keep only the fields accepted by a filter")
+    void parseDataFiltered() throws URISyntaxException, IOException {
+        String data = Files.readString(getResourcePath("full.txt"));
+        MediaInfo full = parser.parseData(data);
+
+        MediaInfo info = parser.parseData(data, FieldFilter.of("Format", "Duration"));
+        assertEquals(full.getSections().keySet(), info.getSections().keySet());
+        assertEquals(Set.of("Duration", "Format"), Set.copyOf(info.getFieldNames(SectionType.GENERAL, "General")));
+        assertEquals(full.getSection(SectionType.VIDEO, "Video").getFieldValue("Format"), info.getSection(SectionType.VIDEO, "Video").getFieldValue("Format"));
+        assertNull(info.getSection(SectionType.MENU, "Menu").getFieldValue("ChapterCount"));
+
+        info = parser.parseReader(new StringReader(data), FieldFilter.of(Map.of(
+            SectionType.AUDIO, Set.of("Language"), SectionType.MENU, Set.of(FieldFilter.CHAPTERS))));
+        assertEquals(full.getSection(SectionType.AUDIO, "Audio #1").getFieldValue("Language"), info.getSection(SectionType.AUDIO, "Audio #1").getFieldValue("Language"));
+        assertTrue(info.getFieldNames(SectionType.GENERAL, "General").isEmpty());
+        assertEquals("19", info.getSection(SectionType.MENU, "Menu").getFieldValue("ChapterCount"));
+        assertEquals(full.getSection(SectionType.MENU, "Menu").getFieldValue("ChapterName 3"), info.getSection(SectionType.MENU, "Menu").getFieldValue("ChapterName 3"));
+
+        info = parser.parseData(data, FieldFilter.matching((type, name) -> type == SectionType.TEXT && name.startsWith("Title")));
+        assertEquals(full.getSection(SectionType.TEXT, "Text #2").getFieldValue("Title"), info.getSection(SectionType.TEXT, "Text #2").getFieldValue("Title"));
+        assertTrue(info.getFieldNames(SectionType.VIDEO, "Video").isEmpty());
+
+        assertEquals(full.toString(), parser.parseData(data, FieldFilter.ALL).toString());
+        assertThrows(MediaInfoParseException.class, () -> parser.parseData(data, (FieldFilter) null));
+        assertThrows(MediaInfoException.class, () -> FieldFilter.of("Format", null));
+    }
+
+    @Test
+    @DisplayName("Test should provide typed values of the raw variants")
+    void parseDataTypedFields() throws URISyntaxException, IOException {
+        MediaInfo info = parser.parseData(Files.readString(getResourcePath("full.txt")));
+
+        Section general = info.getSection("General");
+        assertEquals("01:47:34.865 (01:47:28:10)", general.getFieldValue("Duration"));
+        assertEquals(6_454_865L, general.getLong(Field.DURATION));
+        assertEquals(5_765_482L, general.getLong(Field.OVERALL_BIT_RATE));
+        assertEquals(4_651_925_736L, general.getLong(Field.FILE_SIZE));
+
+        // Values beyond the int range are rejected instead of wrapping around
+        String report = Files.readString(getResourcePath("full.txt"));
+        assertThrows(MediaInfoException.class, () -> info.getSection("General").getInt(Field.FILE_SIZE));
+        assertThrows(MediaInfoException.class, () -> parser.parseView(report).getInt(0, Field.FILE_SIZE));
+        parser.parseBatch(List.of(report), buffer -> assertThrows(MediaInfoException.class, () -> buffer.getInt(0, Field.FILE_SIZE)));
+        assertEquals(1920, parser.parseView(report).getInt(1, Field.WIDTH));
+
+        Section video = info.getSection("Video");
+        assertEquals(1920, video.getInt(Field.WIDTH));
+        assertEquals(816, video.getInt(Field.HEIGHT));
+        assertEquals(23.976, video.getDouble(Field.FRAME_RATE));
+        assertEquals(-1, video.getInt(Field.SAMPLING_RATE));
+        assertTrue(Double.isNaN(video.getDouble(Field.CHANNELS)));
+
+        Section audio = info.getSection("Audio #1");
+        assertEquals(48_000, audio.getInt(Field.SAMPLING_RATE));
+        assertEquals(6, audio.getInt(Field.CHANNELS));
+
+        // Short reports only contain the human readable variants
+        general = parser.parseData("""
+            General
+            Duration : 1 h 47 min 34 s 865 ms
+            Overall bit rate : 5 765 kb/s
+            File size : 4.33 GiB
+            Frame rate : 23.976 (24000/1001) FPS
+            """).getSection("General");
+        assertEquals(6_454_865L, general.getLong(Field.DURATION));
+        assertEquals(5_765_000L, general.getLong(Field.OVERALL_BIT_RATE));
+        assertEquals(4_649_302_098L, general.getLong(Field.FILE_SIZE));
+        assertEquals(23.976, general.getDouble(Field.FRAME_RATE));
+
+        Section section = new Section("General");
+        section.addFieldValue("Duration", "5 s 250 ms");
+        assertEquals(5250L, section.getLong(Field.DURATION));
+        section.addFieldValue("Duration", "01:00:00.500");
+        assertEquals(3_600_500L, section.getLong(Field.DURATION));
+        assertThrows(MediaInfoException.class, () -> audio.getLong(null));
+    }
+
+    @Test
+    @DisplayName("Test should store catalog and unknown fields in name order")
+    void sectionFieldKeys() {
+        FieldKey format = FieldKey.of(new StringBuilder("Format"));
+        assertNotNull(format);
+        assertSame(format, FieldKey.of("Format"));
+        assertTrue(format.getSectionTypes().contains(SectionType.AUDIO));
+        assertTrue(FieldKey.values(SectionType.MENU).contains(FieldKey.of("Chapters_Pos_Begin")));
+        assertNull(FieldKey.of("Custom field"));
+
+        Section section = new Section("General");
+        section.addFieldValue("Format", "Matroska");
+        section.addFieldValue("Custom field", "1");
+        section.addFieldValue("Bit rate", "5 765 kb/s");
+        section.addFieldValue("Zzz", "2");
+        section.addFieldValue("Format", "MKV");
+
+        assertEquals("MKV", section.getFieldValue("Format"));
+        assertEquals("1", section.getFieldValue("Custom field"));
+        assertTrue(section.hasField("Zzz"));
+        assertFalse(section.hasField("Duration"));
+        assertEquals(List.of("Bit rate", "Custom field", "Format", "Zzz"), List.copyOf(section.getFieldNames()));
+        assertEquals(List.of("5 765 kb/s", "1", "MKV", "2"), section.getValues());
+        assertEquals("Section[fieldToValue={Bit rate=5 765 kb/s, Custom field=1, Format=MKV, Zzz=2}]", section.toString());
+
+        // Storage is sized by the keys of the section type, keys of other types overflow in name order
+        assertEquals(FieldKey.values(SectionType.MENU).size(), FieldKey.count(SectionType.MENU));
+        assertTrue(FieldKey.count(SectionType.MENU) < FieldKey.count());
+        assertEquals(-1, FieldKey.of("Width").getOrdinal(SectionType.MENU));
+        Section menu = new Section("Menu #1");
+        menu.addFieldValue("Width", "1920");
+        menu.addFieldValue("Format", "Timed Text");
+        menu.addFieldValue("Aaa", "0");
+        assertEquals(List.of("Aaa", "Format", "Width"), List.copyOf(menu.getFieldNames()));
+        assertEquals("1920", menu.getFieldValue("Width"));
+        menu.compact();
+        assertEquals("1920", menu.getFieldValue("Width"));
+        assertEquals("Timed Text", menu.getFieldValue("Format"));
+    }
+
+    @Test
+    @DisplayName("Test should share repeated values through a value interner")
+    void parseDataValueInterner() throws URISyntaxException, IOException {
+        String data = Files.readString(getResourcePath("full.txt"));
+        ValueInterner interner = new ValueInterner();
+        MediaInfoParser internParser = new MediaInfoParser(null, interner);
+
+        MediaInfo first = internParser.parseData(data);
+        MediaInfo second = internParser.parseData(data);
+        assertEquals(parser.parseData(data).toString(), second.toString());
+        assertSame(first.getSection("Video").getFieldValue("Format"), second.getSection("Video").getFieldValue("Format"));
+        assertSame(first.getSection("Audio #1").getFieldValue("Language"), second.getSection("Audio #2").getFieldValue("Language"));
+        assertNotSame(first.getSection("General").getFieldValue("Complete name"), second.getSection("General").getFieldValue("Complete name"));
+        assertTrue(interner.getHitCount() > interner.getMissCount());
+        assertEquals(0, interner.getEvictionCount());
+
+        // Per-file values are copied and never take the place of shared ones
+        ValueInterner defaults = new ValueInterner(ValueInterner.DEFAULT_MAX_SIZE / 256);
+        String english = defaults.intern("Language", "English");
+        String layout = defaults.intern("Channel layout", "L R C LFE Ls Rs");
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder duration = new StringBuilder().append(i).append(" min ").append(i % 60).append(" s");
+            assertNotSame(defaults.intern("Duration", duration), defaults.intern("Duration", duration));
+            defaults.intern("File size", i + " MiB");
+            defaults.intern("Stream size", String.valueOf(i * 1024L));
+            defaults.intern("FrameCount", String.valueOf(i));
+            defaults.intern("Overall bit rate", i + " kb/s");
+        }
+        assertSame(english, defaults.intern("Language", new StringBuilder("English")));
+        assertSame(layout, defaults.intern("ChannelLayout", new StringBuilder("L R C LFE Ls Rs")));
+        assertEquals(2, defaults.size());
+        assertEquals(0, defaults.getEvictionCount());
+
+        // Values seen once are evicted before the ones in use
+        ValueInterner small = new ValueInterner(256, 8, Set.of("Format", "Unique ID"));
+        String shared = small.intern("Format", "AVC");
+        for (int i = 0; i < 1000; i++) {
+            assertSame(shared, small.intern("Format", new StringBuilder("AVC")));
+            small.intern("Unique ID", String.valueOf(i));
+        }
+        assertEquals(256, small.size());
+        assertEquals(1001 - 256, small.getEvictionCount());
+        assertEquals("1234567890", small.intern("Format", "1234567890"));
+        assertThrows(MediaInfoException.class, () -> new ValueInterner(1));
+    }
+
+    @Test
+    @DisplayName("Test should share the field layout of equal sections")
+    void parseDataSectionShapes() throws URISyntaxException, IOException {
+        String data = Files.readString(getResourcePath("full.txt"));
+        MediaInfo first = parser.parseData(data);
+        MediaInfo second = parser.parseData(data);
+
+        Section section = second.getSection("Audio #2");
+        assertNotNull(section.getShape());
+        assertSame(first.getSection("Audio #2").getShape(), section.getShape());
+        assertEquals(first.toString(), second.toString());
+
+        MediaInfo copy = second.freeze();
+        assertSame(second, copy);
+        assertThrows(MediaInfoException.class, () -> section.addFieldValue("Format", "E-AC-3"));
+
+        // A modified section keeps its shape until a field outside of it is added
+        Section left = new Section("Audio");
+        Section right = new Section("Audio");
+        for (Section target : List.of(left, right)) {
+            target.addFieldValue("Format", "AC-3");
+            target.addFieldValue("Custom field", "0");
+            target.compact();
+        }
+        assertSame(left.getShape(), right.getShape());
+
+        right.addFieldValue("Format", "E-AC-3");
+        assertSame(left.getShape(), right.getShape());
+        assertEquals("AC-3", left.getFieldValue("Format"));
+
+        right.addFieldValue("Another field", "1");
+        assertNull(right.getShape());
+        assertEquals(List.of("Another field", "Custom field", "Format"), List.copyOf(right.getFieldNames()));
+        assertEquals("E-AC-3", right.getFieldValue("Format"));
+        assertEquals("1", right.getFieldValue("Another field"));
+
+        // Chapter fields stay out of the shape
+        Section menu = new Section("Menu");
+        menu.addFieldValue("Format", "Timed Text");
+        menu.addFieldValue("ChapterName 1", "Intro");
+        menu.addFieldValue("ChapterTimestamp 1", "00:00:00.000");
+        menu.compact();
+        assertEquals(1, menu.getShape().size());
+        assertEquals(List.of("ChapterName 1", "ChapterTimestamp 1", "Format"), List.copyOf(menu.getFieldNames()));
+        Section longerMenu = new Section("Menu");
+        longerMenu.addFieldValue("Format", "Timed Text");
+        for (int i = 1; i <= 3; i++) {
+            longerMenu.addFieldValue("ChapterName " + i, "Chapter " + i);
+        }
+        longerMenu.compact();
+        assertSame(menu.getShape(), longerMenu.getShape());
+        longerMenu.addFieldValue("ChapterName 4", "Credits");
+        assertSame(menu.getShape(), longerMenu.getShape());
+        assertEquals("Credits", longerMenu.copy().getFieldValue("ChapterName 4"));
+
+        // The cache evicts shapes not used since the last sweep, the ones in use stay shared
+        SectionShape hot = SectionShape.of(SectionType.AUDIO, new String[]{"Format"});
+        for (int i = 0; i < SectionShape.MAX_CACHED_SHAPES * 2; i++) {
+            SectionShape.of(SectionType.OTHER, new String[]{"Field " + i});
+            assertSame(hot, SectionShape.of(SectionType.AUDIO, new String[]{"Format"}));
+        }
+        assertEquals(SectionShape.MAX_CACHED_SHAPES, SectionShape.cachedShapeCount());
+        assertSame(SectionShape.of(SectionType.OTHER, new String[]{"Late field"}), SectionShape.of(SectionType.OTHER, new String[]{"Late field"}));
+    }
+
+    @Test
+    @DisplayName("Test should return frozen snapshots from the parser")
+    void parseDataFrozen() throws URISyntaxException, IOException, InterruptedException {
+        MediaInfo info = parser.parseData(Files.readString(getResourcePath("full.txt")));
+        assertTrue(info.isFrozen());
+        assertTrue(info.getSection("Video").isFrozen());
+        assertSame(info.getSectionNames(), info.getSectionNames());
+        assertSame(info.getFieldNames(), info.getFieldNames());
+        assertTrue(info.getFieldNames().contains("Chapters_Pos_Begin"));
+        assertSame(info.getSection("Video"), info.getOrCreateSection(SectionType.VIDEO, "Video"));
+        assertThrows(MediaInfoException.class, () -> info.getOrCreateSection(SectionType.IMAGE, "Image"));
+        assertThrows(UnsupportedOperationException.class, () -> info.getSections(SectionType.AUDIO).clear());
+
+        // Readers on other threads see the same values without locking
+        long[] durations = new long[4];
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < durations.length; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> durations[index] = info.getSection("General").getLong(Field.DURATION));
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(List.of(6_454_865L, 6_454_865L, 6_454_865L, 6_454_865L), Arrays.stream(durations).boxed().toList());
+
+        // Every way to build a snapshot freezes its sections in the snapshot constructor, which publishes them
+        String data = Files.readString(getResourcePath("full.txt"));
+        MediaInfoBuffer buffer = new MediaInfoBuffer();
+        parser.parseData(data, buffer);
+        IncrementalReportParser incremental = new IncrementalReportParser();
+        incremental.feed(data);
+        List<MediaInfo> snapshots = List.of(buffer.toMediaInfo(), parser.parseView(data).toMediaInfo(), incremental.finish(),
+            parser.parseReader(new StringReader(data)), MediaInfo.fromData(data).freeze());
+        String[] others = new String[snapshots.size()];
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < others.length; i++) {
+                others[i] = snapshots.get(i).toString();
+            }
+        });
+        reader.start();
+        reader.join();
+        for (int i = 0; i < others.length; i++) {
+            MediaInfo snapshot = snapshots.get(i);
+            assertTrue(snapshot.isFrozen());
+            assertTrue(snapshot.getSectionNames().stream().allMatch(name -> snapshot.getSection(name).isFrozen()));
+            assertEquals(info.toString(), others[i]);
+        }
+
+        // Freezing a mutable instance leaves it mutable and independent
+        MediaInfo mutable = new MediaInfo();
+        mutable.getOrCreateSection(SectionType.GENERAL, "General").addFieldValue("Format", "MPEG-4");
+        MediaInfo snapshot = mutable.freeze();
+        mutable.getSection("General").addFieldValue("Format", "QuickTime");
+        assertFalse(mutable.isFrozen());
+        assertEquals("MPEG-4", snapshot.getSection("General").getFieldValue("Format"));
+        assertEquals(Set.of("General"), snapshot.getSectionNames());
+    }
+
+    @Test
+    @DisplayName("Test should answer name based queries from the snapshot indexes")
+    void parseDataIndexes() throws URISyntaxException, IOException {
+        MediaInfo info = parser.parseData(Files.readString(getResourcePath("full.txt")));
+
+        assertSame(info.getSection(SectionType.AUDIO, "Audio #2"), info.getSection("Audio #2"));
+        assertTrue(info.hasSection("Audio #2"));
+        assertFalse(info.hasSection("Audio #9"));
+        assertFalse(info.hasFieldName(SectionType.AUDIO, "Audio #9", "Format"));
+        assertEquals(Set.of(), info.getFieldNames(SectionType.AUDIO, "Audio #9"));
+        assertTrue(info.hasFieldName("Chapters_Pos_Begin"));
+        assertFalse(info.hasFieldName("Unknown field"));
+        assertSame(info.getFieldNames(SectionType.AUDIO), info.getFieldNames(SectionType.AUDIO));
+        assertTrue(info.getFieldNames(SectionType.AUDIO).contains("Channel(s)"));
+
+        List<Section> sections = info.getSectionsWithField("Language");
+        assertEquals(info.getSections().values().stream()
+            .flatMap(map -> map.values().stream())
+            .filter(section -> section.hasField("Language"))
+            .toList(), sections);
+        assertEquals(List.of(), info.getSectionsWithField("Unknown field"));
+
+        Section general = info.getSection("General");
+        assertArrayEquals(new String[]{general.getFieldValue("Format"), null, general.getFieldValue("Duration")},
+            info.getFieldValues(SectionType.GENERAL, "Format", "Unknown field", "Duration"));
+        assertArrayEquals(new String[]{null}, info.getFieldValues(SectionType.IMAGE, "Format"));
+
+        // Mutable instances answer the same queries without indexes
+        MediaInfo mutable = new MediaInfo();
+        mutable.getOrCreateSection(SectionType.GENERAL, "General").addFieldValue("Format", "Matroska");
+        assertTrue(mutable.hasFieldName("Format"));
+        assertFalse(mutable.hasFieldName(SectionType.GENERAL, "General #2", "Format"));
+        assertEquals(List.of(mutable.getSection("General")), mutable.getSectionsWithField("Format"));
+        assertArrayEquals(new String[]{"Matroska"}, mutable.getFieldValues(SectionType.GENERAL, "Format"));
+    }
+
+    @Test
+    @DisplayName("Test should parse menu chapters into typed chapters")
+    void parseDataChapters() throws URISyntaxException, IOException {
+        MediaInfo info = parser.parseData(Files.readString(getResourcePath("full.txt")));
+        Section menu = info.getSection(SectionType.MENU, "Menu");
+        Chapters chapters = menu.getChapters();
+
+        assertEquals(19, chapters.size());
+        assertEquals(6_032_026L, chapters.getStartMillis(18));
+        assertEquals(menu.getFieldValue("ChapterName 3"), chapters.getTitle(2));
+        assertEquals(-1, chapters.indexAt(-1));
+        assertEquals(0, chapters.indexAt(0));
+        assertEquals(18, chapters.indexAt(Long.MAX_VALUE));
+        assertEquals(2, chapters.indexAt(chapters.getStartMillis(3) - 1));
+        assertEquals(3, chapters.indexAt(chapters.getStartMillis(3)));
+        assertThrows(MediaInfoException.class, () -> chapters.getTitle(19));
+        assertSame(Chapters.EMPTY, info.getSection("General").getChapters());
+
+        // The chapter fields are derived from the chapters, not stored in the section
+        List<String> names = List.copyOf(menu.getFieldNames());
+        assertEquals(names.stream().sorted().toList(), names);
+        assertEquals(names.size(), menu.getFieldValues().size());
+        assertEquals(names.size() - 2 * 19, menu.getShape().size());
+        assertTrue(names.indexOf("ChapterName 10") < names.indexOf("ChapterName 2"));
+        assertEquals(MediaInfoBuilder.formatTimestamp(chapters.getStartMillis(18)), menu.getFieldValue("ChapterTimestamp 19"));
+        assertNull(menu.getFieldValue("ChapterName 0"));
+        assertNull(menu.getFieldValue("ChapterName 03"));
+        assertNull(menu.getFieldValue("ChapterName 20"));
+
+        Section edited = menu.copy();
+        edited.addFieldValue("ChapterName 1", "Intro");
+        assertEquals("Intro", edited.getFieldValue("ChapterName 1"));
+        assertEquals(names, List.copyOf(edited.getFieldNames()));
+
+        // Chapters are numbered across the menu sections
+        MediaInfo menus = parser.parseData("Menu #1\n00:00:00.000 : A\n00:01:00.000 : B\n\nMenu #2\n00:00:00.000 : C\n");
+        assertEquals(": C", menus.getSection(SectionType.MENU, "Menu #2").getFieldValue("ChapterName 3"));
+        assertNull(menus.getSection(SectionType.MENU, "Menu #2").getFieldValue("ChapterName 1"));
+        assertEquals(List.of("ChapterName 3", "ChapterTimestamp 3"), List.copyOf(menus.getSection(SectionType.MENU, "Menu #2").getFieldNames()));
+
+        // Audiobooks may have thousands of chapters
+        StringBuilder data = new StringBuilder("General\nFormat : MPEG-4\n\nMenu\n");
+        for (int i = 0; i < 1500; i++) {
+            data.append(MediaInfoBuilder.formatTimestamp(i * 60_000L)).append(" : Chapter ").append(i + 1).append('\n');
+        }
+        Chapters book = parser.parseData(data.toString()).getSection(SectionType.MENU, "Menu").getChapters();
+        assertEquals(1500, book.size());
+        assertEquals(1234, book.indexAt(1234 * 60_000L + 59_999));
+        assertEquals(": Chapter 1235", book.getTitle(1234));
+
+        // Chapters out of order are sorted by start
+        Chapters.Collector collector = new Chapters.Collector();
+        collector.add(5000, "Second");
+        collector.add(0, "First");
+        Chapters sorted = collector.toChapters();
+        assertArrayEquals(new long[]{0, 5000}, sorted.getStartMillis());
+        assertEquals("First", sorted.getTitle(0));
+        assertEquals("Second", sorted.getTitle(1));
+    }
+
+    @Test
+    @DisplayName("Test should parse batches into reused buffers")
+    void parseBatch() throws URISyntaxException, IOException {
+        String data = Files.readString(getResourcePath("full.txt"));
+        MediaInfo expected = parser.parseData(data);
+        Section general = expected.getSection("General");
+
+        List<String> names = new ArrayList<>();
+        parser.parseBatch(List.of(data, "Video #2\nFormat : AVC\nWidth : 1 920 pixels\n"), buffer -> {
+            names.add(buffer.getSectionName(0));
+            if (buffer.getSectionCount() == 1) {
+                assertEquals("AVC", buffer.getFieldValue(0, "Format"));
+                assertEquals(1920, buffer.getInt(0, Field.WIDTH));
+                assertEquals(-1, buffer.indexOf(SectionType.GENERAL));
+                return;
+            }
+
+            int section = buffer.indexOf(SectionType.GENERAL);
+            assertEquals(expected.getSections().values().stream().mapToInt(Map::size).sum(), buffer.getSectionCount());
+            assertEquals(general.getFieldValue("Format"), buffer.getFieldValue(section, "Format"));
+            assertEquals(general.getFieldValue("Complete name"), buffer.getFieldValue(section, "Complete name"));
+            assertEquals(general.getLong(Field.DURATION), buffer.getLong(section, Field.DURATION));
+            assertFalse(buffer.hasField(section, "Unknown field"));
+
+            int menu = buffer.indexOf("Menu");
+            assertEquals(19, buffer.getChapterCount(menu));
+            assertEquals(6_032_026L, buffer.getChapterStartMillis(menu, 18));
+            assertEquals(expected.getSection("Menu").getFieldValue("ChapterName 19"), buffer.getChapterTitle(menu, 18));
+            assertEquals(expected.toString(), buffer.toMediaInfo().toString());
+        });
+        assertEquals(List.of("General", "Video #2"), names);
+
+        MediaInfoBuffer buffer = new MediaInfoBuffer(FieldFilter.of("Format"));
+        parser.parseData(data, buffer);
+        assertEquals("Matroska", buffer.getFieldValue(0, "Format"));
+        assertNull(buffer.getFieldValue(0, "Duration"));
+        buffer.reset();
+        assertEquals(0, buffer.getSectionCount());
+
+        assertThrows(MediaInfoParseException.class, () -> parser.parseBatch(Collections.singletonList(null), b -> {
+        }));
+    }
+
+    @Test
+    @DisplayName("Test should not allocate per report when parsing batches")
+    void parseBatchAllocation() throws URISyntaxException, IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        List<String> batch = Collections.nCopies(200, Files.readString(getResourcePath("full.txt")));
+        long[] durations = new long[1];
+        for (int i = 0; i < 20; i++) {
+            parser.parseBatch(batch, buffer -> durations[0] += buffer.getLong(0, Field.DURATION));
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        parser.parseBatch(batch, buffer -> durations[0] += buffer.getLong(0, Field.DURATION));
+        long perReport = (threads.getCurrentThreadAllocatedBytes() - before) / batch.size();
+
+        assertEquals(21L * batch.size() * 6_454_865L, durations[0]);
+        assertTrue(perReport < 1024, "Allocated %d bytes per report".formatted(perReport));
+    }
+
+    @Test
+    @DisplayName("Test should read fields from a view of the report")
+    void parseView() throws URISyntaxException, IOException {
+        String data = Files.readString(getResourcePath("full.txt"));
+        MediaInfo expected = parser.parseData(data);
+        MediaInfoView view = parser.parseView(data);
+
+        assertEquals(expected.getSectionNames().size(), view.getSectionCount());
+        int video = view.indexOf("Video");
+        assertEquals(SectionType.VIDEO, view.getSectionType(video));
+        assertEquals(video, view.indexOf(SectionType.VIDEO));
+        assertTrue(view.getField(video, "Format").toString().contentEquals(expected.getSection("Video").getFieldValue("Format")));
+        assertEquals(expected.getSection("Video").getFieldValue("Width"), view.getFieldValue(video, "Width"));
+        assertEquals(expected.getSection("Video").getLong(Field.WIDTH), view.getLong(video, Field.WIDTH));
+        assertEquals(expected.getSection("General").getLong(Field.DURATION), view.getLong(0, Field.DURATION));
+        assertNull(view.getField(video, "Unknown field"));
+        assertFalse(view.hasField(video, "Unknown field"));
+        assertEquals(-1, view.indexOf("Audio #9"));
+
+        int menu = view.indexOf(SectionType.MENU);
+        Chapters chapters = view.getChapters(menu);
+        assertEquals(19, chapters.size());
+        assertEquals(expected.getSection("Menu").getChapters().getTitle(18), chapters.getTitle(18));
+        assertEquals(expected.toString(), view.toMediaInfo().toString());
+
+        // The last line is read in place, also without a line break
+        MediaInfoView small = parser.parseView("General\r\nFormat : Matroska\r\nDuration : 5000");
+        assertEquals("5000", small.getFieldValue(0, "Duration"));
+        assertEquals(5000, small.getLong(0, Field.DURATION));
+        assertEquals("atr", small.getField(0, "Format").subSequence(1, 4).toString());
+        assertThrows(MediaInfoException.class, () -> small.getSectionName(1));
+        assertThrows(MediaInfoParseException.class, () -> parser.parseView(""));
+        assertThrows(MediaInfoParseException.class, () -> parser.parseView("Format : Matroska"));
+    }
+
     @Test
     @DisplayName("Test should fail parsing a null data")
     void parseDataNullData() {
         assertThrows(MediaInfoParseException.class, () -> parser.parseData(null));
+        assertThrows(MediaInfoParseException.class, () -> parser.parseReader(null));
     }
 
     @Test
@@ -149,6 +1034,39 @@ public class MediaInfoParserTest {
         assertThrows(MediaInfoParseException.class, () -> parser.parseData("test"));
     }
 
+    @Test
+    @DisplayName("Test successfully parsing of a JSON report")
+    void parseJson() {
+        String json = """
+            {"creatingLibrary":{"name":"MediaInfoLib","version":"24.12"},
+             "media":{"@ref":"C:\\\\media\\\\movie.mkv","track":[
+              {"@type":"General","Format":"Matroska","Duration":"5521.000"},
+              {"@type":"Audio","@typeorder":"1","Format":"DTS","Title":"\\"Main\\" \\u00e9"},
+              {"@type":"Audio","@typeorder":"2","Format":"AC-3"},
+              {"@type":"Menu","extra":{"_00_00_00_000":"Chapter 1","_00_11_28_688":"Chapter 2"}}
+             ]}}
+            """;
+
+        MediaInfo info = parser.parseJson(json);
+        assertEquals(3, info.getSections().size());
+        assertEquals("C:\\media\\movie.mkv", info.getSection("General").getFieldValue("Complete name"));
+        assertEquals("Matroska", info.getSection("General").getFieldValue("Format"));
+        assertEquals(5_521_000L, info.getSection("General").getLong(Field.DURATION));
+        assertEquals("DTS", info.getSection("Audio #1").getFieldValue("Format"));
+        assertEquals("\"Main\" \u00e9", info.getSection("Audio #1").getFieldValue("Title"));
+        assertEquals("AC-3", info.getSection("Audio #2").getFieldValue("Format"));
+
+        Section menu = info.getSection(SectionType.MENU.getName());
+        assertEquals("2", menu.getFieldValue("ChapterCount"));
+        assertEquals("00:11:28.688", menu.getFieldValue("ChapterTimestamp 2"));
+        assertEquals("Chapter 2", menu.getFieldValue("ChapterName 2"));
+        assertEquals(688_688L, menu.getChapters().getStartMillis(1));
+        assertEquals("Chapter 2", menu.getChapters().getTitle(1));
+
+        assertThrows(MediaInfoParseException.class, () -> parser.parseJson("{\"media\":{\"track\":[]}}"));
+        assertThrows(MediaInfoParseException.class, () -> parser.parseJson("{\"media\":{\"track\":[{\"@type\":"));
+    }
+
     @Test
     @DisplayName("Testing MediaInfo methods")
     void mediaInfoMethods() throws URISyntaxException, IOException {
@@ -489,6 +1407,348 @@ public class MediaInfoParserTest {
         assertThrows(MediaInfoException.class, () -> info.verifyChecksum(MP4_SHA512_CHECKSUM + 1));
     }
 
+    @Test
+    @DisplayName("Testing pooled handles are reused without growing the idle queue")
+    void handlePoolReuse() {
+        FakeMediaInfoBackend backend = new FakeMediaInfoBackend();
+        try (MediaInfoHandlePool pool = new MediaInfoHandlePool(backend, 2)) {
+            for (int i = 0; i < 100; i++) {
+                try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+                    assertEquals(1, pool.getLeasedCount());
+                    assertTrue(lease.getHandle() != 0);
+                }
+            }
+
+            assertEquals(1, backend.getCreatedCount());
+            assertEquals(1, pool.getSize());
+            assertEquals(1, pool.getQueuedCount());
+            assertEquals(0, pool.getLeasedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing a thread gets back the handle it used last")
+    void handlePoolAffinity() {
+        FakeMediaInfoBackend backend = new FakeMediaInfoBackend();
+        try (MediaInfoHandlePool pool = new MediaInfoHandlePool(backend, 2)) {
+            MediaInfoHandlePool.Lease first = pool.acquire();
+            MediaInfoHandlePool.Lease second = pool.acquire();
+            long firstHandle = first.getHandle();
+            long secondHandle = second.getHandle();
+            assertNotEquals(firstHandle, secondHandle);
+
+            // The first handle is at the head of the idle queue, but the thread used the second last
+            second.close();
+            first.close();
+            try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+                assertEquals(secondHandle, lease.getHandle());
+            }
+            assertEquals(2, pool.getQueuedCount());
+
+            // Another thread takes the head of the idle queue
+            long[] otherHandle = new long[1];
+            Thread other = new Thread(() -> {
+                try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+                    otherHandle[0] = lease.getHandle();
+                }
+            });
+            other.start();
+            assertDoesNotThrow(() -> other.join());
+            assertEquals(firstHandle, otherHandle[0]);
+            assertEquals(2, backend.getCreatedCount());
+            assertEquals(2, pool.getQueuedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing the idle queue stays bounded under concurrent use")
+    void handlePoolBoundedIdleQueue() throws InterruptedException {
+        FakeMediaInfoBackend backend = new FakeMediaInfoBackend();
+        try (MediaInfoHandlePool pool = new MediaInfoHandlePool(backend, 2)) {
+            Thread[] threads = new Thread[4];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+                            lease.getHandle();
+                        }
+                    }
+                });
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertTrue(backend.getCreatedCount() <= 2);
+            assertEquals(backend.getCreatedCount(), pool.getSize());
+            assertTrue(pool.getQueuedCount() <= pool.getSize());
+            assertEquals(0, pool.getLeasedCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Testing closing the pool while a handle is leased")
+    void handlePoolCloseWhileLeased() {
+        FakeMediaInfoBackend backend = new FakeMediaInfoBackend();
+        MediaInfoHandlePool pool = new MediaInfoHandlePool(backend, 2);
+        MediaInfoHandlePool.Lease leased = pool.acquire();
+        MediaInfoHandlePool.Lease idle = pool.acquire();
+        long leasedHandle = leased.getHandle();
+        long idleHandle = idle.getHandle();
+        idle.close();
+
+        pool.close();
+        assertTrue(backend.isDeleted(idleHandle));
+        assertFalse(backend.isDeleted(leasedHandle));
+        assertThrows(MediaInfoException.class, pool::acquire);
+
+        leased.close();
+        assertTrue(backend.isDeleted(leasedHandle));
+        assertEquals(0, pool.getSize());
+        assertThrows(MediaInfoException.class, leased::getHandle);
+    }
+
+    @Test
+    @DisplayName("Testing handles returned while the pool is closed are deleted")
+    void handlePoolCloseWhileReleasing() throws InterruptedException {
+        for (int round = 0; round < 200; round++) {
+            FakeMediaInfoBackend backend = new FakeMediaInfoBackend();
+            MediaInfoHandlePool pool = new MediaInfoHandlePool(backend, 4);
+            List<MediaInfoHandlePool.Lease> leases = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                leases.add(pool.acquire());
+            }
+
+            List<Thread> threads = new ArrayList<>();
+            for (MediaInfoHandlePool.Lease lease : leases) {
+                threads.add(new Thread(lease::close));
+            }
+            threads.add(new Thread(pool::close));
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertEquals(0, pool.getSize());
+            for (long handle = 1; handle <= backend.getCreatedCount(); handle++) {
+                assertTrue(backend.isDeleted(handle));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing leases that are never closed are detected and reclaimed")
+    void handlePoolLeakDetection() throws InterruptedException {
+        FakeMediaInfoBackend backend = new FakeMediaInfoBackend();
+        try (MediaInfoHandlePool pool = new MediaInfoHandlePool(backend, 1)) {
+            leakLease(pool);
+            for (int i = 0; i < 100 && pool.getLeakedCount() == 0; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            assertEquals(1, pool.getLeakedCount());
+            assertEquals(0, pool.getLeasedCount());
+            try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+                assertEquals(1, backend.getCreatedCount());
+                assertFalse(backend.isDeleted(lease.getHandle()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing handles keep their options and profiles set the pool defaults they do not change")
+    void handlePoolKeepsOptions() {
+        FakeMediaInfoBackend backend = new FakeMediaInfoBackend();
+        backend.addFile("first.mkv", SectionType.GENERAL.getStreamKind(), new String[][]{{"Format", "Matroska"}});
+        Map<String, String> defaults = Map.of("Inform", "", "Complete", "1", "ParseSpeed", "0.5");
+
+        try (MediaInfoHandlePool pool = new MediaInfoHandlePool(backend, 1)) {
+            MediaInfoParser fakeParser = new MediaInfoParser(pool);
+            long handle;
+            try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+                handle = lease.getHandle();
+                assertEquals(defaults, backend.getOptions(handle));
+            }
+
+            MediaInfo info = fakeParser.parseFile("first.mkv", ParseProfile.QUICK);
+            assertEquals("Matroska", info.getSection(SectionType.GENERAL.getName()).getFieldValue("Format"));
+            assertEquals(Map.of("Inform", "", "Complete", "0", "ParseSpeed", "0"), backend.getOptions(handle));
+
+            // Repeating a profile costs no native option calls
+            int setOptionCount = backend.getSetOptionCount();
+            fakeParser.parseFile("first.mkv", ParseProfile.QUICK);
+            assertEquals(setOptionCount, backend.getSetOptionCount());
+
+            fakeParser.parseFile("first.mkv", new ParseProfile("speed", Map.of("ParseSpeed", "0.8")));
+            assertEquals(Map.of("Inform", "", "Complete", "1", "ParseSpeed", "0.8"), backend.getOptions(handle));
+            fakeParser.parseFile("first.mkv");
+            assertEquals(defaults, backend.getOptions(handle));
+            assertFalse(backend.isDeleted(handle));
+
+            // An option without a known default cannot be undone, the handle is replaced
+            fakeParser.parseFile("first.mkv", ParseProfile.QUICK.withOption("Cover_Data", "base64"));
+            assertTrue(backend.isDeleted(handle));
+            assertEquals(0, pool.getSize());
+
+            fakeParser.parseFile("first.mkv");
+            try (MediaInfoHandlePool.Lease lease = pool.acquire()) {
+                assertNotEquals(handle, lease.getHandle());
+                assertEquals(defaults, backend.getOptions(lease.getHandle()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Testing the native library is extracted once per process")
+    void nativeLibraryExtractedOnce() throws InterruptedException, IOException {
+        Path[] paths = new Path[8];
+        Thread[] threads = new Thread[paths.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> paths[index] = NativeLibraryLoader.getLibraryPath());
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (Path path : paths) {
+            assertSame(paths[0], path);
+        }
+        assertSame(paths[0], NativeLibraryLoader.getLibraryPath());
+
+        Path tempDir = paths[0].getParent();
+        assertTrue(Files.isRegularFile(paths[0]));
+        assertTrue(Files.exists(tempDir.resolve(".lock")));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(2, files.count());
+        }
+
+        // The live directory is locked, so a cleanup must keep it
+        NativeLibraryLoader.cleanUpLeakedTempDirectories(tempDir.getParent());
+        assertTrue(Files.isRegularFile(paths[0]));
+    }
+
+    @Test
+    @DisplayName("Testing leaked native library directories are cleaned up")
+    void nativeLibraryLeakedDirectories() throws IOException {
+        Path tmpRoot = Files.createTempDirectory("mi4j-test");
+        Path leaked = Files.createDirectory(tmpRoot.resolve("mediainfo-leaked"));
+        Files.createFile(leaked.resolve(".lock"));
+        Files.write(leaked.resolve(NativeLibraryLoader.getLibraryFileName()), new byte[]{1, 2, 3});
+        Path creating = Files.createDirectory(tmpRoot.resolve("mediainfo-creating"));
+        Files.createFile(creating.resolve(".lock12345.tmp"));
+
+        // Without a lock file, only directories older than any live process are removed
+        FileTime stale = FileTime.from(Instant.now().minus(NativeLibraryLoader.UNLOCKED_DIRECTORY_AGE).minusSeconds(60));
+        Path unlocked = Files.createDirectory(tmpRoot.resolve("mediainfo-unlocked"));
+        Files.write(unlocked.resolve(NativeLibraryLoader.getLibraryFileName()), new byte[]{1, 2, 3});
+        Path staleUnlocked = Files.createDirectory(tmpRoot.resolve("mediainfo-stale"));
+        Files.write(staleUnlocked.resolve(NativeLibraryLoader.getLibraryFileName()), new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(staleUnlocked, stale);
+        Path staleCreating = Files.createDirectory(tmpRoot.resolve("mediainfo-crashed"));
+        Files.createFile(staleCreating.resolve(".lock67890.tmp"));
+        Files.setLastModifiedTime(staleCreating, stale);
+        Path foreign = Files.createDirectory(tmpRoot.resolve("mediainfo-foreign"));
+        Files.createFile(foreign.resolve("notes.txt"));
+        Files.setLastModifiedTime(foreign, stale);
+
+        NativeLibraryLoader.cleanUpLeakedTempDirectories(tmpRoot);
+
+        assertFalse(Files.exists(leaked));
+        assertTrue(Files.exists(creating));
+        assertTrue(Files.exists(unlocked));
+        assertFalse(Files.exists(staleUnlocked));
+        assertFalse(Files.exists(staleCreating));
+        assertTrue(Files.exists(foreign));
+
+        Files.delete(creating.resolve(".lock12345.tmp"));
+        Files.delete(creating);
+        Files.delete(unlocked.resolve(NativeLibraryLoader.getLibraryFileName()));
+        Files.delete(unlocked);
+        Files.delete(foreign.resolve("notes.txt"));
+        Files.delete(foreign);
+        Files.delete(tmpRoot);
+    }
+
+    @Test
+    @DisplayName("Testing the native library cache directory")
+    void nativeLibraryCacheDirectory() throws IOException {
+        Path cacheDir = Files.createTempDirectory("mi4j-cache");
+        byte[] library = "not really a library".getBytes(StandardCharsets.UTF_8);
+        String hash = sha256(library);
+
+        Path libPath = NativeLibraryLoader.extractToCacheDirectory(cacheDir, "libtest.so", hash, new ByteArrayInputStream(library));
+        assertEquals("libtest.so", libPath.getFileName().toString());
+        assertEquals(cacheDir, libPath.getParent().getParent());
+        assertArrayEquals(library, Files.readAllBytes(libPath));
+
+        // A warm start verifies the cached copy by its hash, without reading or rewriting the library
+        FileTime modified = Files.getLastModifiedTime(libPath);
+        InputStream unread = new ByteArrayInputStream(library);
+        assertEquals(libPath, NativeLibraryLoader.extractToCacheDirectory(cacheDir, "libtest.so", hash, unread));
+        assertEquals(library.length, unread.available());
+        assertEquals(modified, Files.getLastModifiedTime(libPath));
+
+        // A corrupted copy is replaced
+        Files.write(libPath, "not really a librarx".getBytes(StandardCharsets.UTF_8));
+        NativeLibraryLoader.extractToCacheDirectory(cacheDir, "libtest.so", hash, new ByteArrayInputStream(library));
+        assertArrayEquals(library, Files.readAllBytes(libPath));
+
+        // Content not matching the hash is rejected
+        assertThrows(IOException.class, () -> NativeLibraryLoader.extractToCacheDirectory(cacheDir, "libother.so", hash,
+            new ByteArrayInputStream("tampered".getBytes(StandardCharsets.UTF_8))));
+        assertFalse(Files.exists(libPath.resolveSibling("libother.so")));
+
+        // Different content goes to a different directory
+        byte[] otherLibrary = "another library".getBytes(StandardCharsets.UTF_8);
+        Path otherPath = NativeLibraryLoader.extractToCacheDirectory(cacheDir, "libtest.so", sha256(otherLibrary), new ByteArrayInputStream(otherLibrary));
+        assertNotEquals(libPath.getParent(), otherPath.getParent());
+
+        for (Path path : List.of(libPath, otherPath)) {
+            try (Stream<Path> files = Files.list(path.getParent())) {
+                assertEquals(List.of(path), files.toList());
+            }
+            Files.delete(path);
+            Files.delete(path.getParent());
+        }
+        Files.delete(cacheDir);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Stream<String> backendNames() {
+        List<String> names = new ArrayList<>();
+        for (MediaInfoBinding binding : MediaInfoBinding.values()) {
+            names.add(binding.getName());
+        }
+        // Only on Java 22 with the FFM layer of the multi-release jar in front of its stub
+        if (FfmMediaInfoBackend.isSupported()) {
+            names.add("ffm");
+        }
+
+        return names.stream();
+    }
+
+    private static MediaInfoBackend createBackend(String name, MediaInfoEncoding encoding) {
+        for (MediaInfoBinding binding : MediaInfoBinding.values()) {
+            if (binding.getName().equals(name)) {
+                return new JnaMediaInfoBackend(MediaInfoLib.getInstance(binding), encoding);
+            }
+        }
+
+        // The FFM backend always exchanges wide strings
+        return MediaInfoBackend.ffm();
+    }
+
     private MediaInfo getMediaInfoFromFile(String resourceName) throws URISyntaxException {
         URL resource = getClass().getClassLoader().getResource(resourceName);
         assertNotNull(resource);
@@ -497,6 +1757,13 @@ public class MediaInfoParserTest {
         return parser.parseFile(file.getAbsolutePath());
     }
 
+    private Path getResourcePath(String resourceName) throws URISyntaxException {
+        URL resource = getClass().getClassLoader().getResource(resourceName);
+        assertNotNull(resource);
+
+        return Paths.get(resource.toURI());
+    }
+
     private MediaInfo getMediaInfoFromText() throws URISyntaxException, IOException {
         URL resource = getClass().getClassLoader().getResource("full.txt");
         assertNotNull(resource);
@@ -506,6 +1773,10 @@ public class MediaInfoParserTest {
         return parser.parseData(data);
     }
 
+    private void leakLease(MediaInfoHandlePool pool) {
+        assertTrue(pool.acquire().getHandle() != 0);
+    }
+
     private String shuffleString(String input) {
         if (input == null || input.isEmpty()) {
             return input;